@@ -0,0 +1,483 @@
+package processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generates, for each top-level interface extending {@code actors.Service}, a proxy and a dispatcher
+ * calling the message constructors and the implementation methods directly, without reflection at runtime.
+ * <p>
+ * For an interface {@code InsultService}, the following classes are generated in its package:
+ * <ul>
+ *     <li>
+ *         {@code InsultServiceProxy}, extending {@code actors.ServiceProxy} and implementing the interface.
+ *         Each method creates the message of the class named after it, {@code messages.<Method>Message},
+ *         with the constructor taking the parameters of the method, or a {@code MethodInvocationMessage}
+ *         if there is none, and sends it as {@code actors.DynamicProxy} would.
+ *     </li>
+ *     <li>
+ *         {@code InsultServiceDispatcher}, implementing {@code actors.ServiceDispatcher}. It selects a method
+ *         from its name and the runtime types of the arguments, the most specific overload first,
+ *         and invokes it on the implementation with the arguments cast to its parameter types.
+ *     </li>
+ * </ul>
+ * {@code DynamicProxy} and {@code ReflectiveActor} look the generated classes up by name once per interface,
+ * and keep their reflective implementation for the interfaces without them, such as the nested ones.
+ */
+@SupportedAnnotationTypes("*")
+public class ServiceProcessor extends AbstractProcessor {
+
+    /**
+     * The name of the interface whose sub-interfaces are processed.
+     */
+    private static final String SERVICE = "actors.Service";
+
+    /**
+     * The package of the message classes.
+     */
+    private static final String MESSAGES = "messages";
+
+    /**
+     * The value of the {@code @Generated} annotation of the generated classes.
+     */
+    private static final String GENERATED = "@javax.annotation.processing.Generated(\"" + ServiceProcessor.class.getName() + "\")";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * Generates the proxy and the dispatcher of the Service interfaces of the round.
+     *
+     * @param annotations the annotations of the round, not used.
+     * @param round       the environment of the round.
+     * @return false, as the annotations are left to other processors.
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        TypeElement service = processingEnv.getElementUtils().getTypeElement(SERVICE);
+        if (service == null)
+            return false;
+
+        for (TypeElement type : ElementFilter.typesIn(round.getRootElements())) {
+            if (type.getKind() != ElementKind.INTERFACE || type.getNestingKind() != NestingKind.TOP_LEVEL
+                    || type.equals(service) || !types().isSubtype(types().erasure(type.asType()), service.asType()))
+                continue;
+            try {
+                List<ExecutableElement> methods = methodsOf(type);
+                write(type, "Proxy", proxy(type, methods));
+                write(type, "Dispatcher", dispatcher(type, methods));
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Cannot generate the classes of " + type.getQualifiedName() + ": " + e.getMessage(), type);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the abstract methods of an interface, including the inherited ones.
+     *
+     * @param type the interface.
+     * @return the methods, in declaration order.
+     */
+    private List<ExecutableElement> methodsOf(TypeElement type) {
+        List<ExecutableElement> methods = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(elements().getAllMembers(type))) {
+            Element owner = method.getEnclosingElement();
+            if (method.getModifiers().contains(Modifier.ABSTRACT)
+                    && !((TypeElement) owner).getQualifiedName().contentEquals("java.lang.Object"))
+                methods.add(method);
+        }
+        return methods;
+    }
+
+    /**
+     * Generates the source of the proxy of an interface.
+     *
+     * @param type    the interface.
+     * @param methods the abstract methods of the interface.
+     * @return the source of the proxy.
+     */
+    private String proxy(TypeElement type, List<ExecutableElement> methods) {
+        String name = type.getSimpleName() + "Proxy";
+        StringBuilder out = header(type);
+        out.append(GENERATED).append('\n')
+                .append("public final class ").append(name).append(typeParameters(type.getTypeParameters()))
+                .append(" extends actors.ServiceProxy implements ").append(type.asType()).append(" {\n\n")
+                .append("    public ").append(name).append("(actors.ActorRef target, java.time.Duration timeout) {\n")
+                .append("        super(target, timeout);\n")
+                .append("    }\n");
+
+        DeclaredType declared = (DeclaredType) type.asType();
+        for (ExecutableElement method : methods) {
+            ExecutableType signature = (ExecutableType) types().asMemberOf(declared, method);
+            List<? extends TypeMirror> parameters = signature.getParameterTypes();
+            TypeMirror returnType = signature.getReturnType();
+
+            out.append("\n    @Override\n    public ")
+                    .append(typeParameters(method.getTypeParameters()))
+                    .append(method.getTypeParameters().isEmpty() ? "" : " ")
+                    .append(returnType).append(' ').append(method.getSimpleName()).append('(');
+            for (int i = 0; i < parameters.size(); i++)
+                out.append(i == 0 ? "" : ", ").append(parameters.get(i)).append(" arg").append(i);
+            out.append(')');
+            if (!method.getThrownTypes().isEmpty())
+                out.append(" throws ").append(method.getThrownTypes().stream()
+                        .map(TypeMirror::toString).collect(Collectors.joining(", ")));
+            out.append(" {\n        ");
+
+            if (method.getSimpleName().contentEquals("end") && parameters.isEmpty()
+                    && returnType.getKind() == TypeKind.VOID) {
+                out.append("super.end();\n    }\n");
+                continue;
+            }
+
+            String message = message(method, parameters);
+            if (returnType.getKind() == TypeKind.VOID)
+                out.append("super.tell(").append(message).append(");\n");
+            else if (isFuture(returnType))
+                out.append("return super.<").append(resultType(returnType)).append(">callAsync(").append(message).append(");\n");
+            else
+                out.append("return super.<").append(boxed(returnType)).append(">call(").append(message).append(");\n");
+            out.append("    }\n");
+        }
+        return out.append("}\n").toString();
+    }
+
+    /**
+     * Generates the source of the dispatcher of an interface.
+     *
+     * @param type    the interface.
+     * @param methods the abstract methods of the interface.
+     * @return the source of the dispatcher.
+     */
+    private String dispatcher(TypeElement type, List<ExecutableElement> methods) {
+        // the overloads of each name, the most specific first, numbered in that order
+        Map<String, List<ExecutableElement>> byName = new LinkedHashMap<>();
+        for (ExecutableElement method : methods)
+            byName.computeIfAbsent(method.getSimpleName().toString(), k -> new ArrayList<>()).add(method);
+        List<ExecutableElement> ordered = new ArrayList<>();
+        byName.replaceAll((k, overloads) -> mostSpecificFirst(overloads));
+        byName.values().forEach(ordered::addAll);
+
+        String erasure = types().erasure(type.asType()).toString();
+        StringBuilder out = header(type);
+        out.append(GENERATED).append('\n')
+                .append("public final class ").append(type.getSimpleName()).append("Dispatcher implements actors.ServiceDispatcher {\n\n")
+                .append("    private static final boolean[] VOID = {");
+        for (int i = 0; i < ordered.size(); i++)
+            out.append(i == 0 ? "" : ", ").append(ordered.get(i).getReturnType().getKind() == TypeKind.VOID);
+        out.append("};\n\n");
+
+        // select
+        out.append("    @Override\n")
+                .append("    public int select(String method, Object[] args) {\n")
+                .append("        int count = args == null ? 0 : args.length;\n")
+                .append("        switch (method) {\n");
+        for (Map.Entry<String, List<ExecutableElement>> entry : byName.entrySet()) {
+            out.append("            case \"").append(entry.getKey()).append("\" -> {\n");
+            for (ExecutableElement method : entry.getValue()) {
+                List<? extends VariableElement> parameters = method.getParameters();
+                out.append("                if (count == ").append(parameters.size());
+                for (int i = 0; i < parameters.size(); i++) {
+                    TypeMirror parameter = parameters.get(i).asType();
+                    if (isObject(parameter))
+                        continue;
+                    String check = "args[" + i + "] instanceof " + types().erasure(boxedType(parameter));
+                    out.append("\n                        && ")
+                            .append(parameter.getKind().isPrimitive() ? check : "(args[" + i + "] == null || " + check + ")");
+                }
+                out.append(")\n                    return ").append(ordered.indexOf(method)).append(";\n");
+            }
+            out.append("            }\n");
+        }
+        out.append("        }\n")
+                .append("        return -1;\n")
+                .append("    }\n\n");
+
+        // isVoid
+        out.append("    @Override\n")
+                .append("    public boolean isVoid(int method) {\n")
+                .append("        return VOID[method];\n")
+                .append("    }\n\n");
+
+        // invoke
+        out.append("    @Override\n")
+                .append("    @SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+                .append("    public Object invoke(actors.Service service, int method, Object[] args) throws Throwable {\n")
+                .append("        ").append(erasure).append(" target = (").append(erasure).append(") service;\n")
+                .append("        switch (method) {\n");
+        for (int index = 0; index < ordered.size(); index++) {
+            ExecutableElement method = ordered.get(index);
+            List<? extends VariableElement> parameters = method.getParameters();
+            StringBuilder call = new StringBuilder("target.").append(method.getSimpleName()).append('(');
+            for (int i = 0; i < parameters.size(); i++) {
+                TypeMirror parameter = parameters.get(i).asType();
+                call.append(i == 0 ? "" : ", ");
+                // a primitive cast unboxes the argument, so that an overload taking Object is not preferred
+                if (parameter.getKind().isPrimitive())
+                    call.append('(').append(parameter).append(") ");
+                else if (!isObject(parameter))
+                    call.append('(').append(types().erasure(parameter)).append(") ");
+                call.append("args[").append(i).append(']');
+            }
+            call.append(')');
+
+            out.append("            case ").append(index).append(" -> {\n");
+            if (method.getReturnType().getKind() == TypeKind.VOID)
+                out.append("                ").append(call).append(";\n")
+                        .append("                return null;\n");
+            else
+                out.append("                return ").append(call).append(";\n");
+            out.append("            }\n");
+        }
+        out.append("            default -> throw new IllegalArgumentException(\"No method with index \" + method + \" in \" + target.getClass().getName());\n")
+                .append("        }\n")
+                .append("    }\n")
+                .append("}\n");
+        return out.toString();
+    }
+
+    /**
+     * Returns the expression creating the message of a method.
+     *
+     * @param method     the method.
+     * @param parameters the parameter types of the method.
+     * @return a call to the constructor of the message class named after the method taking the parameters,
+     * or to the constructor of {@code MethodInvocationMessage}.
+     */
+    private String message(ExecutableElement method, List<? extends TypeMirror> parameters) {
+        String methodName = method.getSimpleName().toString();
+        String arguments = parameters.isEmpty() ? "" : IntStream.range(0, parameters.size())
+                .mapToObj(i -> "arg" + i).collect(Collectors.joining(", "));
+
+        TypeElement messageClass = elements().getTypeElement(
+                MESSAGES + "." + Character.toUpperCase(methodName.charAt(0)) + methodName.substring(1) + "Message");
+        if (messageClass != null && hasConstructor(messageClass, method))
+            return "new " + messageClass.getQualifiedName() + "(" + arguments + ")";
+        return "new messages.MethodInvocationMessage(\"" + methodName + "\", new Object[]{" + arguments + "})";
+    }
+
+    /**
+     * Returns whether a message class has a public constructor with the parameter types of a method.
+     *
+     * @param messageClass the message class.
+     * @param method       the method.
+     * @return true if the message can be created with the arguments of the method.
+     */
+    private boolean hasConstructor(TypeElement messageClass, ExecutableElement method) {
+        if (messageClass.getModifiers().contains(Modifier.ABSTRACT))
+            return false;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(messageClass.getEnclosedElements())) {
+            if (!constructor.getModifiers().contains(Modifier.PUBLIC)
+                    || constructor.getParameters().size() != method.getParameters().size())
+                continue;
+            boolean matches = true;
+            for (int i = 0; i < method.getParameters().size() && matches; i++)
+                matches = types().isSameType(types().erasure(constructor.getParameters().get(i).asType()),
+                        types().erasure(method.getParameters().get(i).asType()));
+            if (matches)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Sorts the overloads of a method so that each one comes before the less specific ones.
+     *
+     * @param overloads the methods with the same name.
+     * @return the methods, the most specific first, otherwise in declaration order.
+     */
+    private List<ExecutableElement> mostSpecificFirst(List<ExecutableElement> overloads) {
+        List<ExecutableElement> remaining = new ArrayList<>(overloads);
+        List<ExecutableElement> sorted = new ArrayList<>();
+        while (!remaining.isEmpty()) {
+            ExecutableElement next = remaining.stream()
+                    .filter(m -> remaining.stream().noneMatch(o -> o != m && isMoreSpecific(o, m)))
+                    .findFirst()
+                    .orElse(remaining.get(0));
+            remaining.remove(next);
+            sorted.add(next);
+        }
+        return sorted;
+    }
+
+    /**
+     * Returns whether a method is strictly more specific than another one, from the boxed erasures of their parameters.
+     *
+     * @param method the method.
+     * @param other  the other method.
+     * @return true if both have the same number of parameters, each parameter of the method is assignable
+     * to the parameter of the other one, and they differ.
+     */
+    private boolean isMoreSpecific(ExecutableElement method, ExecutableElement other) {
+        if (method.getParameters().size() != other.getParameters().size())
+            return false;
+        boolean differs = false;
+        for (int i = 0; i < method.getParameters().size(); i++) {
+            TypeMirror a = types().erasure(boxedType(method.getParameters().get(i).asType()));
+            TypeMirror b = types().erasure(boxedType(other.getParameters().get(i).asType()));
+            if (!types().isAssignable(a, b))
+                return false;
+            differs |= !types().isSameType(a, b);
+        }
+        return differs;
+    }
+
+    /**
+     * Returns whether the erasure of a type is {@code Object}, which accepts any argument without a cast.
+     *
+     * @param type the type.
+     * @return true if the parameter of this type needs neither a check nor a cast.
+     */
+    private boolean isObject(TypeMirror type) {
+        return types().erasure(type).toString().equals("java.lang.Object");
+    }
+
+    /**
+     * Returns whether a type is {@code CompletableFuture} or {@code CompletionStage}.
+     *
+     * @param type the type.
+     * @return true if the method returns immediately with a future.
+     */
+    private boolean isFuture(TypeMirror type) {
+        String erasure = types().erasure(type).toString();
+        return erasure.equals("java.util.concurrent.CompletableFuture")
+                || erasure.equals("java.util.concurrent.CompletionStage");
+    }
+
+    /**
+     * Returns the type of the result of a future.
+     *
+     * @param future the type of the future.
+     * @return its type argument, the bound of a wildcard, or {@code Object} if it is raw or unbounded.
+     */
+    private String resultType(TypeMirror future) {
+        List<? extends TypeMirror> arguments = ((DeclaredType) future).getTypeArguments();
+        if (arguments.isEmpty())
+            return "Object";
+        TypeMirror argument = arguments.get(0);
+        if (argument instanceof WildcardType wildcard) {
+            TypeMirror bound = wildcard.getExtendsBound() != null ? wildcard.getExtendsBound() : wildcard.getSuperBound();
+            return bound == null ? "Object" : bound.toString();
+        }
+        return argument.toString();
+    }
+
+    /**
+     * Returns the name of a type, boxed if primitive.
+     *
+     * @param type the type.
+     * @return the name of the type or of its wrapper.
+     */
+    private String boxed(TypeMirror type) {
+        return boxedType(type).toString();
+    }
+
+    /**
+     * Returns a type, boxed if primitive.
+     *
+     * @param type the type.
+     * @return the type or its wrapper.
+     */
+    private TypeMirror boxedType(TypeMirror type) {
+        return type.getKind().isPrimitive() ? types().boxedClass(types().getPrimitiveType(type.getKind())).asType() : type;
+    }
+
+    /**
+     * Returns the declaration of type parameters.
+     *
+     * @param parameters the type parameters.
+     * @return the declaration, such as {@code <T extends Number>}, or an empty string if there are none.
+     */
+    private static String typeParameters(List<? extends TypeParameterElement> parameters) {
+        if (parameters.isEmpty())
+            return "";
+        return parameters.stream().map(p -> {
+            String bounds = p.getBounds().stream()
+                    .map(TypeMirror::toString)
+                    .filter(b -> !b.equals("java.lang.Object"))
+                    .collect(Collectors.joining(" & "));
+            return p.getSimpleName() + (bounds.isEmpty() ? "" : " extends " + bounds);
+        }).collect(Collectors.joining(", ", "<", ">"));
+    }
+
+    /**
+     * Starts the source of a class generated for an interface.
+     *
+     * @param type the interface.
+     * @return the package declaration of the interface.
+     */
+    private StringBuilder header(TypeElement type) {
+        PackageElement pkg = elements().getPackageOf(type);
+        StringBuilder out = new StringBuilder();
+        if (!pkg.isUnnamed())
+            out.append("package ").append(pkg.getQualifiedName()).append(";\n\n");
+        return out;
+    }
+
+    /**
+     * Writes a class generated for an interface, in the package of the interface.
+     *
+     * @param type   the interface.
+     * @param suffix the suffix appended to the name of the interface.
+     * @param source the source of the class.
+     * @throws IOException if the file cannot be written.
+     */
+    private void write(TypeElement type, String suffix, String source) throws IOException {
+        PackageElement pkg = elements().getPackageOf(type);
+        String name = (pkg.isUnnamed() ? "" : pkg.getQualifiedName() + ".") + type.getSimpleName() + suffix;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(name, type).openWriter()) {
+            writer.write(source);
+        }
+    }
+
+    /**
+     * Returns the utilities to operate on elements.
+     *
+     * @return the element utilities.
+     */
+    private Elements elements() {
+        return processingEnv.getElementUtils();
+    }
+
+    /**
+     * Returns the utilities to operate on types.
+     *
+     * @return the type utilities.
+     */
+    private Types types() {
+        return processingEnv.getTypeUtils();
+    }
+}
@@ -1,18 +1,31 @@
 package actors;
 
+import mailboxes.Mailbox;
+import mailboxes.MailboxOverflowException;
+import mailboxes.MpscMailbox;
+import messages.DeadLetterMessage;
 import messages.DelayedMessage;
 import messages.Message;
 import messages.QuitMessage;
-import messages.SleepMessage;
+import messages.SystemMessage;
+import messages.TransientMessage;
+import messages.WrapperMessage;
 import monitoring.ActorEvent;
+import monitoring.ActorMetrics;
 import monitoring.MessageEvent;
 import monitoring.MonitorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Abstract base class for all Actors.
@@ -20,20 +33,45 @@
 public abstract class AbstractActor implements Actor {
 
     /**
-     * The queue of messages received by the Actor.
+     * The logger for the AbstractActor.
      */
-    protected final BlockingQueue<Message<?>> messageQueue = new LinkedBlockingQueue<>();
+    private static final Logger logger = LoggerFactory.getLogger(AbstractActor.class);
+
+    /**
+     * The mailbox holding the messages received by the Actor.
+     */
+    private volatile Mailbox mailbox;
+
+    /**
+     * The lane of the {@link SystemMessage}s, always drained before the mailbox.
+     */
+    private final MpscMailbox systemLane = new MpscMailbox();
+
+    /**
+     * The counters of the messages of the Actor.
+     */
+    private final ActorMetrics metrics = new ActorMetrics();
 
     /**
      * The list of modifiers to apply to the messages received by the Actor.
      */
     private final List<Modifier<Message<?>>> modifiers = new LinkedList<>();
 
+    /**
+     * The behaviors of the Actor, the current one first. Only used by the Actor.
+     */
+    private final Deque<Behavior> behaviors = new ArrayDeque<>(2);
+
     /**
      * The name of the Actor.
      */
     protected String name;
 
+    /**
+     * The system of the Actor, or null until it is spawned, meaning the default system.
+     */
+    private ActorSystem system;
+
     /**
      * Indicates whether the Actor has started.
      */
@@ -42,33 +80,179 @@ public abstract class AbstractActor implements Actor {
     /**
      * Indicates whether the Actor has stopped.
      */
-    private boolean hasStopped = false;
+    private volatile boolean hasStopped = false;
+
+    /**
+     * Indicates whether the Actor has left its system, once stopped.
+     */
+    private volatile boolean hasTerminated = false;
+
+    /**
+     * The Dispatcher running the Actor, or null if the Actor runs on its own thread.
+     */
+    private volatile Dispatcher dispatcher;
+
+    /**
+     * Indicates whether the Actor is scheduled or running on its Dispatcher.
+     */
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    /**
+     * Indicates whether a thread is sending the messages left by the stopped Actor to the dead letters.
+     * The mailbox has a single consumer, so the Actor and the late senders take turns.
+     */
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+
+    /**
+     * The thread of the Actor while it is parked waiting for messages, if the Actor runs on its own thread.
+     */
+    private volatile Thread waiter;
+
+    /**
+     * The maximum number of messages handed to {@link #processBatch(List)} at once.
+     */
+    private final int maxBatchSize;
+
+    /**
+     * The messages of the current batch, or null if the Actor processes its messages one by one.
+     * Only used by the Actor.
+     */
+    private final List<Message<?>> batch;
 
     /**
-     * Default constructor.
+     * Default constructor. The Actor uses a {@link MpscMailbox}.
      */
     public AbstractActor() {
+        this(new MpscMailbox());
+    }
+
+    /**
+     * Creates an Actor that uses the given mailbox.
+     *
+     * @param mailbox the mailbox holding the messages received by the Actor.
+     */
+    protected AbstractActor(Mailbox mailbox) {
+        this(mailbox, 1);
+    }
+
+    /**
+     * Creates an Actor that uses a {@link MpscMailbox} and processes its messages in batches.
+     *
+     * @param maxBatchSize the maximum number of messages handed to {@link #processBatch(List)} at once.
+     * @throws IllegalArgumentException if the batch size is not positive.
+     */
+    protected AbstractActor(int maxBatchSize) {
+        this(new MpscMailbox(), maxBatchSize);
+    }
 
+    /**
+     * Creates an Actor that uses the given mailbox and processes its messages in batches.
+     * <p>
+     * With a batch size above 1, the Actor drains up to that many messages from its mailbox at once
+     * and hands them to {@link #processBatch(List)}, and the monitoring events are emitted per batch.
+     * On a {@link Dispatcher}, a batch is also limited by the throughput of the Dispatcher.
+     *
+     * @param mailbox      the mailbox holding the messages received by the Actor.
+     * @param maxBatchSize the maximum number of messages handed to {@link #processBatch(List)} at once.
+     * @throws IllegalArgumentException if the mailbox is null or the batch size is not positive.
+     */
+    protected AbstractActor(Mailbox mailbox, int maxBatchSize) {
+        if (mailbox == null)
+            throw new IllegalArgumentException("Mailbox cannot be null!");
+        if (maxBatchSize < 1)
+            throw new IllegalArgumentException("Batch size must be positive!");
+        this.mailbox = mailbox;
+        this.maxBatchSize = maxBatchSize;
+        this.batch = maxBatchSize > 1 ? new ArrayList<>(maxBatchSize) : null;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the mailbox of the Actor is full, its overflow policy is applied.
+     *
+     * @throws MailboxOverflowException if the overflow policy of the mailbox rejects the message.
+     */
     @Override
     public final void send(Message<?> msg) {
+        deliver(msg, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the mailbox of the Actor is full, the message is not added and its overflow policy is ignored.
+     */
+    @Override
+    public final boolean trySend(Message<?> msg) {
+        return deliver(msg, false);
+    }
+
+    /**
+     * Adds a message to the mailbox and schedules or wakes up the Actor.
+     *
+     * @param msg         the message to add.
+     * @param applyPolicy whether to apply the overflow policy of the mailbox if it is full.
+     * @return true if the message was added, false otherwise.
+     */
+    private boolean deliver(Message<?> msg, boolean applyPolicy) {
         if (msg == null)
             throw new IllegalArgumentException("Message cannot be null");
+        if (hasStopped) {
+            deadLetter(msg, DeadLetterMessage.Reason.STOPPED);
+            return false;
+        }
+
+        MonitorService monitor = monitor();
+        // the listeners see the message of a scheduled tick, not the tick itself
+        Message<?> event = msg instanceof Scheduler.Tick tick ? tick.getBody() : msg;
 
         // create send event for the actor that sent the message
-        if (msg.getSenderName() != null)
-            MonitorService.getInstance().notifyListeners(
-                    new MessageEvent<>(msg.getSenderName(), ActorEvent.EventType.MESSAGE_SENT, msg)
+        if (msg.getSenderName() != null && monitor.isListening(msg.getSenderName(), ActorEvent.EventType.MESSAGE_SENT))
+            monitor.notifyListeners(
+                    new MessageEvent<>(msg.getSenderName(), ActorEvent.EventType.MESSAGE_SENT, event)
             );
 
-        // add the message to the queue
-        messageQueue.add(msg);
+        boolean counting = monitor.isCounting();
+        if (counting)
+            recordSent(msg);
+        msg.setEnqueueTime(counting ? System.nanoTime() : 0);
+
+        // add the message to the mailbox, or to the system lane which is unbounded
+        Mailbox target = msg instanceof SystemMessage ? systemLane : mailbox;
+        boolean added;
+        try {
+            added = applyPolicy ? target.enqueue(msg) : target.offer(msg);
+        } catch (MailboxOverflowException e) {
+            // the message is rejected all the same
+            if (counting)
+                metrics.recordDropped();
+            throw e;
+        }
+        if (!added) {
+            if (counting)
+                metrics.recordDropped();
+            return false;
+        }
+        if (hasStopped) {
+            // the Actor stopped while the message was being added, and may have drained its mailbox already
+            drainStopped();
+            return false;
+        }
+        if (counting)
+            metrics.recordReceived();
 
         // create receive event for the actor that received the message
-        MonitorService.getInstance().notifyListeners(
-                new MessageEvent<>(name, ActorEvent.EventType.MESSAGE_RECEIVED, msg)
-        );
+        if (monitor.isListening(name, ActorEvent.EventType.MESSAGE_RECEIVED))
+            monitor.notifyListeners(
+                    new MessageEvent<>(name, ActorEvent.EventType.MESSAGE_RECEIVED, event)
+            );
+
+        if (dispatcher != null)
+            schedule();
+        else
+            wakeUp();
+        return true;
     }
 
     @Override
@@ -78,41 +262,516 @@ public final void start() {
         hasStarted = true;
 
         // create the create event for the actor
-        MonitorService.getInstance().notifyListeners(new ActorEvent(getName(), ActorEvent.EventType.CREATED));
+        monitor().registerMetrics(getName(), metrics);
+        notifyLifecycle(ActorEvent.EventType.CREATED);
+
+        try {
+            while (!hasStopped) {
+                if (batch == null) {
+                    handle(take());
+                } else {
+                    batch.add(take());
+                    drain(maxBatchSize - 1, monitor().isCounting());
+                    handleBatch();
+                }
+            }
+        } catch (RuntimeException e) {
+            // abort the actor as on a Dispatcher, rather than letting its thread die
+            logger.error("Uncaught exception in actor {}", name, e);
+            hasStopped = true;
+            terminate(ActorEvent.EventType.ABORTED);
+            return;
+        }
+
+        terminate(ActorEvent.EventType.STOPPED);
+    }
+
+    @Override
+    public final void start(Dispatcher dispatcher) {
+        if (dispatcher == null)
+            throw new IllegalArgumentException("Dispatcher cannot be null!");
+        if (hasStarted)
+            throw new IllegalStateException("Actor has already started!");
+        hasStarted = true;
+
+        // create the create event for the actor
+        monitor().registerMetrics(getName(), metrics);
+        notifyLifecycle(ActorEvent.EventType.CREATED);
+
+        // messages may have been sent before the actor was started
+        this.dispatcher = dispatcher;
+        if (hasMessages())
+            schedule();
+    }
+
+    /**
+     * Waits until a message is available in the mailbox and returns it.
+     * Used when the Actor runs on its own thread.
+     *
+     * @return the next message.
+     */
+    private Message<?> take() {
+        Message<?> m;
+        while ((m = poll()) == null) {
+            // publish the waiter before checking the mailbox again, so that senders cannot miss it
+            waiter = Thread.currentThread();
+            if ((m = poll()) == null) {
+                LockSupport.park(this);
+                // interrupts are ignored, as they were when waiting on a BlockingQueue
+                Thread.interrupted();
+            }
+            waiter = null;
+            if (m != null)
+                break;
+        }
+        if (monitor().isCounting())
+            metrics.recordDequeued();
+        return m;
+    }
 
-        while (!hasStopped) {
+    /**
+     * Retrieves and removes the next message, from the system lane first.
+     *
+     * @return the next message, or null if there is none.
+     */
+    private Message<?> poll() {
+        Message<?> m = systemLane.poll();
+        return m != null ? m : mailbox.poll();
+    }
+
+    /**
+     * Returns whether there are messages in the system lane or in the mailbox.
+     *
+     * @return true if there are messages to process, false otherwise.
+     */
+    private boolean hasMessages() {
+        return !systemLane.isEmpty() || !mailbox.isEmpty();
+    }
+
+    /**
+     * Wakes up the thread of the Actor if it is parked waiting for messages.
+     */
+    private void wakeUp() {
+        Thread w = waiter;
+        if (w != null)
+            LockSupport.unpark(w);
+    }
+
+    /**
+     * Schedules the Actor on its Dispatcher, unless it is already scheduled or running.
+     */
+    private void schedule() {
+        if (!hasStopped && scheduled.compareAndSet(false, true))
+            dispatcher.execute(this::run);
+    }
+
+    /**
+     * Processes up to {@link Dispatcher#getThroughput()} messages on the current Dispatcher thread,
+     * then yields the thread. The Actor reschedules itself if there are messages left.
+     */
+    private void run() {
+        int throughput = dispatcher.getThroughput();
+        boolean counting = monitor().isCounting();
+        if (counting)
+            metrics.sampleDepth();
+        try {
+            if (batch == null) {
+                for (int i = 0; i < throughput && !hasStopped; i++) {
+                    Message<?> m = poll();
+                    if (m == null)
+                        break;
+                    if (counting)
+                        metrics.recordDequeued();
+                    handle(m);
+                }
+            } else {
+                for (int done = 0; done < throughput && !hasStopped; ) {
+                    int drained = drain(Math.min(maxBatchSize, throughput - done), counting);
+                    if (drained == 0)
+                        break;
+                    done += drained;
+                    handleBatch();
+                }
+            }
+        } catch (RuntimeException e) {
+            // there is no dedicated thread to die, so abort the actor here
+            logger.error("Uncaught exception in actor {}", name, e);
+            hasStopped = true;
+            terminate(ActorEvent.EventType.ABORTED);
+            return;
+        }
+
+        if (hasStopped) {
+            // the actor is never rescheduled once stopped
+            terminate(ActorEvent.EventType.STOPPED);
+            return;
+        }
+
+        scheduled.set(false);
+        if (hasMessages())
+            schedule();
+    }
+
+    /**
+     * Counts a message as sent by its sender, if the sender is an Actor.
+     *
+     * @param msg the message being delivered.
+     */
+    static void recordSent(Message<?> msg) {
+        if (msg.getSender() instanceof AbstractActor sender)
+            sender.metrics.recordSent();
+    }
+
+    /**
+     * Counts and reports a message sent to a reference that is not an Actor, such as an {@link ActorProxy}
+     * or the reply reference of a request, which does not go through a mailbox.
+     *
+     * @param msg the message received by the reference.
+     */
+    static void notifySent(Message<?> msg) {
+        MonitorService monitor = msg.getSender() instanceof AbstractActor sender
+                ? sender.monitor()
+                : MonitorService.getInstance();
+        if (monitor.isCounting())
+            recordSent(msg);
+
+        // Notify the listeners about the message sent by the actor
+        if (msg.getSenderName() != null && monitor.isListening(msg.getSenderName(), ActorEvent.EventType.MESSAGE_SENT))
+            monitor.notifyListeners(
+                    new MessageEvent<>(msg.getSenderName(), ActorEvent.EventType.MESSAGE_SENT, msg)
+            );
+    }
+
+    /**
+     * Removes the Actor from the system, sends the messages left in its mailbox to the dead letters,
+     * and emits its final event.
+     *
+     * @param eventType {@link ActorEvent.EventType#STOPPED} or {@link ActorEvent.EventType#ABORTED}.
+     */
+    private void terminate(ActorEvent.EventType eventType) {
+        getSystem().unregister(getName(), this);
+        drainStopped();
+        monitor().unregisterMetrics(getName());
+        notifyLifecycle(eventType);
+        hasTerminated = true;
+    }
+
+    /**
+     * Returns whether the Actor has stopped and left its system, after which it is never run again.
+     *
+     * @return true if the Actor has terminated, false otherwise.
+     */
+    final boolean hasTerminated() {
+        return hasTerminated;
+    }
+
+    /**
+     * Sends the messages left in the mailbox of the stopped Actor to the dead letters, until it is empty.
+     * Called by the Actor when it terminates, and by the senders that added a message after it stopped,
+     * so that no message is left behind. Only one thread drains at a time; the others leave their messages
+     * to it, since it checks the mailbox again once done.
+     */
+    private void drainStopped() {
+        while (hasMessages() && draining.compareAndSet(false, true)) {
             try {
-                Message<?> m = messageQueue.poll(1000, TimeUnit.SECONDS);
-                if (m instanceof QuitMessage)
-                    hasStopped = true;
-                else if (m instanceof DelayedMessage d)
-                    Thread.sleep(d.getMillis());
-
-                // Also forward the QuitMessage
-                for (var modifier : modifiers)
-                    m = modifier.modify(m);
-                process(m);
-
-                // create the process event for the actor
-                if (m != null)
-                    MonitorService.getInstance().notifyListeners(
-                            new ActorEvent(name, ActorEvent.EventType.MESSAGE_PROCESSED)
-                    );
-            } catch (InterruptedException ignored) {
+                while (hasMessages()) {
+                    Message<?> m = poll();
+                    if (m != null)
+                        deadLetter(m, DeadLetterMessage.Reason.STOPPED);
+                    else
+                        // a sender is still linking its message
+                        Thread.onSpinWait();
+                }
+            } finally {
+                draining.set(false);
+            }
+        }
+    }
+
+    /**
+     * Emits a lifecycle event of the Actor, if anybody is listening.
+     *
+     * @param eventType the type of the event.
+     */
+    private void notifyLifecycle(ActorEvent.EventType eventType) {
+        MonitorService monitor = monitor();
+        if (monitor.isListening(getName(), eventType))
+            monitor.notifyListeners(new ActorEvent(getName(), eventType));
+    }
+
+    /**
+     * Handles a single message taken from the mailbox: unwraps the scheduled ticks, stops the Actor on a {@link QuitMessage},
+     * hands {@link DelayedMessage}s to the timer until they are due, applies the modifiers and processes the message.
+     *
+     * @param m the message to handle.
+     */
+    private void handle(Message<?> m) {
+        m = open(m);
+        if (m == null)
+            return;
+
+        // Also forward the QuitMessage
+        for (var modifier : modifiers)
+            m = modifier.modify(m);
+        if (monitor().isCounting()) {
+            long start = System.nanoTime();
+            if (m != null && m.getEnqueueTime() != 0)
+                metrics.recordQueueWait(start - m.getEnqueueTime());
+            dispatch(m);
+            metrics.recordServiceTime(System.nanoTime() - start);
+            metrics.recordProcessed();
+        } else {
+            dispatch(m);
+        }
+
+        // create the process event for the actor
+        if (m != null && monitor().isListening(name, ActorEvent.EventType.MESSAGE_PROCESSED))
+            monitor().notifyListeners(
+                    new ActorEvent(name, ActorEvent.EventType.MESSAGE_PROCESSED)
+            );
+    }
+
+    /**
+     * Unwraps the scheduled ticks and the due delayed messages, stops the Actor on a {@link QuitMessage},
+     * drops the messages whose deadline has passed, and hands {@link DelayedMessage}s to the timer until they are due.
+     *
+     * @param m the message taken from the mailbox.
+     * @return the message to process, or null if it was dropped or handed to the timer.
+     */
+    private Message<?> open(Message<?> m) {
+        if (m instanceof DueMessage due)
+            return expire(due.getBody());
+
+        if (m instanceof Scheduler.Tick tick)
+            m = tick.open();
+
+        if (m instanceof QuitMessage) {
+            hasStopped = true;
+        } else if (m.isExpired()) {
+            return expire(m);
+        } else if (m instanceof DelayedMessage d && d.getMillis() > 0) {
+            // keep processing the other messages meanwhile
+            Message<?> delayed = m;
+            getSystem().timer().newTimeout(() -> redeliver(delayed), d.getMillis(), TimeUnit.MILLISECONDS);
+            return null;
+        }
+        return m;
+    }
+
+    /**
+     * Drops a message whose deadline has passed, before any modifier or behavior sees it.
+     *
+     * @param m the message.
+     * @return the message if it has not expired, null otherwise.
+     */
+    private Message<?> expire(Message<?> m) {
+        if (!m.isExpired())
+            return m;
+        logger.debug("Actor {} dropped expired message {}", name, m.getClass().getSimpleName());
+        if (monitor().isCounting())
+            metrics.recordExpired();
+        deadLetter(m, DeadLetterMessage.Reason.EXPIRED);
+        return null;
+    }
+
+    /**
+     * Sends a message this Actor will never process to the dead letters of the system.
+     * The {@link TransientMessage}s, such as the scheduled ticks, are discarded instead, since they are not lost
+     * but simply skipped.
+     *
+     * @param m      the message.
+     * @param reason the reason why the message is not processed.
+     */
+    private void deadLetter(Message<?> m, DeadLetterMessage.Reason reason) {
+        if (m instanceof DueMessage due)
+            m = due.getBody();
+        if (m instanceof TransientMessage t) {
+            t.discard();
+            return;
+        }
+        DeadLetters deadLetters = getSystem().deadLetters();
+        if (deadLetters != this)
+            deadLetters.send(new DeadLetterMessage(name, reason, m));
+    }
+
+    /**
+     * Moves up to the given number of messages from the mailbox to the current batch, without waiting.
+     *
+     * @param max      the maximum number of messages to move.
+     * @param counting whether the counters are updated.
+     * @return the number of messages moved.
+     */
+    private int drain(int max, boolean counting) {
+        int drained = max > 0 ? systemLane.drainTo(batch, max) : 0;
+        if (drained < max)
+            drained += mailbox.drainTo(batch, max - drained);
+        if (counting)
+            for (int i = 0; i < drained; i++)
+                metrics.recordDequeued();
+        return drained;
+    }
+
+    /**
+     * Handles the messages of the current batch as {@link #handle(Message)} does, but processes them all at once
+     * with {@link #processBatch(List)} and emits a single event. The messages following a {@link QuitMessage},
+     * which would never be processed, are sent to the dead letters, and the messages a modifier turns into null
+     * are discarded.
+     */
+    private void handleBatch() {
+        int size = 0;
+        int next = 0;
+        for (; next < batch.size() && !hasStopped; next++) {
+            Message<?> m = open(batch.get(next));
+            if (m == null)
+                continue;
+            for (var modifier : modifiers)
+                m = modifier.modify(m);
+            if (m != null)
+                batch.set(size++, m);
+        }
+        for (; next < batch.size(); next++)
+            deadLetter(batch.get(next), DeadLetterMessage.Reason.STOPPED);
+        batch.subList(size, batch.size()).clear();
+
+        try {
+            if (size == 0)
+                return;
+            if (monitor().isCounting()) {
+                long start = System.nanoTime();
+                for (Message<?> m : batch)
+                    if (m.getEnqueueTime() != 0)
+                        metrics.recordQueueWait(start - m.getEnqueueTime());
+                processBatch(Collections.unmodifiableList(batch));
+                // the time of the batch is shared among its messages
+                long serviceTime = (System.nanoTime() - start) / size;
+                for (int i = 0; i < size; i++)
+                    metrics.recordServiceTime(serviceTime);
+                metrics.recordProcessed(size);
+            } else {
+                processBatch(Collections.unmodifiableList(batch));
             }
+        } finally {
+            batch.clear();
+        }
+
+        // create a single process event for the batch
+        if (monitor().isListening(name, ActorEvent.EventType.MESSAGE_PROCESSED))
+            monitor().notifyListeners(
+                    new ActorEvent(name, ActorEvent.EventType.MESSAGE_PROCESSED)
+            );
+    }
+
+    /**
+     * Adds a delayed message back to the mailbox once it is due, so that it is processed on its next dequeue.
+     * Called on the timer thread. The message goes to the dead letters if the Actor has stopped meanwhile
+     * or its mailbox is full.
+     *
+     * @param msg the delayed message.
+     */
+    private void redeliver(Message<?> msg) {
+        if (hasStopped) {
+            deadLetter(msg, DeadLetterMessage.Reason.STOPPED);
+            return;
+        }
+
+        boolean counting = monitor().isCounting();
+        // the delay is not time spent waiting in the mailbox
+        msg.setEnqueueTime(counting ? System.nanoTime() : 0);
+        // never block the timer thread on a full mailbox
+        if (!mailbox.offer(new DueMessage(msg))) {
+            if (counting)
+                metrics.recordDropped();
+            deadLetter(msg, DeadLetterMessage.Reason.OVERFLOW);
+            return;
+        }
+        if (hasStopped) {
+            // the Actor stopped while the message was being added, and may have drained its mailbox already
+            drainStopped();
+            return;
         }
+        if (counting)
+            metrics.recordRequeued();
+
+        if (dispatcher != null)
+            schedule();
+        else
+            wakeUp();
+    }
+
+    /**
+     * Handles a message with the current behavior, or processes it if the behavior does not match it.
+     *
+     * @param m the message.
+     */
+    private void dispatch(Message<?> m) {
+        Behavior current = behaviors.peek();
+        if (current == null || !current.apply(m))
+            process(m);
+    }
 
-        MonitorService.getInstance().notifyListeners(
-                new ActorEvent(getName(), ActorEvent.EventType.STOPPED)
-        );
+    /**
+     * Processes a batch of messages, in the order they were received. Only called when the Actor was created
+     * with a batch size above 1, with as many messages as were waiting in the mailbox, up to that size.
+     * <p>
+     * Override this method to amortize the work over several messages, such as growing a collection once.
+     * By default, each message is handled by the current {@link Behavior}, or else processed by
+     * {@link #process(Message)}.
+     *
+     * @param batch the messages, which cannot be modified and are only valid during the call.
+     */
+    protected void processBatch(List<Message<?>> batch) {
+        for (Message<?> m : batch)
+            dispatch(m);
     }
 
     /**
-     * Processes the given message.
+     * Processes the given message, when the current {@link Behavior}, if any, does not handle it.
+     * <p>
+     * By default, the message is ignored.
      *
      * @param msg the message to process
      */
-    protected abstract void process(Message<?> msg);
+    protected void process(Message<?> msg) {
+        logger.debug("Actor {} ignored unhandled message {}", name, msg);
+    }
+
+    /**
+     * Replaces the current behavior of the Actor. The next messages are handled by the given behavior,
+     * or by {@link #process(Message)} when it does not match them.
+     * Must only be called by the Actor, typically from a handler, or from its constructor.
+     *
+     * @param behavior the new behavior.
+     * @throws IllegalArgumentException if the behavior is null.
+     */
+    protected final void become(Behavior behavior) {
+        become(behavior, true);
+    }
+
+    /**
+     * Changes the current behavior of the Actor. Must only be called by the Actor, typically from a handler,
+     * or from its constructor.
+     *
+     * @param behavior   the new behavior.
+     * @param discardOld whether the new behavior replaces the current one, or is pushed on top of it
+     *                   so that {@link #unbecome()} restores it.
+     * @throws IllegalArgumentException if the behavior is null.
+     */
+    protected final void become(Behavior behavior, boolean discardOld) {
+        if (behavior == null)
+            throw new IllegalArgumentException("Behavior cannot be null!");
+        if (discardOld)
+            behaviors.poll();
+        behaviors.push(behavior);
+    }
+
+    /**
+     * Restores the behavior replaced by the last {@link #become(Behavior, boolean)} that did not discard it.
+     * Without any behavior left, the messages are processed by {@link #process(Message)}.
+     * Must only be called by the Actor.
+     */
+    protected final void unbecome() {
+        behaviors.poll();
+    }
 
     @Override
     public String getName() {
@@ -124,6 +783,47 @@ public void setName(String name) {
         if (name == null || name.isBlank())
             throw new IllegalArgumentException("Name cannot be null or blank!");
         this.name = name;
+        mailbox.setOwner(name);
+    }
+
+    @Override
+    public void setSystem(ActorSystem system) {
+        if (system == null)
+            throw new IllegalArgumentException("System cannot be null!");
+        if (hasStarted)
+            throw new IllegalStateException("Cannot change the system of an Actor that has started!");
+        this.system = system;
+        mailbox.setMetrics(metrics, system.getMonitor());
+    }
+
+    /**
+     * Returns the system the Actor belongs to, for example to spawn other Actors next to it.
+     *
+     * @return the system of the Actor, or the default system if the Actor was not spawned in any.
+     */
+    protected final ActorSystem getSystem() {
+        ActorSystem s = system;
+        return s != null ? s : ActorSystem.getDefault();
+    }
+
+    /**
+     * Returns the monitor the Actor reports to, which is the monitor of its system.
+     *
+     * @return the monitor.
+     */
+    private MonitorService monitor() {
+        return getSystem().getMonitor();
+    }
+
+    @Override
+    public void setMailbox(Mailbox mailbox) {
+        if (mailbox == null)
+            throw new IllegalArgumentException("Mailbox cannot be null!");
+        if (hasStarted)
+            throw new IllegalStateException("Cannot change the mailbox of an Actor that has started!");
+        mailbox.setOwner(name);
+        mailbox.setMetrics(metrics, monitor());
+        this.mailbox = mailbox;
     }
 
     @Override
@@ -139,4 +839,24 @@ public void removeModifier(Modifier<Message<?>> modifier) {
             throw new IllegalArgumentException("Modifier cannot be null!");
         modifiers.remove(modifier);
     }
+
+    /**
+     * A delayed message added back to the mailbox once due, so that it is processed without being delayed again.
+     */
+    private static final class DueMessage extends Message<Message<?>> implements WrapperMessage {
+
+        /**
+         * Creates a new DueMessage.
+         *
+         * @param msg the delayed message.
+         */
+        private DueMessage(Message<?> msg) {
+            super(msg);
+        }
+
+        @Override
+        public Message<?> getWrappedMessage() {
+            return getBody();
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package actors;
 
+import mailboxes.Mailbox;
 import messages.Message;
 
 /**
@@ -16,6 +17,16 @@ public interface Actor extends ActorRef, ProcessModifiable<Message<?>> {
      */
     void start();
 
+    /**
+     * Starts the Actor on the given Dispatcher.
+     * Unlike {@link #start()}, this method returns immediately: the Actor is scheduled on the
+     * Dispatcher whenever it has messages to process.
+     * It should not be called by the user.
+     *
+     * @param dispatcher the Dispatcher that runs the Actor.
+     */
+    void start(Dispatcher dispatcher);
+
     /**
      * Returns the name of the Actor.
      *
@@ -29,4 +40,29 @@ public interface Actor extends ActorRef, ProcessModifiable<Message<?>> {
      * @param name the name of the Actor.
      */
     void setName(String name);
+
+    /**
+     * Set the mailbox holding the messages received by the Actor.
+     * Must be called before the Actor is started.
+     *
+     * @param mailbox the mailbox of the Actor.
+     */
+    void setMailbox(Mailbox mailbox);
+
+    /**
+     * Set the system the Actor belongs to, which provides its monitor, timer and dead letters.
+     * Called when the Actor is spawned, before it is started.
+     *
+     * @param system the system of the Actor.
+     */
+    void setSystem(ActorSystem system);
+
+    /**
+     * Returns the Actor processing the messages: the Actor itself, or the Actor it decorates.
+     *
+     * @return the undecorated Actor.
+     */
+    default Actor unwrap() {
+        return this;
+    }
 }
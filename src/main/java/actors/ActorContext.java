@@ -1,49 +1,21 @@
 package actors;
 
-import monitoring.ActorEvent;
-import monitoring.MonitorService;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import mailboxes.Mailbox;
+import messages.Message;
+import util.HashedWheelTimer;
 
-import java.util.HashMap;
+import java.time.Duration;
 import java.util.Set;
 import java.util.concurrent.ThreadFactory;
 
 /**
  * An ActorContext is a container for all the Actors in the system.
+ * <p>
+ * It is a static facade over the {@linkplain ActorSystem#getDefault() default ActorSystem}: create other
+ * {@link ActorSystem}s to run Actors isolated from the default ones.
  */
 public class ActorContext {
 
-    /**
-     * The map of all the Actors in the system.
-     */
-    private static final HashMap<String, Actor> actors = new HashMap<>();
-
-    /**
-     * The map of all the ActorProxies for all the Actors in the system.
-     */
-    private static final HashMap<String, ActorProxy> actorProxies = new HashMap<>();
-
-    /**
-     * Default ThreadFactory for the Actors: platform threads.
-     */
-    private static final ThreadFactory defaultThreadFactory = Thread.ofPlatform().factory();
-
-    /**
-     * The logger for the ActorContext.
-     */
-    private static final Logger logger = LoggerFactory.getLogger(ActorContext.class);
-
-    static {
-        // Create a listener for finished actors
-        MonitorService.getInstance().attach(event -> {
-            if (event.getEventType() == ActorEvent.EventType.STOPPED) {
-                actorProxies.remove(event.getSource());
-                actors.remove(event.getSource());
-            }
-        });
-    }
-
     /**
      * Private constructor to prevent instantiation.
      */
@@ -53,14 +25,14 @@ private ActorContext() {
 
     /**
      * Spawn an Actor in the system, register it with the given name, and return an
-     * ActorProxy for it.
+     * ActorProxy for it. The Actor runs on the default Dispatcher.
      *
      * @param name  the name of the Actor. Must be unique.
      * @param actor the Actor to spawn.
      * @return an ActorProxy for the Actor.
      */
     public static ActorProxy spawnActor(String name, Actor actor) {
-        return spawnActor(name, actor, defaultThreadFactory);
+        return ActorSystem.getDefault().spawnActor(name, actor);
     }
 
     /**
@@ -74,76 +46,155 @@ public static ActorProxy spawnActor(String name, Actor actor) {
      * @return an ActorProxy for the Actor.
      */
     public static ActorProxy spawnActor(String name, Actor actor, ThreadFactory threadFactory) {
-        if (name == null || name.isBlank())
-            throw new IllegalArgumentException("Actor name cannot be null or empty");
-        if (actors.containsKey(name))
-            throw new IllegalArgumentException("Actor with name " + name + " already exists!");
-
-        logger.info("spawnActor: {}", name);
-
-        actor.setName(name);
-        actors.put(name, actor);
-
-        Thread t = threadFactory.newThread(actor::start);
-        t.setUncaughtExceptionHandler((t1, e) -> {
-            logger.error("Uncaught exception in actor thread", e);
-            MonitorService.getInstance().notifyListeners(new ActorEvent(name, ActorEvent.EventType.ABORTED));
-            actors.remove(name);
-            actorProxies.remove(name);
-        });
-        t.start();
-
-        ActorProxy actorProxy = new ActorProxy(actor);
-        actorProxies.put(name, actorProxy);
-
-        MonitorService.getInstance().attach((event) -> {
-            if (event.getSource().equals(name) &&
-                    event.getEventType() == ActorEvent.EventType.STOPPED) {
-                actorProxies.remove(name);
-                actors.remove(name);
-            }
-        });
-
-        return actorProxy;
+        return ActorSystem.getDefault().spawnActor(name, actor, threadFactory);
+    }
+
+    /**
+     * Spawn an Actor in the system with the given mailbox, register it with the given name, and
+     * return an ActorProxy for it. Use the given ThreadFactory to create the thread for the Actor.
+     *
+     * @param name          the name of the Actor. Must be unique.
+     * @param actor         the Actor to spawn.
+     * @param threadFactory the ThreadFactory to use to create the thread for the Actor.
+     * @param mailbox       the mailbox of the Actor, or null to keep its own.
+     * @return an ActorProxy for the Actor.
+     */
+    public static ActorProxy spawnActor(String name, Actor actor, ThreadFactory threadFactory, Mailbox mailbox) {
+        return ActorSystem.getDefault().spawnActor(name, actor, threadFactory, mailbox);
+    }
+
+    /**
+     * Spawn an Actor in the system, register it with the given name, and return an
+     * ActorProxy for it. The Actor runs on the given Dispatcher, which may be shared
+     * with other Actors.
+     *
+     * @param name       the name of the Actor. Must be unique.
+     * @param actor      the Actor to spawn.
+     * @param dispatcher the Dispatcher that runs the Actor.
+     * @return an ActorProxy for the Actor.
+     */
+    public static ActorProxy spawnActor(String name, Actor actor, Dispatcher dispatcher) {
+        return ActorSystem.getDefault().spawnActor(name, actor, dispatcher);
+    }
+
+    /**
+     * Spawn an Actor in the system with the given mailbox, register it with the given name, and
+     * return an ActorProxy for it. The Actor runs on the default Dispatcher.
+     *
+     * @param name    the name of the Actor. Must be unique.
+     * @param actor   the Actor to spawn.
+     * @param mailbox the mailbox of the Actor, for example a {@link mailboxes.BoundedMailbox}.
+     * @return an ActorProxy for the Actor.
+     */
+    public static ActorProxy spawnActor(String name, Actor actor, Mailbox mailbox) {
+        return ActorSystem.getDefault().spawnActor(name, actor, mailbox);
+    }
+
+    /**
+     * Spawn an Actor in the system with the given mailbox, register it with the given name, and
+     * return an ActorProxy for it. The Actor runs on the given Dispatcher.
+     *
+     * @param name       the name of the Actor. Must be unique.
+     * @param actor      the Actor to spawn.
+     * @param dispatcher the Dispatcher that runs the Actor.
+     * @param mailbox    the mailbox of the Actor, or null to keep its own.
+     * @return an ActorProxy for the Actor.
+     */
+    public static ActorProxy spawnActor(String name, Actor actor, Dispatcher dispatcher, Mailbox mailbox) {
+        return ActorSystem.getDefault().spawnActor(name, actor, dispatcher, mailbox);
+    }
+
+    /**
+     * Returns the timer of the default system, for example to time out the requests.
+     *
+     * @return the timer.
+     */
+    static HashedWheelTimer timer() {
+        return ActorSystem.getDefault().timer();
+    }
+
+    /**
+     * Returns the dead letters of the system, collecting the messages sent to a missing or stopped Actor,
+     * the messages left in the mailbox of a stopped Actor and the expired messages. They can also be given
+     * to a mailbox diverting messages, such as a {@link mailboxes.BoundedMailbox} with the
+     * {@link mailboxes.OverflowPolicy#DEAD_LETTERS} policy or a {@link mailboxes.CoDelMailbox}.
+     *
+     * @return the dead letters.
+     */
+    public static DeadLetters deadLetters() {
+        return ActorSystem.getDefault().deadLetters();
+    }
+
+    /**
+     * Send a message to an Actor once, after the given delay. The message is sent from the timer thread
+     * shared by all the Actors, and dropped if the mailbox of the Actor is full.
+     *
+     * @param delay  the delay before sending the message.
+     * @param target the Actor to send the message to, or its ActorProxy.
+     * @param msg    the message to send.
+     * @return the handle to cancel the send.
+     * @throws IllegalArgumentException if an argument is null or the delay is negative.
+     */
+    public static Cancellable scheduleOnce(Duration delay, ActorRef target, Message<?> msg) {
+        return ActorSystem.getDefault().scheduleOnce(delay, target, msg);
+    }
+
+    /**
+     * Send a message to an Actor periodically, the first time after the given delay. The message is sent
+     * from the timer thread shared by all the Actors, at a fixed rate that does not drift.
+     * <p>
+     * A tick is skipped while the Actor has not taken the previous one from its mailbox yet, so that
+     * a slow Actor is not flooded with ticks.
+     *
+     * @param initialDelay the delay before sending the first message.
+     * @param period       the period between two messages.
+     * @param target       the Actor to send the messages to, or its ActorProxy.
+     * @param msg          the message to send on each tick.
+     * @return the handle to cancel the sends.
+     * @throws IllegalArgumentException if an argument is null, the delay is negative or the period is not positive.
+     */
+    public static Cancellable scheduleAtFixedRate(Duration initialDelay, Duration period, ActorRef target, Message<?> msg) {
+        return ActorSystem.getDefault().scheduleAtFixedRate(initialDelay, period, target, msg);
     }
 
     /**
      * Returns the ActorProxy for the actor with the given name.
      *
      * @param name the name of the Actor.
-     * @return the ActorProxy for the Actor.
+     * @return the ActorProxy for the Actor, or null if there is no such Actor.
      */
     public static ActorProxy lookupProxy(String name) {
-        return actorProxies.get(name);
+        return ActorSystem.getDefault().lookupProxy(name);
     }
 
     /**
      * Returns the Actor with the given name.
      *
      * @param name the name of the Actor.
-     * @return the Actor.
+     * @return the Actor, or null if there is no such Actor.
      */
     public static Actor lookupActor(String name) {
-        return actors.get(name);
+        return ActorSystem.getDefault().lookupActor(name);
     }
 
     /**
      * Returns an ActorRef for the actor with the given name.
      *
      * @param name the name of the Actor.
-     * @return the ActorRef.
+     * @return the ActorRef, or null if there is no such Actor.
      */
     public static ActorRef lookupActorRef(String name) {
-        return actors.get(name);
+        return ActorSystem.getDefault().lookupActorRef(name);
     }
 
     /**
-     * Returns the set of all the names of the Actors in the system.
+     * Returns the set of all the names of the Actors in the system. The set is a read-only view,
+     * weakly consistent with the Actors spawned and stopped while it is iterated.
      *
      * @return the set of all the names of the Actors in the system.
      */
     public static Set<String> getNames() {
-        return actors.keySet();
+        return ActorSystem.getDefault().getNames();
     }
 }
 
@@ -1,9 +1,6 @@
 package actors;
 
 import messages.Message;
-import monitoring.ActorEvent;
-import monitoring.MessageEvent;
-import monitoring.MonitorService;
 
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -45,21 +42,51 @@ public ActorProxy(ActorRef targetActor) {
      */
     @Override
     public void send(Message<?> msg) {
+        targetActor.send(prepare(msg));
+    }
+
+    /**
+     * Tries to send a message to the Actor without blocking, setting the sender as in
+     * {@link #send(Message)}.
+     *
+     * @param msg the message to send.
+     * @return true if the message was sent, false if the mailbox of the Actor is full.
+     */
+    @Override
+    public boolean trySend(Message<?> msg) {
+        return targetActor.trySend(prepare(msg));
+    }
+
+    /**
+     * Sets the ActorProxy as the sender of the message, unless it already has a sender.
+     *
+     * @param msg the message to send.
+     * @return the message.
+     */
+    private Message<?> prepare(Message<?> msg) {
         if (msg.getSender() == null)
             msg.setSender(msg1 -> {
-                // Notify the listeners about the message sent by the actor
-                if (msg1.getSenderName() != null)
-                    MonitorService.getInstance().notifyListeners(
-                            new MessageEvent<>(msg1.getSenderName(), ActorEvent.EventType.MESSAGE_SENT, msg1)
-                    );
+                AbstractActor.notifySent(msg1);
                 receivedMessages.add(msg1);
             });
         msg.setSenderName((targetActor instanceof Actor a ? a.getName() : "unknown") + " (ActorProxy)");
-        targetActor.send(msg);
+        return msg;
+    }
+
+    /**
+     * Returns the Actor behind the proxy.
+     *
+     * @return the reference to the Actor.
+     */
+    ActorRef getTarget() {
+        return targetActor;
     }
 
     /**
      * Returns the next message received by the Actor.
+     * <p>
+     * All the replies share the same queue, so concurrent callers may take each other's replies:
+     * {@link #ask(Message, java.time.Duration)} matches each reply to its request instead.
      *
      * @return the next message received by the Actor.
      * @throws ClassCastException if the message cannot be cast to the given type.
@@ -2,6 +2,9 @@
 
 import messages.Message;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * An ActorRef is a reference to an Actor. It is used to send messages to the
  * Actor.
@@ -14,4 +17,52 @@ public interface ActorRef {
      * @param msg the message to send.
      */
     void send(Message<?> msg);
+
+    /**
+     * Try to send a message to the Actor without blocking.
+     * Unlike {@link #send(Message)}, a full mailbox makes this method return false instead of
+     * blocking or failing, so that the sender can back off.
+     * <p>
+     * By default, the message is sent with {@link #send(Message)}.
+     *
+     * @param msg the message to send.
+     * @return true if the message was sent, false if the mailbox of the Actor is full.
+     */
+    default boolean trySend(Message<?> msg) {
+        send(msg);
+        return true;
+    }
+
+    /**
+     * Send a request to the Actor and return a future completed by its reply.
+     * <p>
+     * The request is sent with a one-shot reply reference as its sender and a new correlation identifier, so
+     * that concurrent requests never receive each other's replies, and no thread waits for the reply. The Actor
+     * replies by sending a message to the sender of the request, either the request itself or a message created
+     * with {@link Message#reply(Object)}.
+     *
+     * @param msg     the request. Its sender and correlation identifier are replaced.
+     * @param timeout the time to wait for the reply.
+     * @param <T>     the type of the body of the reply.
+     * @return the future completed by the reply, or completed exceptionally with a
+     * {@link java.util.concurrent.TimeoutException} if there is no reply in time, or with the exception thrown
+     * while sending the request.
+     * @throws IllegalArgumentException if the message is null or the timeout is not positive.
+     */
+    default <T> CompletableFuture<Message<T>> ask(Message<?> msg, Duration timeout) {
+        if (msg == null)
+            throw new IllegalArgumentException("Message cannot be null");
+        if (timeout == null || timeout.isNegative() || timeout.isZero())
+            throw new IllegalArgumentException("Timeout must be positive!");
+
+        PromiseRef<T> promise = new PromiseRef<>(PromiseRef.timerOf(this), timeout);
+        msg.setSender(promise);
+        msg.setCorrelationId(promise.getCorrelationId());
+        try {
+            send(msg);
+        } catch (RuntimeException e) {
+            promise.fail(e);
+        }
+        return promise.getFuture();
+    }
 }
@@ -0,0 +1,147 @@
+package actors;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The names of the Actors of an {@link ActorSystem}, with the Actor and the ActorProxy registered under each name.
+ * <p>
+ * The Actors are spawned, stopped and looked up from any thread: by the callers of
+ * {@link ActorSystem#spawnActor(String, Actor)}, by the Actors themselves when they stop, and by the RPC threads.
+ * The Actor and its ActorProxy are therefore kept in a single entry of a {@link ConcurrentHashMap}, so that
+ * registering a name is atomic and both are always published together, while the lookups never block.
+ */
+final class ActorRegistry {
+
+    /**
+     * The entry of a name reserved while its Actor is being set up, which the lookups ignore.
+     */
+    private static final Entry RESERVED = new Entry(null, null);
+
+    /**
+     * The Actor and ActorProxy registered under each name.
+     */
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * A read-only, weakly consistent view of the registered names, without the reserved ones.
+     */
+    private final Set<String> names = new Names();
+
+    /**
+     * Reserves a name, unless it is already taken, so that the Actor can be set up before it is registered.
+     * Until then, the name is taken but the lookups find nothing.
+     *
+     * @param name the name of the Actor.
+     * @return true if the name was reserved, false if it is already taken.
+     */
+    boolean reserve(String name) {
+        return entries.putIfAbsent(name, RESERVED) == null;
+    }
+
+    /**
+     * Frees a name reserved for an Actor that could not be set up.
+     *
+     * @param name the reserved name.
+     */
+    void release(String name) {
+        entries.remove(name, RESERVED);
+    }
+
+    /**
+     * Registers an Actor and its ActorProxy under a name reserved for it.
+     *
+     * @param name  the reserved name.
+     * @param actor the Actor, already named.
+     * @param proxy the ActorProxy of the Actor.
+     */
+    void register(String name, Actor actor, ActorProxy proxy) {
+        entries.replace(name, RESERVED, new Entry(actor, proxy));
+    }
+
+    /**
+     * Removes an Actor from its name, unless another Actor is registered under the name, for example because
+     * the Actor was never registered.
+     *
+     * @param name  the name of the Actor.
+     * @param actor the Actor, or the Actor it decorates.
+     */
+    void unregister(String name, Actor actor) {
+        entries.computeIfPresent(name, (n, entry) -> entry.actor() != null && entry.actor().unwrap() == actor ? null : entry);
+    }
+
+    /**
+     * Returns the Actor registered under a name.
+     *
+     * @param name the name of the Actor.
+     * @return the Actor, or null if there is none.
+     */
+    Actor lookupActor(String name) {
+        Entry entry = entries.get(name);
+        return entry == null ? null : entry.actor();
+    }
+
+    /**
+     * Returns the ActorProxy of the Actor registered under a name.
+     *
+     * @param name the name of the Actor.
+     * @return the ActorProxy, or null if there is none.
+     */
+    ActorProxy lookupProxy(String name) {
+        Entry entry = entries.get(name);
+        return entry == null ? null : entry.proxy();
+    }
+
+    /**
+     * Returns the registered names. The set is a read-only view, not a copy: it reflects the Actors spawned
+     * and stopped meanwhile, and can be iterated while they are, without ever failing. The names reserved for
+     * the Actors still being set up are left out, since they cannot be looked up yet.
+     *
+     * @return the names of the Actors.
+     */
+    Set<String> names() {
+        return names;
+    }
+
+    /**
+     * The view of the registered names, skipping the reserved ones. Its size is counted on each call.
+     */
+    private final class Names extends AbstractSet<String> {
+
+        @Override
+        public Iterator<String> iterator() {
+            return entries.entrySet().stream()
+                    .filter(e -> e.getValue() != RESERVED)
+                    .map(Map.Entry::getKey)
+                    .iterator();
+        }
+
+        @Override
+        public int size() {
+            return (int) entries.values().stream().filter(e -> e != RESERVED).count();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return entries.values().stream().allMatch(e -> e == RESERVED);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            Entry entry = o == null ? null : entries.get(o);
+            return entry != null && entry != RESERVED;
+        }
+    }
+
+    /**
+     * An Actor and its ActorProxy.
+     *
+     * @param actor the Actor.
+     * @param proxy the ActorProxy of the Actor.
+     */
+    private record Entry(Actor actor, ActorProxy proxy) {
+    }
+}
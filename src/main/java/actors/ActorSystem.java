@@ -0,0 +1,513 @@
+package actors;
+
+import mailboxes.Mailbox;
+import messages.Message;
+import messages.QuitMessage;
+import monitoring.MonitorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import util.HashedWheelTimer;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * An ActorSystem is a container of Actors, isolated from the other systems of the JVM: it owns the registry of its
+ * Actors, the default Dispatcher running them, the timer of their delayed and scheduled messages, their dead letters
+ * and the {@link MonitorService} they report to.
+ * <p>
+ * {@link ActorContext} is a facade over the {@linkplain #getDefault() default system}, which reports to
+ * {@link MonitorService#getInstance()}. Other systems can be created, for example one per tenant, each with its own
+ * Dispatcher and monitoring level, or one per test or benchmark, and thrown away with {@link #shutdown()}.
+ */
+public class ActorSystem {
+
+    /**
+     * The name of the default system.
+     */
+    public static final String DEFAULT_NAME = "default";
+
+    /**
+     * The default time {@link #shutdown()} waits for the Actors to stop before stopping the Dispatcher.
+     */
+    public static final Duration DEFAULT_SHUTDOWN_TIMEOUT = Duration.ofSeconds(5);
+
+    /**
+     * The longest time {@link #shutdown(Duration)} parks before checking the Actors again, in nanoseconds.
+     */
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * The logger for the ActorSystem.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ActorSystem.class);
+
+    /**
+     * The name of the system.
+     */
+    private final String name;
+
+    /**
+     * The Actors of the system and their ActorProxies.
+     */
+    private final ActorRegistry registry = new ActorRegistry();
+
+    /**
+     * Default Dispatcher of the system, shared by all the Actors that are not given a
+     * ThreadFactory or Dispatcher of their own.
+     */
+    private final Dispatcher dispatcher;
+
+    /**
+     * Whether the Dispatcher was created by the system, and is therefore shut down with it.
+     */
+    private final boolean ownsDispatcher;
+
+    /**
+     * The monitor of the system, or null for the default system, which reports to {@link MonitorService#getInstance()}.
+     */
+    private final MonitorService monitor;
+
+    /**
+     * The timer of the system. Created on first use, so that its thread is only started when needed.
+     */
+    private volatile HashedWheelTimer timer;
+
+    /**
+     * The dead letters of the system. Created on first use.
+     */
+    private volatile DeadLetters deadLetters;
+
+    /**
+     * Indicates whether the system has been shut down.
+     */
+    private volatile boolean shutdown;
+
+    /**
+     * Holder of the default system, so that it is only created when first used.
+     */
+    private static final class DefaultHolder {
+
+        /**
+         * The default system.
+         */
+        private static final ActorSystem system = new ActorSystem(DEFAULT_NAME, new ForkJoinDispatcher(), true, null);
+    }
+
+    /**
+     * Creates a new ActorSystem, with its own {@link ForkJoinDispatcher} and {@link MonitorService}.
+     *
+     * @param name the name of the system.
+     * @throws IllegalArgumentException if the name is null or blank.
+     */
+    public ActorSystem(String name) {
+        this(name, new ForkJoinDispatcher(), true, new MonitorService());
+    }
+
+    /**
+     * Creates a new ActorSystem with its own {@link MonitorService}, running its Actors on the given Dispatcher.
+     * The Dispatcher is not shut down with the system, so that it can be shared.
+     *
+     * @param name       the name of the system.
+     * @param dispatcher the default Dispatcher of the system.
+     * @throws IllegalArgumentException if the name is null or blank, or the Dispatcher is null.
+     */
+    public ActorSystem(String name, Dispatcher dispatcher) {
+        this(name, dispatcher, false, new MonitorService());
+    }
+
+    /**
+     * Creates a new ActorSystem.
+     *
+     * @param name           the name of the system.
+     * @param dispatcher     the default Dispatcher of the system.
+     * @param ownsDispatcher whether the Dispatcher is shut down with the system.
+     * @param monitor        the monitor of the system, or null to report to {@link MonitorService#getInstance()}.
+     */
+    private ActorSystem(String name, Dispatcher dispatcher, boolean ownsDispatcher, MonitorService monitor) {
+        if (name == null || name.isBlank())
+            throw new IllegalArgumentException("System name cannot be null or empty");
+        if (dispatcher == null)
+            throw new IllegalArgumentException("Dispatcher cannot be null");
+
+        this.name = name;
+        this.dispatcher = dispatcher;
+        this.ownsDispatcher = ownsDispatcher;
+        this.monitor = monitor;
+        if (monitor != null)
+            monitor.setActorNames(this::getNames);
+    }
+
+    /**
+     * Returns the default system, used by {@link ActorContext}.
+     *
+     * @return the default system.
+     */
+    public static ActorSystem getDefault() {
+        return DefaultHolder.system;
+    }
+
+    /**
+     * Returns the name of the system.
+     *
+     * @return the name of the system.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the monitor the Actors of the system report to.
+     *
+     * @return the monitor of the system.
+     */
+    public MonitorService getMonitor() {
+        return monitor != null ? monitor : MonitorService.getInstance();
+    }
+
+    /**
+     * Spawn an Actor in the system, register it with the given name, and return an
+     * ActorProxy for it. The Actor runs on the default Dispatcher of the system.
+     *
+     * @param name  the name of the Actor. Must be unique in the system.
+     * @param actor the Actor to spawn.
+     * @return an ActorProxy for the Actor.
+     */
+    public ActorProxy spawnActor(String name, Actor actor) {
+        return spawnActor(name, actor, dispatcher);
+    }
+
+    /**
+     * Spawn an Actor in the system, register it with the given name, and return an
+     * ActorProxy for it. Use the given ThreadFactory to create the thread for the
+     * Actor.
+     *
+     * @param name          the name of the Actor. Must be unique in the system.
+     * @param actor         the Actor to spawn.
+     * @param threadFactory the ThreadFactory to use to create the thread for the Actor.
+     * @return an ActorProxy for the Actor.
+     */
+    public ActorProxy spawnActor(String name, Actor actor, ThreadFactory threadFactory) {
+        return spawnActor(name, actor, threadFactory, null);
+    }
+
+    /**
+     * Spawn an Actor in the system with the given mailbox, register it with the given name, and
+     * return an ActorProxy for it. Use the given ThreadFactory to create the thread for the Actor.
+     *
+     * @param name          the name of the Actor. Must be unique in the system.
+     * @param actor         the Actor to spawn.
+     * @param threadFactory the ThreadFactory to use to create the thread for the Actor.
+     * @param mailbox       the mailbox of the Actor, or null to keep its own.
+     * @return an ActorProxy for the Actor.
+     */
+    public ActorProxy spawnActor(String name, Actor actor, ThreadFactory threadFactory, Mailbox mailbox) {
+        ActorProxy actorProxy = register(name, actor, mailbox);
+
+        Thread t = threadFactory.newThread(actor::start);
+        // the actor aborts itself on an exception, so only the errors reach the thread
+        t.setUncaughtExceptionHandler((t1, e) -> logger.error("Uncaught error in actor {}", name, e));
+        t.start();
+
+        return actorProxy;
+    }
+
+    /**
+     * Spawn an Actor in the system, register it with the given name, and return an
+     * ActorProxy for it. The Actor runs on the given Dispatcher, which may be shared
+     * with other Actors.
+     *
+     * @param name       the name of the Actor. Must be unique in the system.
+     * @param actor      the Actor to spawn.
+     * @param dispatcher the Dispatcher that runs the Actor.
+     * @return an ActorProxy for the Actor.
+     */
+    public ActorProxy spawnActor(String name, Actor actor, Dispatcher dispatcher) {
+        return spawnActor(name, actor, dispatcher, null);
+    }
+
+    /**
+     * Spawn an Actor in the system with the given mailbox, register it with the given name, and
+     * return an ActorProxy for it. The Actor runs on the default Dispatcher of the system.
+     *
+     * @param name    the name of the Actor. Must be unique in the system.
+     * @param actor   the Actor to spawn.
+     * @param mailbox the mailbox of the Actor, for example a {@link mailboxes.BoundedMailbox}.
+     * @return an ActorProxy for the Actor.
+     */
+    public ActorProxy spawnActor(String name, Actor actor, Mailbox mailbox) {
+        return spawnActor(name, actor, dispatcher, mailbox);
+    }
+
+    /**
+     * Spawn an Actor in the system with the given mailbox, register it with the given name, and
+     * return an ActorProxy for it. The Actor runs on the given Dispatcher.
+     *
+     * @param name       the name of the Actor. Must be unique in the system.
+     * @param actor      the Actor to spawn.
+     * @param dispatcher the Dispatcher that runs the Actor.
+     * @param mailbox    the mailbox of the Actor, or null to keep its own.
+     * @return an ActorProxy for the Actor.
+     */
+    public ActorProxy spawnActor(String name, Actor actor, Dispatcher dispatcher, Mailbox mailbox) {
+        if (dispatcher == null)
+            throw new IllegalArgumentException("Dispatcher cannot be null");
+
+        ActorProxy actorProxy = register(name, actor, mailbox);
+        actor.start(dispatcher);
+        return actorProxy;
+    }
+
+    /**
+     * Register an Actor with the given name and create its ActorProxy.
+     *
+     * @param name    the name of the Actor. Must be unique in the system.
+     * @param actor   the Actor to register.
+     * @param mailbox the mailbox of the Actor, or null to keep its own.
+     * @return an ActorProxy for the Actor.
+     */
+    private ActorProxy register(String name, Actor actor, Mailbox mailbox) {
+        if (shutdown)
+            throw new IllegalStateException("Actor system " + this.name + " has been shut down!");
+        if (name == null || name.isBlank())
+            throw new IllegalArgumentException("Actor name cannot be null or empty");
+        // take the name before touching the actor, so that it is left as is if the name is taken
+        if (!registry.reserve(name))
+            throw new IllegalArgumentException("Actor with name " + name + " already exists!");
+
+        logger.info("spawnActor: {}", name);
+
+        try {
+            actor.setName(name);
+            actor.setSystem(this);
+            if (mailbox != null)
+                actor.setMailbox(mailbox);
+        } catch (RuntimeException e) {
+            registry.release(name);
+            throw e;
+        }
+
+        ActorProxy actorProxy = new ActorProxy(actor);
+        registry.register(name, actor, actorProxy);
+        return actorProxy;
+    }
+
+    /**
+     * Remove the Actor with the given name from the system, unless another Actor is registered under the name.
+     * Called by the Actor itself when it stops or aborts, so that the system does not need a listener per Actor.
+     *
+     * @param name  the name of the Actor.
+     * @param actor the Actor.
+     */
+    void unregister(String name, Actor actor) {
+        registry.unregister(name, actor);
+    }
+
+    /**
+     * Returns the timer of the system, for example to re-deliver the delayed messages of its Actors.
+     *
+     * @return the timer.
+     */
+    HashedWheelTimer timer() {
+        HashedWheelTimer t = timer;
+        if (t == null) {
+            synchronized (this) {
+                t = timer;
+                if (t == null)
+                    timer = t = new HashedWheelTimer();
+            }
+        }
+        return t;
+    }
+
+    /**
+     * Returns the dead letters of the system, collecting the messages sent to a stopped Actor,
+     * the messages left in the mailbox of a stopped Actor and the expired messages. They can also be given
+     * to a mailbox diverting messages, such as a {@link mailboxes.BoundedMailbox} with the
+     * {@link mailboxes.OverflowPolicy#DEAD_LETTERS} policy or a {@link mailboxes.CoDelMailbox}.
+     * <p>
+     * The dead letters are started on the default Dispatcher when first used. They are not registered,
+     * so that they cannot be looked up or replaced by name.
+     *
+     * @return the dead letters.
+     */
+    public DeadLetters deadLetters() {
+        DeadLetters d = deadLetters;
+        if (d == null) {
+            synchronized (this) {
+                d = deadLetters;
+                if (d == null) {
+                    d = new DeadLetters();
+                    d.setName(DeadLetters.NAME);
+                    d.setSystem(this);
+                    d.start(dispatcher);
+                    deadLetters = d;
+                }
+            }
+        }
+        return d;
+    }
+
+    /**
+     * Send a message to an Actor once, after the given delay. The message is sent from the timer thread
+     * of the system, and dropped if the mailbox of the Actor is full.
+     *
+     * @param delay  the delay before sending the message.
+     * @param target the Actor to send the message to, or its ActorProxy.
+     * @param msg    the message to send.
+     * @return the handle to cancel the send.
+     * @throws IllegalArgumentException if an argument is null or the delay is negative.
+     */
+    public Cancellable scheduleOnce(Duration delay, ActorRef target, Message<?> msg) {
+        return Scheduler.scheduleOnce(timer(), delay, target, msg);
+    }
+
+    /**
+     * Send a message to an Actor periodically, the first time after the given delay. The message is sent
+     * from the timer thread of the system, at a fixed rate that does not drift.
+     * <p>
+     * A tick is skipped while the Actor has not taken the previous one from its mailbox yet, so that
+     * a slow Actor is not flooded with ticks.
+     *
+     * @param initialDelay the delay before sending the first message.
+     * @param period       the period between two messages.
+     * @param target       the Actor to send the messages to, or its ActorProxy.
+     * @param msg          the message to send on each tick.
+     * @return the handle to cancel the sends.
+     * @throws IllegalArgumentException if an argument is null, the delay is negative or the period is not positive.
+     */
+    public Cancellable scheduleAtFixedRate(Duration initialDelay, Duration period, ActorRef target, Message<?> msg) {
+        return Scheduler.scheduleAtFixedRate(timer(), initialDelay, period, target, msg);
+    }
+
+    /**
+     * Returns the ActorProxy for the actor with the given name.
+     *
+     * @param name the name of the Actor.
+     * @return the ActorProxy for the Actor, or null if there is no such Actor.
+     */
+    public ActorProxy lookupProxy(String name) {
+        return registry.lookupProxy(name);
+    }
+
+    /**
+     * Returns the Actor with the given name.
+     *
+     * @param name the name of the Actor.
+     * @return the Actor, or null if there is no such Actor.
+     */
+    public Actor lookupActor(String name) {
+        return registry.lookupActor(name);
+    }
+
+    /**
+     * Returns an ActorRef for the actor with the given name.
+     *
+     * @param name the name of the Actor.
+     * @return the ActorRef, or null if there is no such Actor.
+     */
+    public ActorRef lookupActorRef(String name) {
+        return registry.lookupActor(name);
+    }
+
+    /**
+     * Returns the set of all the names of the Actors in the system. The set is a read-only view,
+     * weakly consistent with the Actors spawned and stopped while it is iterated.
+     *
+     * @return the set of all the names of the Actors in the system.
+     */
+    public Set<String> getNames() {
+        return registry.names();
+    }
+
+    /**
+     * Stops all the Actors of the system, waiting for at most {@link #DEFAULT_SHUTDOWN_TIMEOUT}.
+     *
+     * @throws IllegalStateException if this is the default system, which lives as long as the JVM.
+     * @see #shutdown(Duration)
+     */
+    public void shutdown() {
+        shutdown(DEFAULT_SHUTDOWN_TIMEOUT);
+    }
+
+    /**
+     * Stops all the Actors of the system with a {@link QuitMessage}, and stops its timer, its monitor and, if the
+     * system created it, its Dispatcher. The Actors, then the dead letters collecting the messages they left, are
+     * given up to the timeout to stop before the Dispatcher stops, and the pending delayed and scheduled messages
+     * are never sent. No Actor can be spawned afterwards.
+     *
+     * @param timeout the maximum time to wait for the Actors to stop.
+     * @throws IllegalArgumentException if the timeout is null or negative.
+     * @throws IllegalStateException    if this is the default system, which lives as long as the JVM.
+     */
+    public void shutdown(Duration timeout) {
+        if (timeout == null || timeout.isNegative())
+            throw new IllegalArgumentException("Timeout cannot be null or negative");
+        if (this == getDefault())
+            throw new IllegalStateException("The default actor system cannot be shut down!");
+        if (shutdown)
+            return;
+        shutdown = true;
+
+        logger.info("shutdown: {}", name);
+        for (String actorName : getNames()) {
+            Actor actor = registry.lookupActor(actorName);
+            if (actor != null)
+                actor.send(new QuitMessage());
+        }
+        HashedWheelTimer t = timer;
+        if (t != null)
+            t.stop();
+
+        // the Actors unregister themselves when they stop, after which they are never scheduled again
+        long deadline = System.nanoTime() + timeout.toNanos();
+        awaitUntil(() -> registry.names().isEmpty(), deadline);
+        if (!registry.names().isEmpty())
+            logger.warn("shutdown: {} Actors of {} still running after {}", registry.names().size(), name, timeout);
+
+        DeadLetters d = deadLetters;
+        if (d != null) {
+            d.send(new QuitMessage());
+            awaitUntil(d::hasTerminated, deadline);
+        }
+
+        getMonitor().shutdown();
+        if (ownsDispatcher)
+            dispatcher.shutdown();
+    }
+
+    /**
+     * Waits until a condition holds or a deadline passes, checking it with an increasing interval.
+     *
+     * @param condition the condition.
+     * @param deadline  the deadline, from {@link System#nanoTime()}.
+     */
+    private static void awaitUntil(BooleanSupplier condition, long deadline) {
+        long parkNanos = 1;
+        while (!condition.getAsBoolean()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0)
+                return;
+            LockSupport.parkNanos(Math.min(parkNanos, remaining));
+            parkNanos = Math.min(parkNanos * 2, MAX_PARK_NANOS);
+        }
+    }
+
+    /**
+     * Returns whether the system has been shut down.
+     *
+     * @return true if the system has been shut down, false otherwise.
+     */
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public String toString() {
+        return "ActorSystem[" + name + "]";
+    }
+}
@@ -0,0 +1,178 @@
+package actors;
+
+import messages.Message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A table mapping message classes to handlers, used by an {@link AbstractActor} instead of, or before,
+ * its {@link AbstractActor#process(Message)} method.
+ * <p>
+ * A message is handled by the first case, in the order they were added to the {@link Builder}, whose class
+ * is the class of the message or one of its supertypes, or by the handler of {@link Builder#matchAny(Consumer)}
+ * if there is none. The handler of each message class is resolved the first time a message of this class is
+ * handled and then cached in a {@link ClassValue}, so that dispatching a message costs the same whatever the
+ * number of cases.
+ * <p>
+ * An Actor swaps its behaviors with {@link AbstractActor#become(Behavior)} and {@link AbstractActor#unbecome()},
+ * instead of keeping its state in fields checked by every message.
+ *
+ * <pre>{@code
+ * become(Behavior.builder()
+ *         .match(PingMessage.class, m -> m.getSender().send(new PongMessage(this, name, "Pong")))
+ *         .match(PongMessage.class, m -> m.getSender().send(new PingMessage(this, name, "Ping")))
+ *         .build());
+ * }</pre>
+ */
+public final class Behavior {
+
+    /**
+     * The handler resolved for the message classes matched by no case.
+     */
+    private static final Consumer<Message<?>> UNHANDLED = msg -> {
+    };
+
+    /**
+     * The cases of the behavior, in the order they were added.
+     */
+    private final Case[] cases;
+
+    /**
+     * The handler of the messages matched by no case, or null if they are not handled.
+     */
+    private final Consumer<Message<?>> fallback;
+
+    /**
+     * The handler of each message class, resolved on first use.
+     */
+    private final ClassValue<Consumer<Message<?>>> handlers = new ClassValue<>() {
+        @Override
+        protected Consumer<Message<?>> computeValue(Class<?> type) {
+            for (Case c : cases)
+                if (c.type().isAssignableFrom(type))
+                    return c.handler();
+            return fallback != null ? fallback : UNHANDLED;
+        }
+    };
+
+    /**
+     * Creates a new Behavior.
+     *
+     * @param cases    the cases, in the order they were added.
+     * @param fallback the handler of the messages matched by no case, or null.
+     */
+    private Behavior(Case[] cases, Consumer<Message<?>> fallback) {
+        this.cases = cases;
+        this.fallback = fallback;
+    }
+
+    /**
+     * Returns a new builder of Behavior.
+     *
+     * @return the builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Handles a message with the handler of its class, if any.
+     *
+     * @param msg the message.
+     * @return true if the message was handled, false if the behavior has no handler for it.
+     */
+    public boolean apply(Message<?> msg) {
+        if (msg == null)
+            return false;
+        Consumer<Message<?>> handler = handlers.get(msg.getClass());
+        if (handler == UNHANDLED)
+            return false;
+        handler.accept(msg);
+        return true;
+    }
+
+    /**
+     * Returns whether the behavior has a handler for the given message class.
+     *
+     * @param type the class of the message.
+     * @return true if the messages of this class are handled, false otherwise.
+     */
+    public boolean isHandled(Class<?> type) {
+        return handlers.get(type) != UNHANDLED;
+    }
+
+    /**
+     * A message class and its handler.
+     *
+     * @param type    the class of the messages handled, including its subclasses.
+     * @param handler the handler.
+     */
+    private record Case(Class<?> type, Consumer<Message<?>> handler) {
+    }
+
+    /**
+     * A builder of {@link Behavior}.
+     */
+    public static final class Builder {
+
+        /**
+         * The cases added so far.
+         */
+        private final List<Case> cases = new ArrayList<>();
+
+        /**
+         * The handler of the messages matched by no case, or null.
+         */
+        private Consumer<Message<?>> fallback;
+
+        /**
+         * Creates a new Builder.
+         */
+        private Builder() {
+        }
+
+        /**
+         * Adds a handler for the messages of the given class, including its subclasses.
+         * The messages already matched by a previous case are not handled by this one.
+         *
+         * @param type    the class of the messages.
+         * @param handler the handler.
+         * @param <M>     the type of the messages.
+         * @return this builder.
+         * @throws IllegalArgumentException if the class or the handler is null.
+         */
+        public <M> Builder match(Class<M> type, Consumer<? super M> handler) {
+            if (type == null)
+                throw new IllegalArgumentException("Type cannot be null!");
+            if (handler == null)
+                throw new IllegalArgumentException("Handler cannot be null!");
+            cases.add(new Case(type, msg -> handler.accept(type.cast(msg))));
+            return this;
+        }
+
+        /**
+         * Sets the handler of the messages matched by no case.
+         *
+         * @param handler the handler.
+         * @return this builder.
+         * @throws IllegalArgumentException if the handler is null.
+         */
+        public Builder matchAny(Consumer<Message<?>> handler) {
+            if (handler == null)
+                throw new IllegalArgumentException("Handler cannot be null!");
+            this.fallback = handler;
+            return this;
+        }
+
+        /**
+         * Creates the behavior. The builder can be reused to create other behaviors.
+         *
+         * @return the behavior.
+         */
+        public Behavior build() {
+            return new Behavior(cases.toArray(new Case[0]), fallback);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package actors;
+
+/**
+ * A handle to a scheduled send, which can be cancelled.
+ *
+ * @see ActorContext#scheduleOnce(java.time.Duration, ActorRef, messages.Message)
+ * @see ActorContext#scheduleAtFixedRate(java.time.Duration, java.time.Duration, ActorRef, messages.Message)
+ */
+public interface Cancellable {
+
+    /**
+     * Cancels the scheduled send. A message already sent is not taken back.
+     *
+     * @return true if the send was cancelled, false if it was already cancelled or, for a one-shot send, already done.
+     */
+    boolean cancel();
+
+    /**
+     * Returns whether the scheduled send was cancelled.
+     *
+     * @return true if the send was cancelled, false otherwise.
+     */
+    boolean isCancelled();
+}
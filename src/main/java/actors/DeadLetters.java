@@ -0,0 +1,239 @@
+package actors;
+
+import mailboxes.BoundedMailbox;
+import mailboxes.OverflowPolicy;
+import messages.DeadLetterMessage;
+import messages.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * System Actor collecting the messages that could not be delivered or processed: sent to an Actor that does not
+ * exist, left in the mailbox of a stopped Actor, expired, or diverted by a mailbox under overload.
+ * <p>
+ * The last dead letters are kept in a ring of fixed capacity, so that a flood of dead letters never grows the
+ * memory, and counted by {@link DeadLetterMessage.Reason} and by recipient. The dead letters are logged at most
+ * once per {@link #LOG_INTERVAL_MILLIS}, with the number of dead letters received meanwhile, so that the logging
+ * never becomes the bottleneck under load. The mailbox is bounded as well and drops its oldest messages when
+ * full, so that the dead letters sent faster than they are processed are counted and discarded rather than
+ * accumulated.
+ * <p>
+ * The dead letters of the system are returned by {@link ActorContext#deadLetters()}. Any other message sent to
+ * this Actor is kept as {@link DeadLetterMessage.Reason#UNDELIVERABLE}.
+ */
+public class DeadLetters extends AbstractActor {
+
+    /**
+     * The name of the dead letters of the system.
+     */
+    public static final String NAME = "deadLetters";
+
+    /**
+     * The default number of dead letters kept.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The default number of dead letters waiting in the mailbox.
+     */
+    public static final int DEFAULT_MAILBOX_CAPACITY = 8192;
+
+    /**
+     * The minimum time between two log lines, in milliseconds.
+     */
+    public static final long LOG_INTERVAL_MILLIS = 1000;
+
+    /**
+     * The logger for the DeadLetters.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(DeadLetters.class);
+
+    /**
+     * The mailbox of the dead letters, dropping its oldest messages when full.
+     */
+    private final BoundedMailbox mailbox;
+
+    /**
+     * The last dead letters, overwritten in a circle.
+     */
+    private final DeadLetterMessage[] recent;
+
+    /**
+     * The number of dead letters of each reason, indexed by ordinal.
+     */
+    private final LongAdder[] byReason = new LongAdder[DeadLetterMessage.Reason.values().length];
+
+    /**
+     * The number of dead letters of each recipient.
+     */
+    private final Map<String, LongAdder> byRecipient = new ConcurrentHashMap<>();
+
+    /**
+     * The total number of dead letters, which is also the position of the next one in the ring.
+     * Guarded by {@link #recent}.
+     */
+    private long total;
+
+    /**
+     * The time of the last log line, in milliseconds. Only used by the Actor.
+     */
+    private long lastLogMillis;
+
+    /**
+     * The number of dead letters received since the last log line. Only used by the Actor.
+     */
+    private long unlogged;
+
+    /**
+     * Creates new DeadLetters keeping the {@link #DEFAULT_CAPACITY} last dead letters.
+     */
+    public DeadLetters() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates new DeadLetters, with a mailbox of {@link #DEFAULT_MAILBOX_CAPACITY} messages.
+     *
+     * @param capacity the number of dead letters kept.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public DeadLetters(int capacity) {
+        this(capacity, DEFAULT_MAILBOX_CAPACITY);
+    }
+
+    /**
+     * Creates new DeadLetters.
+     *
+     * @param capacity        the number of dead letters kept.
+     * @param mailboxCapacity the number of dead letters waiting to be processed, beyond which the oldest ones
+     *                        are dropped.
+     * @throws IllegalArgumentException if a capacity is not positive.
+     */
+    public DeadLetters(int capacity, int mailboxCapacity) {
+        this(capacity, new BoundedMailbox(mailboxCapacity, OverflowPolicy.DROP_OLDEST));
+    }
+
+    /**
+     * Creates new DeadLetters with the given mailbox.
+     *
+     * @param capacity the number of dead letters kept.
+     * @param mailbox  the mailbox of the dead letters.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    private DeadLetters(int capacity, BoundedMailbox mailbox) {
+        super(mailbox);
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity must be positive!");
+        this.mailbox = mailbox;
+        this.recent = new DeadLetterMessage[capacity];
+        for (int i = 0; i < byReason.length; i++)
+            byReason[i] = new LongAdder();
+    }
+
+    @Override
+    protected void process(Message<?> msg) {
+        DeadLetterMessage deadLetter = msg instanceof DeadLetterMessage d
+                ? d
+                : new DeadLetterMessage(null, DeadLetterMessage.Reason.UNDELIVERABLE, msg);
+
+        if (deadLetter.getReason() != null)
+            byReason[deadLetter.getReason().ordinal()].increment();
+        if (deadLetter.getRecipient() != null)
+            byRecipient.computeIfAbsent(deadLetter.getRecipient(), k -> new LongAdder()).increment();
+        synchronized (recent) {
+            recent[(int) (total % recent.length)] = deadLetter;
+            total++;
+        }
+        log(deadLetter);
+    }
+
+    /**
+     * Logs a dead letter, unless a dead letter was logged less than {@link #LOG_INTERVAL_MILLIS} ago.
+     *
+     * @param deadLetter the dead letter.
+     */
+    private void log(DeadLetterMessage deadLetter) {
+        unlogged++;
+        long now = System.currentTimeMillis();
+        if (now - lastLogMillis < LOG_INTERVAL_MILLIS || !logger.isWarnEnabled())
+            return;
+
+        Message<?> msg = deadLetter.getBody();
+        logger.warn(
+                "Dead letter {} to {} ({}), {} dead letter(s) since the last report, {} in total",
+                msg == null ? null : msg.getClass().getSimpleName(),
+                deadLetter.getRecipient(),
+                deadLetter.getReason(),
+                unlogged,
+                getTotal()
+        );
+        lastLogMillis = now;
+        unlogged = 0;
+    }
+
+    /**
+     * Returns the total number of dead letters received.
+     *
+     * @return the number of dead letters.
+     */
+    public long getTotal() {
+        synchronized (recent) {
+            return total;
+        }
+    }
+
+    /**
+     * Returns the number of dead letters dropped without being processed, because the mailbox was full.
+     * They are not included in the other counts.
+     *
+     * @return the number of dropped dead letters.
+     */
+    public long getDroppedCount() {
+        return mailbox.getDroppedCount();
+    }
+
+    /**
+     * Returns the number of dead letters received for the given reason.
+     *
+     * @param reason the reason.
+     * @return the number of dead letters.
+     * @throws IllegalArgumentException if the reason is null.
+     */
+    public long getCount(DeadLetterMessage.Reason reason) {
+        if (reason == null)
+            throw new IllegalArgumentException("Reason cannot be null!");
+        return byReason[reason.ordinal()].sum();
+    }
+
+    /**
+     * Returns the number of dead letters received for the given recipient.
+     *
+     * @param recipient the name of the Actor the messages were sent to.
+     * @return the number of dead letters.
+     */
+    public long getCount(String recipient) {
+        LongAdder count = recipient == null ? null : byRecipient.get(recipient);
+        return count == null ? 0 : count.sum();
+    }
+
+    /**
+     * Returns the last dead letters kept, from the oldest to the newest.
+     *
+     * @return a copy of the last dead letters.
+     */
+    public List<DeadLetterMessage> getRecent() {
+        synchronized (recent) {
+            int size = (int) Math.min(total, recent.length);
+            List<DeadLetterMessage> result = new ArrayList<>(size);
+            for (long i = total - size; i < total; i++)
+                result.add(recent[(int) (i % recent.length)]);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package actors;
+
+/**
+ * A Dispatcher runs Actors on a shared pool of threads instead of a dedicated thread per Actor.
+ * <p>
+ * An Actor running on a Dispatcher is only scheduled when its mailbox becomes non-empty. Once it
+ * runs, it processes at most {@link #getThroughput()} messages before yielding the thread to other
+ * Actors, and reschedules itself if there are still messages left.
+ *
+ * @see ForkJoinDispatcher
+ * @see ActorContext#spawnActor(String, Actor, Dispatcher)
+ */
+public interface Dispatcher {
+
+    /**
+     * Executes the given task on one of the threads of the Dispatcher.
+     *
+     * @param task the task to execute.
+     */
+    void execute(Runnable task);
+
+    /**
+     * Returns the maximum number of messages an Actor processes each time it is scheduled.
+     *
+     * @return the throughput of the Dispatcher.
+     */
+    int getThroughput();
+
+    /**
+     * Shuts down the Dispatcher. Already scheduled Actors may still run, but no new tasks are accepted.
+     */
+    void shutdown();
+}
@@ -3,37 +3,89 @@
 import messages.Message;
 import messages.MethodInvocationMessage;
 import messages.QuitMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Represents a dynamic proxy for an Actor, which can be used to send and receive
  * messages in a more elegant way, using method calls instead of message sending.
+ * <p>
+ * Each call returning a value is sent with {@link ActorRef#ask(Message, Duration)}, so that its reply is
+ * matched by its correlation identifier and concurrent callers never receive each other's replies.
+ * Methods returning a {@link CompletableFuture} or a {@link CompletionStage} return immediately,
+ * so that many calls can be pipelined without waiting for each reply.
+ * <p>
+ * When the annotation processor generated a {@link ServiceProxy} for the interface, {@link #intercept(Class, ActorRef)}
+ * returns it instead, which creates the messages without reflection and sends them the same way.
  */
 public class DynamicProxy implements InvocationHandler {
 
+    /**
+     * The logger for the DynamicProxy.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(DynamicProxy.class);
+
     /**
      * The reference to the Actor.
      */
     private final ActorRef targetActor;
 
     /**
-     * The queue of messages received from the Actor.
+     * The default time to wait for the reply of a call.
      */
-    private final BlockingQueue<Message<?>> receivedMessages = new LinkedBlockingQueue<>();
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
 
     /**
-     * Creates a new DynamicProxy for the given Actor.
+     * The time to wait for the reply of a call.
+     */
+    private final Duration timeout;
+
+    /**
+     * The constructor of the proxy generated at compile time for each interface, or null if there is none.
+     */
+    private static final ClassValue<Constructor<?>> generatedProxies = new ClassValue<>() {
+        @Override
+        protected Constructor<?> computeValue(Class<?> type) {
+            try {
+                Class<?> generated = Class.forName(type.getName() + "Proxy", true, type.getClassLoader());
+                if (ServiceProxy.class.isAssignableFrom(generated) && type.isAssignableFrom(generated))
+                    return generated.getConstructor(ActorRef.class, Duration.class);
+            } catch (ReflectiveOperationException | LinkageError ignored) {
+                // no generated proxy, the calls are intercepted at runtime
+            }
+            return null;
+        }
+    };
+
+    /**
+     * Creates a new DynamicProxy for the given Actor, waiting {@link #DEFAULT_TIMEOUT} for the replies.
      *
      * @param target the Actor to create a proxy for.
      */
     public DynamicProxy(ActorRef target) {
+        this(target, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Creates a new DynamicProxy for the given Actor.
+     *
+     * @param target  the Actor to create a proxy for.
+     * @param timeout the time to wait for the reply of a call.
+     */
+    public DynamicProxy(ActorRef target, Duration timeout) {
+        if (timeout == null || timeout.isNegative() || timeout.isZero())
+            throw new IllegalArgumentException("Timeout must be positive!");
         this.targetActor = target;
+        this.timeout = timeout;
     }
 
     /**
@@ -42,12 +94,39 @@ public DynamicProxy(ActorRef target) {
      * @param interfaceType the interface to implement, which must inherit from {@link Service} interface
      *                      in order to be able to stop the actor.
      * @param target        the Actor to create a proxy for.
-     * @return a new DynamicProxy that implements the given interface.
+     * @return a new proxy that implements the given interface: the generated {@link ServiceProxy} if any,
+     * a DynamicProxy otherwise.
      */
     public static Object intercept(Class<? extends Service> interfaceType, ActorRef target) {
+        return intercept(interfaceType, target, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Creates a new DynamicProxy that implements the given interface for the given Actor.
+     *
+     * @param interfaceType the interface to implement, which must inherit from {@link Service} interface
+     *                      in order to be able to stop the actor.
+     * @param target        the Actor to create a proxy for.
+     * @param timeout       the time to wait for the reply of a call.
+     * @return a new proxy that implements the given interface: the generated {@link ServiceProxy} if any,
+     * a DynamicProxy otherwise.
+     */
+    public static Object intercept(Class<? extends Service> interfaceType, ActorRef target, Duration timeout) {
+        Constructor<?> generated = generatedProxies.get(interfaceType);
+        if (generated != null) {
+            try {
+                return generated.newInstance(target, timeout);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof RuntimeException cause)
+                    throw cause;
+                throw new IllegalStateException("Cannot create the proxy of " + interfaceType.getName(), e.getCause());
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot create the proxy of " + interfaceType.getName(), e);
+            }
+        }
         return Proxy.newProxyInstance(interfaceType.getClassLoader(),
                 new Class[]{interfaceType},
-                new DynamicProxy(target));
+                new DynamicProxy(target, timeout));
     }
 
     /**
@@ -71,8 +150,14 @@ public static Object intercept(Class<? extends Service> interfaceType, ActorRef
      *         is sent to the Actor.
      *     </li>
      *     <li>
-     *         if the method has a return type, the next message received by the Actor is returned as the result
-     *         using the {@link ActorProxy#receive()} method.
+     *         if the method returns a {@link CompletableFuture} or a {@link CompletionStage}, a future completed
+     *         by the reply is returned immediately. A reply carrying a {@link Throwable} completes it exceptionally.
+     *     </li>
+     *     <li>
+     *         if the method has another return type, the caller waits for the reply, which is returned as the result.
+     *         If the method failed or there was no reply in time, the failure is thrown as is when it is unchecked,
+     *         and wrapped in an {@link java.lang.reflect.UndeclaredThrowableException} otherwise, as the generated
+     *         proxies do.
      *     </li>
      *     <li>
      *         if the method does not have a return type, nothing is returned.
@@ -104,43 +189,71 @@ public Object invoke(Object proxy, Method method, Object[] args) {
             }
         }
 
-        try {
-            // Set first letter of method name to uppercase
-            String methodName = String.valueOf(method.getName().charAt(0)).toUpperCase()
-                    + method.getName().substring(1);
-
-            Message<?> msg;
-
-            try {
-                // Try to instantiate the message class
-                Class<?> msgClass = Class.forName("messages." + methodName + "Message");
+        Class<?> returnType = method.getReturnType();
+        boolean async = returnType == CompletableFuture.class || returnType == CompletionStage.class;
 
-                Class<?>[] argTypes = method.getParameterTypes();
-                Constructor<?> constructor = msgClass.getConstructor(argTypes);
+        try {
+            Message<?> msg = createMessage(method, args);
+            msg.setSenderName((targetActor instanceof Actor a ? a.getName() : "unknown") + " (DynamicProxy)");
 
-                msg = (Message<?>) constructor.newInstance(args);
-            } catch (ClassNotFoundException e) {
-                // fallback to MethodInvocationMessage
-                msg = new MethodInvocationMessage(methodName, args);
+            if (returnType == void.class) {
+                // nobody waits for a reply
+                msg.setSender(reply -> {
+                });
+                targetActor.send(msg);
+                return null;
             }
 
-            msg.setSender(receivedMessages::add);
-            msg.setSenderName((targetActor instanceof Actor a ? a.getName() : "unknown") + " (DynamicProxy)");
-            targetActor.send(msg);
+            CompletableFuture<Message<Object>> reply = targetActor.ask(msg, timeout);
+            if (async)
+                return reply.thenCompose(DynamicProxy::result);
 
             // If the method has a return type, we wait for the response
-            if (method.getReturnType() != void.class) {
-                while (true) {
-                    try {
-                        return receivedMessages.take().getBody();
-                    } catch (InterruptedException ignored) {
-                    }
-                }
-            }
+            return reply.thenCompose(DynamicProxy::result).join();
         } catch (Exception e) {
-            System.err.println("Invocation of " + method.getName() + " failed: " + e.getMessage());
-            e.printStackTrace();
+            if (async)
+                return CompletableFuture.failedFuture(e);
+            logger.debug("Invocation of {} failed", method.getName(), e);
+            throw ServiceProxy.rethrow(e);
+        }
+    }
+
+    /**
+     * Creates the message of a method call.
+     *
+     * @param method the method called.
+     * @param args   the arguments of the call.
+     * @return the message of the class named after the method, or a {@link MethodInvocationMessage}.
+     * @throws ReflectiveOperationException if the message class cannot be instantiated.
+     */
+    private static Message<?> createMessage(Method method, Object[] args) throws ReflectiveOperationException {
+        // Set first letter of method name to uppercase
+        String methodName = String.valueOf(method.getName().charAt(0)).toUpperCase()
+                + method.getName().substring(1);
+
+        try {
+            // Try to instantiate the message class
+            Class<?> msgClass = Class.forName("messages." + methodName + "Message");
+
+            Class<?>[] argTypes = method.getParameterTypes();
+            Constructor<?> constructor = msgClass.getConstructor(argTypes);
+
+            return (Message<?>) constructor.newInstance(args);
+        } catch (ClassNotFoundException e) {
+            // fallback to MethodInvocationMessage, named as the method to invoke
+            return new MethodInvocationMessage(method.getName(), args);
         }
-        return null;
+    }
+
+    /**
+     * Returns the result of a call from its reply.
+     *
+     * @param reply the reply of the Actor.
+     * @return a future completed with the body of the reply, or completed exceptionally if it is a {@link Throwable}.
+     */
+    private static CompletableFuture<Object> result(Message<Object> reply) {
+        if (reply.getBody() instanceof Throwable t)
+            return CompletableFuture.failedFuture(t);
+        return CompletableFuture.completedFuture(reply.getBody());
     }
 }
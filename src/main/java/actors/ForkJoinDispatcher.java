@@ -0,0 +1,65 @@
+package actors;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Default {@link Dispatcher} implementation backed by a work-stealing {@link ForkJoinPool}.
+ * <p>
+ * The pool runs in asynchronous (FIFO) mode, as scheduled Actors are never joined.
+ */
+public class ForkJoinDispatcher implements Dispatcher {
+
+    /**
+     * The default number of messages an Actor processes before yielding its thread.
+     */
+    public static final int DEFAULT_THROUGHPUT = 5;
+
+    /**
+     * The pool that runs the Actors.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * The maximum number of messages an Actor processes each time it is scheduled.
+     */
+    private final int throughput;
+
+    /**
+     * Creates a new ForkJoinDispatcher with one thread per available processor and the
+     * {@link #DEFAULT_THROUGHPUT default throughput}.
+     */
+    public ForkJoinDispatcher() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_THROUGHPUT);
+    }
+
+    /**
+     * Creates a new ForkJoinDispatcher.
+     *
+     * @param parallelism the number of threads of the pool.
+     * @param throughput  the maximum number of messages an Actor processes each time it is scheduled.
+     * @throws IllegalArgumentException if parallelism or throughput are not positive.
+     */
+    public ForkJoinDispatcher(int parallelism, int throughput) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be positive");
+        if (throughput < 1)
+            throw new IllegalArgumentException("Throughput must be positive");
+        this.pool = new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        this.throughput = throughput;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        pool.execute(task);
+    }
+
+    @Override
+    public int getThroughput() {
+        return throughput;
+    }
+
+    @Override
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -16,16 +16,37 @@
  * @see GetAllInsultsMessage
  */
 public class InsultActor extends AbstractActor {
+
+    /**
+     * The maximum number of messages processed at once.
+     */
+    static final int BATCH_SIZE = 256;
+
     /**
      * The list of insults.
      */
-    private final List<String> insults = new ArrayList<>();
+    private final ArrayList<String> insults = new ArrayList<>();
 
     /**
      * Default constructor.
      */
     public InsultActor() {
+        super(BATCH_SIZE);
+    }
 
+    /**
+     * Grows the list of insults once for all the insults added by the batch, then processes each message.
+     *
+     * @param batch the messages.
+     */
+    @Override
+    protected void processBatch(List<Message<?>> batch) {
+        int added = 0;
+        for (Message<?> msg : batch)
+            if (msg instanceof AddInsultMessage)
+                added++;
+        insults.ensureCapacity(insults.size() + added);
+        super.processBatch(batch);
     }
 
     @Override
@@ -0,0 +1,334 @@
+package actors;
+
+import messages.Message;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The public methods of an implementation class, resolved once and invoked through {@link MethodHandle}s.
+ * <p>
+ * The methods are grouped by name when the class is first used, so that dispatching a call only selects
+ * among the overloads of its name, by number of arguments and by their runtime types. Primitive parameters
+ * accept their wrapper types, and among several applicable overloads the most specific one is chosen.
+ * The dispatchers are cached per class in a {@link ClassValue}, as are the method names derived from the
+ * message classes.
+ * <p>
+ * The dispatchers generated at compile time for the Service interfaces, if any, are cached here too,
+ * so that {@link ReflectiveActor} only resolves through method handles the methods they do not know.
+ *
+ * @see ReflectiveActor
+ */
+final class MethodDispatcher {
+
+    /**
+     * The dispatcher of each implementation class.
+     */
+    private static final ClassValue<MethodDispatcher> dispatchers = new ClassValue<>() {
+        @Override
+        protected MethodDispatcher computeValue(Class<?> type) {
+            return new MethodDispatcher(type);
+        }
+    };
+
+    /**
+     * The name of the method handling each message class: the class name with the first letter in lower case
+     * and without the "Message" suffix.
+     */
+    private static final ClassValue<String> methodNames = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            String name = type.getSimpleName();
+            name = name.substring(0, 1).toLowerCase() + name.substring(1);
+            return name.endsWith("Message") ? name.substring(0, name.length() - 7) : name;
+        }
+    };
+
+    /**
+     * The dispatchers generated for the Service interfaces of each implementation class.
+     */
+    private static final ClassValue<ServiceDispatcher[]> generatedDispatchers = new ClassValue<>() {
+        @Override
+        protected ServiceDispatcher[] computeValue(Class<?> type) {
+            List<ServiceDispatcher> list = new ArrayList<>();
+            for (Class<?> iface : serviceInterfaces(type)) {
+                ServiceDispatcher generated = loadGenerated(iface);
+                if (generated != null)
+                    list.add(generated);
+            }
+            return list.toArray(new ServiceDispatcher[0]);
+        }
+    };
+
+    /**
+     * The lookup used to access the methods.
+     */
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    /**
+     * The arguments of a method without parameters.
+     */
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    /**
+     * The methods of the class, by name.
+     */
+    private final Map<String, Target[]> targets = new HashMap<>();
+
+    /**
+     * Resolves the public methods of the given class.
+     *
+     * @param type the implementation class.
+     */
+    private MethodDispatcher(Class<?> type) {
+        Map<String, List<Target>> byName = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) || method.isBridge())
+                continue;
+            MethodHandle handle = unreflect(type, method);
+            if (handle != null)
+                byName.computeIfAbsent(method.getName(), k -> new ArrayList<>()).add(new Target(method, handle));
+        }
+        byName.forEach((name, list) -> targets.put(name, list.toArray(new Target[0])));
+    }
+
+    /**
+     * Returns the dispatcher of the given class.
+     *
+     * @param type the implementation class.
+     * @return the dispatcher, created on first use.
+     */
+    static MethodDispatcher of(Class<?> type) {
+        return dispatchers.get(type);
+    }
+
+    /**
+     * Returns the dispatchers generated at compile time for the Service interfaces of the given class.
+     *
+     * @param type the implementation class.
+     * @return the dispatchers, the most specific interface first, or an empty array if there are none.
+     * @see ServiceDispatcher
+     */
+    static ServiceDispatcher[] generated(Class<?> type) {
+        return generatedDispatchers.get(type);
+    }
+
+    /**
+     * Returns the name of the method handling the given message class.
+     *
+     * @param messageClass the class of the message.
+     * @return the name of the method.
+     */
+    static String methodName(Class<?> messageClass) {
+        return methodNames.get(messageClass);
+    }
+
+    /**
+     * Returns the arguments of the method handling a message which is not a {@link messages.MethodInvocationMessage}:
+     * the body as the only argument, or no arguments if the body is null.
+     *
+     * @param msg the message.
+     * @return the arguments of the invocation.
+     */
+    static Object[] arguments(Message<?> msg) {
+        return msg.getBody() == null ? NO_ARGUMENTS : new Object[]{msg.getBody()};
+    }
+
+    /**
+     * Returns the method to invoke for the given name and arguments.
+     *
+     * @param name the name of the method.
+     * @param args the arguments of the invocation.
+     * @return the most specific method applicable to the arguments, or null if there is none.
+     */
+    Target select(String name, Object[] args) {
+        if (args == null)
+            args = NO_ARGUMENTS;
+        Target[] candidates = targets.get(name);
+        if (candidates == null)
+            return null;
+
+        Target best = null;
+        for (Target candidate : candidates)
+            if (candidate.accepts(args) && (best == null || candidate.isMoreSpecificThan(best)))
+                best = candidate;
+        return best;
+    }
+
+    /**
+     * Returns a handle to the given method, preferably from a public declaring type
+     * when the implementation class itself is not accessible.
+     *
+     * @param type   the implementation class.
+     * @param method the method.
+     * @return the handle, or null if the method is not accessible.
+     */
+    private static MethodHandle unreflect(Class<?> type, Method method) {
+        try {
+            return lookup.unreflect(method);
+        } catch (IllegalAccessException e) {
+            // a public method of an inaccessible class can still be called through a public interface
+            for (Class<?> iface : type.getInterfaces()) {
+                try {
+                    return lookup.unreflect(iface.getMethod(method.getName(), method.getParameterTypes()));
+                } catch (NoSuchMethodException | IllegalAccessException ignored) {
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Returns the interfaces extending {@link Service} implemented by a class, the most specific first.
+     *
+     * @param type the implementation class.
+     * @return the interfaces, without {@link Service} itself.
+     */
+    private static Set<Class<?>> serviceInterfaces(Class<?> type) {
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        for (Class<?> c = type; c != null; c = c.getSuperclass())
+            pending.addAll(List.of(c.getInterfaces()));
+        while (!pending.isEmpty()) {
+            Class<?> iface = pending.poll();
+            if (iface != Service.class && Service.class.isAssignableFrom(iface) && interfaces.add(iface))
+                pending.addAll(List.of(iface.getInterfaces()));
+        }
+        return interfaces;
+    }
+
+    /**
+     * Creates the dispatcher generated for a Service interface, named after it with the "Dispatcher" suffix.
+     *
+     * @param iface the interface.
+     * @return the dispatcher, or null if none was generated.
+     */
+    private static ServiceDispatcher loadGenerated(Class<?> iface) {
+        try {
+            Class<?> generated = Class.forName(iface.getName() + "Dispatcher", true, iface.getClassLoader());
+            if (ServiceDispatcher.class.isAssignableFrom(generated))
+                return (ServiceDispatcher) generated.getConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError ignored) {
+            // no generated dispatcher, the methods are resolved through method handles
+        }
+        return null;
+    }
+
+    /**
+     * Returns the wrapper type of a primitive type.
+     *
+     * @param type the type.
+     * @return the wrapper type if the type is primitive, the type itself otherwise.
+     */
+    private static Class<?> box(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    /**
+     * A method of the implementation class, with its handle taking the receiver and the arguments as an array.
+     */
+    static final class Target {
+
+        /**
+         * The parameter types of the method, primitive types replaced by their wrappers.
+         */
+        private final Class<?>[] parameterTypes;
+
+        /**
+         * Whether each parameter is primitive, and thus does not accept null.
+         */
+        private final boolean[] primitive;
+
+        /**
+         * The handle of the method, of type {@code (Object, Object[])Object}.
+         */
+        private final MethodHandle handle;
+
+        /**
+         * Whether the method returns nothing.
+         */
+        private final boolean isVoid;
+
+        /**
+         * Creates a new Target.
+         *
+         * @param method the method.
+         * @param handle the handle of the method.
+         */
+        private Target(Method method, MethodHandle handle) {
+            Class<?>[] types = method.getParameterTypes();
+            this.parameterTypes = new Class<?>[types.length];
+            this.primitive = new boolean[types.length];
+            for (int i = 0; i < types.length; i++) {
+                parameterTypes[i] = box(types[i]);
+                primitive[i] = types[i].isPrimitive();
+            }
+            this.isVoid = method.getReturnType() == void.class;
+            this.handle = handle
+                    .asFixedArity()
+                    .asSpreader(Object[].class, types.length)
+                    .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+        }
+
+        /**
+         * Returns whether the method can be invoked with the given arguments.
+         *
+         * @param args the arguments.
+         * @return true if the number and the runtime types of the arguments match the parameters.
+         */
+        private boolean accepts(Object[] args) {
+            if (args.length != parameterTypes.length)
+                return false;
+            for (int i = 0; i < args.length; i++) {
+                if (args[i] == null ? primitive[i] : !parameterTypes[i].isInstance(args[i]))
+                    return false;
+            }
+            return true;
+        }
+
+        /**
+         * Returns whether each parameter of this method is assignable to the matching parameter of the other one.
+         *
+         * @param other the other method, with the same number of parameters.
+         * @return true if this method is more specific than the other one.
+         */
+        private boolean isMoreSpecificThan(Target other) {
+            for (int i = 0; i < parameterTypes.length; i++)
+                if (!other.parameterTypes[i].isAssignableFrom(parameterTypes[i]))
+                    return false;
+            return true;
+        }
+
+        /**
+         * Invokes the method.
+         *
+         * @param implementation the object on which the method is invoked.
+         * @param args           the arguments.
+         * @return the result of the method, or null if it returns nothing.
+         * @throws Throwable anything thrown by the method.
+         */
+        Object invoke(Object implementation, Object[] args) throws Throwable {
+            return (Object) handle.invokeExact(implementation, args);
+        }
+
+        /**
+         * Returns whether the method returns nothing.
+         *
+         * @return true if the method is void, false otherwise.
+         */
+        boolean isVoid() {
+            return isVoid;
+        }
+    }
+}
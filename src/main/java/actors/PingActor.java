@@ -20,19 +20,20 @@ public class PingActor extends AbstractActor {
      * Default constructor.
      */
     public PingActor() {
-
+        become(Behavior.builder()
+                .match(PingMessage.class, m -> reply(m, new PongMessage(this, name, "Pong")))
+                .match(PongMessage.class, m -> reply(m, new PingMessage(this, name, "Ping")))
+                .build());
     }
 
-    @Override
-    public void process(Message<?> msg) {
-        if (msg instanceof PingMessage m) {
-            logger.info("PingActor {} received {} from {}", name, m.getBody(), msg.getSenderName());
-            ActorRef from = m.getSender();
-            from.send(new PongMessage(this, name, "Pong"));
-        } else if (msg instanceof PongMessage m) {
-            logger.info("PingActor {} received {} from {}", name, m.getBody(), msg.getSenderName());
-            ActorRef from = m.getSender();
-            from.send(new PingMessage(this, name, "Ping"));
-        }
+    /**
+     * Logs a message and answers it.
+     *
+     * @param msg   the message received.
+     * @param reply the answer to send back to its sender.
+     */
+    private void reply(Message<String> msg, Message<String> reply) {
+        logger.info("PingActor {} received {} from {}", name, msg.getBody(), msg.getSenderName());
+        msg.getSender().send(reply);
     }
 }
@@ -0,0 +1,123 @@
+package actors;
+
+import messages.Message;
+import util.HashedWheelTimer;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A one-shot reference completing a future with the first reply it receives.
+ * <p>
+ * It is set as the sender of the request of an {@link ActorRef#ask(Message, Duration)}, so that each request
+ * has its own reply reference instead of sharing a queue, and no thread waits for the reply. The timeout of the
+ * request runs on the timer of the system of the target, so outstanding requests only cost a few objects each.
+ *
+ * @param <T> the type of the body of the reply.
+ */
+final class PromiseRef<T> implements ActorRef {
+
+    /**
+     * The last correlation identifier given to a request.
+     */
+    private static final AtomicLong lastCorrelationId = new AtomicLong();
+
+    /**
+     * The identifier matching the reply to the request.
+     */
+    private final long correlationId;
+
+    /**
+     * The future completed by the reply.
+     */
+    private final CompletableFuture<Message<T>> future = new CompletableFuture<>();
+
+    /**
+     * The timeout of the request.
+     */
+    private final HashedWheelTimer.Timeout timeout;
+
+    /**
+     * Creates a new PromiseRef, with a new correlation identifier, and starts its timeout.
+     *
+     * @param timer   the timer running the timeout.
+     * @param timeout the time to wait for the reply.
+     */
+    PromiseRef(HashedWheelTimer timer, Duration timeout) {
+        this.correlationId = lastCorrelationId.incrementAndGet();
+        this.timeout = timer.newTimeout(
+                () -> future.completeExceptionally(
+                        new TimeoutException("No reply to request " + correlationId + " within " + timeout)
+                ),
+                timeout.toNanos(),
+                TimeUnit.NANOSECONDS
+        );
+    }
+
+    /**
+     * Returns the timer of the system of the target of a request: the system the Actor behind the reference
+     * was spawned in, through its proxies and decorators, or the default system for any other reference.
+     *
+     * @param target the target of the request.
+     * @return the timer to run the timeout of the request on.
+     */
+    static HashedWheelTimer timerOf(ActorRef target) {
+        ActorRef ref = target;
+        while (ref instanceof ActorProxy proxy)
+            ref = proxy.getTarget();
+        if (ref instanceof Actor actor && actor.unwrap() instanceof AbstractActor abstractActor)
+            return abstractActor.getSystem().timer();
+        return ActorContext.timer();
+    }
+
+    /**
+     * Completes the future with the reply, unless the reply belongs to another request.
+     * The replies after the first one are ignored.
+     *
+     * @param msg the reply.
+     */
+    @Override
+    public void send(Message<?> msg) {
+        if (msg == null)
+            throw new IllegalArgumentException("Message cannot be null");
+        if (msg.getCorrelationId() != 0 && msg.getCorrelationId() != correlationId)
+            return;
+
+        AbstractActor.notifySent(msg);
+        @SuppressWarnings("unchecked") // the caller of ask chooses the type of the reply
+        Message<T> reply = (Message<T>) msg;
+        if (future.complete(reply))
+            timeout.cancel();
+    }
+
+    /**
+     * Completes the future exceptionally, for example if the request could not be sent.
+     *
+     * @param cause the cause of the failure.
+     */
+    void fail(Throwable cause) {
+        if (future.completeExceptionally(cause))
+            timeout.cancel();
+    }
+
+    /**
+     * Getter for the identifier matching the reply to the request.
+     *
+     * @return the correlation identifier.
+     */
+    long getCorrelationId() {
+        return correlationId;
+    }
+
+    /**
+     * Getter for the future completed by the reply.
+     *
+     * @return the future.
+     */
+    CompletableFuture<Message<T>> getFuture() {
+        return future;
+    }
+}
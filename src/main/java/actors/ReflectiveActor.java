@@ -5,9 +5,8 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.Arrays;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
 /**
  * This reflective actor is an actor that automatically maps the processing of
@@ -15,6 +14,11 @@
  * class, with the first letter in lower case and without the "Message" suffix.
  * For example, the method that will be invoked when a AddInsultMessage message
  * is received is addInsult().
+ * <p>
+ * The methods are resolved once per implementation class and invoked through method handles.
+ * Overloaded methods and primitive parameters are resolved from the runtime types of the arguments.
+ * The methods of the Service interfaces are invoked directly by the {@link ServiceDispatcher}s generated
+ * at compile time, when the annotation processor ran.
  */
 public class ReflectiveActor extends AbstractActor {
 
@@ -27,13 +31,27 @@ public class ReflectiveActor extends AbstractActor {
      */
     private final Service implementation;
 
+    /**
+     * The methods of the implementation, resolved once per implementation class.
+     */
+    private final MethodDispatcher dispatcher;
+
+    /**
+     * The dispatchers generated at compile time for the Service interfaces of the implementation.
+     */
+    private final ServiceDispatcher[] generatedDispatchers;
+
     /**
      * Default constructor for the ReflectiveActor class.
      *
      * @param implementation the object on which the methods will be invoked.
      */
     public ReflectiveActor(Service implementation) {
+        if (implementation == null)
+            throw new IllegalArgumentException("Implementation cannot be null!");
         this.implementation = implementation;
+        this.dispatcher = MethodDispatcher.of(implementation.getClass());
+        this.generatedDispatchers = MethodDispatcher.generated(implementation.getClass());
     }
 
     /**
@@ -44,7 +62,6 @@ public ReflectiveActor(Service implementation) {
     @Override
     protected void process(Message<?> msg) {
         String methodName;
-        Class<?>[] parameterTypes;
         Object[] args;
 
         // If the message is a MethodInvocationMessage, we use the method name
@@ -52,43 +69,70 @@ protected void process(Message<?> msg) {
         if (msg instanceof MethodInvocationMessage m) {
             methodName = m.getMethodName();
             args = m.getArgs();
-            parameterTypes = args == null ?
-                    null : Arrays.stream(args).map(Object::getClass).toArray(Class[]::new);
         } else {
-            // Get the name of the message class.
-            Class<?> msgClass = msg.getClass();
-            methodName = msgClass.getSimpleName();
-
-            // Convert the first letter to lower case and remove the "Message" suffix
-            methodName = methodName.substring(0, 1).toLowerCase() + methodName.substring(1);
-            methodName = methodName.substring(0, methodName.length() - 7);
-
-            // Get the parameter types of the method for the corresponding message body type
-            // new Class<?>[0] indicates that the method has no parameters
-            parameterTypes = msg.getBody() == null ? null : new Class<?>[]{msg.getBody().getClass()};
-
-            // Get the array of arguments for the method invocation
-            // new Object[0] indicates that the method has no arguments
-            args = msg.getBody() == null ?
-                    new Object[0] : new Object[]{msg.getBody()};
+            // The method is named after the message class, and takes the body if any
+            methodName = MethodDispatcher.methodName(msg.getClass());
+            args = MethodDispatcher.arguments(msg);
         }
 
-        try {
+        // Prefer the dispatchers generated for the Service interfaces, which invoke the methods directly
+        ServiceDispatcher generated = null;
+        int index = -1;
+        for (int i = 0; i < generatedDispatchers.length && index < 0; i++) {
+            generated = generatedDispatchers[i];
+            index = generated.select(methodName, args);
+        }
 
-            // Get the method for the given name and parameter types from the implementation object
-            Method method = implementation.getClass().getMethod(methodName, parameterTypes);
+        // Otherwise get the method for the given name and arguments, resolved once per implementation class
+        MethodDispatcher.Target method = index < 0 ? dispatcher.select(methodName, args) : null;
+        if (index < 0 && method == null) {
+            logger.error("No method with name " + methodName + " in class " + implementation.getClass().getName());
+            return;
+        }
+        boolean isVoid = index >= 0 ? generated.isVoid(index) : method.isVoid();
 
+        try {
             // Invoke the method on the implementation object with the given arguments and get the result
-            Object result = method.invoke(implementation, args);
-
-            // If the method returns a value, send it back to the sender
-            Class<?> returnType = method.getReturnType();
-            if (returnType != void.class)
-                msg.getSender().send(new Message<>(this, name, result));
-        } catch (NoSuchMethodException e) {
-            logger.error("No method with name " + methodName + " in class " + implementation.getClass().getName(), e);
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            Object result = index >= 0 ? generated.invoke(implementation, index, args) : method.invoke(implementation, args);
+
+            // If the method returns a value, send it back to the sender, once completed if it is asynchronous
+            if (!isVoid) {
+                if (result instanceof CompletionStage<?> stage)
+                    stage.whenComplete((value, error) -> reply(msg, error != null ? unwrap(error) : value));
+                else
+                    reply(msg, result);
+            }
+        } catch (Throwable e) {
             logger.error("Error while invoking method " + methodName + " in class " + implementation.getClass().getName(), e);
+            // let the caller fail instead of waiting for a reply that never comes
+            if (!isVoid)
+                reply(msg, e);
         }
     }
+
+    /**
+     * Sends the result of a method invocation back to the sender of the message, with its correlation identifier.
+     *
+     * @param msg    the message of the invocation.
+     * @param result the result of the invocation, or the exception it threw.
+     */
+    private void reply(Message<?> msg, Object result) {
+        if (msg.getSender() == null)
+            return;
+
+        Message<Object> reply = msg.reply(result);
+        reply.setSender(this);
+        reply.setSenderName(name);
+        msg.getSender().send(reply);
+    }
+
+    /**
+     * Returns the actual exception of a failed asynchronous invocation.
+     *
+     * @param error the exception completing the invocation.
+     * @return the cause of the exception if it only wraps it, the exception otherwise.
+     */
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
 }
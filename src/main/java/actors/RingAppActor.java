@@ -6,6 +6,7 @@
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * A RingAppActor is an Actor that simplifies the creation of a ring of Actors.
@@ -18,102 +19,147 @@ public class RingAppActor extends AbstractActor {
     private ActorRef first;
 
     /**
-     * State of the ring.
+     * The behavior before the ring is created: only spawning a ring is accepted.
      */
-    private enum State {
-        /**
-         * The ring is not yet created.
-         */
-        NOT_CREATED,
-        /**
-         * The ring is created.
-         */
-        CREATED
-    }
+    private final Behavior notCreated = Behavior.builder()
+            .match(SpawnActorRingMessage.class, this::createRing)
+            .match(RingMessage.class, m -> reject(m, "No actors have been spawned"))
+            .match(QuitMessage.class, m -> reject(m, "No actors have been spawned"))
+            .match(TimeExceededMessage.class, this::notifyParent)
+            .build();
 
     /**
-     * The current state of the ring.
+     * The behavior once the ring is created: the messages are forwarded to the first actor of the ring.
      */
-    private State state = State.NOT_CREATED;
+    private final Behavior created = Behavior.builder()
+            .match(SpawnActorRingMessage.class, m -> reject(m, "Ring already created"))
+            .match(RingMessage.class, this::forward)
+            .match(QuitMessage.class, this::quitRing)
+            .match(TimeExceededMessage.class, this::notifyParent)
+            .build();
 
     /**
      * Reference to the parent actor to notify when the ring is finished.
      */
     private ActorRef parent;
 
+    /**
+     * ThreadFactory used to spawn the actors of the ring, or null to use the default Dispatcher.
+     */
+    private final ThreadFactory threadFactory;
+
     /**
      * Logger for this class.
      */
     private static final Logger logger = LoggerFactory.getLogger(RingAppActor.class);
 
     /**
-     * Default constructor
+     * Default constructor. The actors of the ring run on the default Dispatcher.
      */
     public RingAppActor() {
+        this(null);
+    }
 
+    /**
+     * Creates a RingAppActor whose ring actors each run on a thread created by the given ThreadFactory.
+     *
+     * @param threadFactory the ThreadFactory used to spawn the actors of the ring.
+     */
+    public RingAppActor(ThreadFactory threadFactory) {
+        this.threadFactory = threadFactory;
+        become(notCreated);
     }
 
-    @Override
-    protected void process(Message<?> msg) {
-        logger.debug(
-                "RingAppActor {} received message {} from {}",
-                name,
-                msg.getClass().getSimpleName(),
-                msg.getSenderName()
-        );
-
-        if (msg instanceof SpawnActorRingMessage m) {
-            if (state == State.CREATED) {
-                if (msg.getSender() != null)
-                    msg.getSender().send(new Message<>(this, name, "Ring already created"));
-                return;
-            }
-
-            int numActors = m.getNumActors();
-            if (numActors < 1 && m.getSender() != null) {
-                m.getSender().send(new Message<>(this, name, "Invalid number of actors"));
-                return;
-            }
-
-            logger.info("RingAppActor {} creating ring of {} actors", name, numActors);
-
-            RingActor[] actors = new RingActor[numActors];
-            actors[actors.length - 1] = new RingActor(null, this);
-            ActorContext.spawnActor(name + "RingActor" + (actors.length - 1), actors[actors.length - 1]);
-            for (int i = actors.length - 2; i >= 0; i--) {
-                actors[i] = new RingActor(actors[i + 1], this);
-                ActorContext.spawnActor(name + "RingActor" + i, actors[i]);
-            }
-            actors[actors.length - 1].setNext(actors[0]);
-            first = actors[0];
-
-            if (m.getSender() != null) {
-                List<String> actorNames = Arrays.stream(actors).map(Actor::getName).toList();
-                m.getSender().send(new Message<>(this, name, actorNames));
-            }
-
-            state = State.CREATED;
-            parent = m.getSender();
-        } else if (msg instanceof RingMessage || msg instanceof QuitMessage) {
-            if (first == null) {
-                if (msg.getSender() != null)
-                    msg.getSender().send(new Message<>(this, name, "No actors have been spawned"));
-                return;
-            }
-            msg.setSender(this);
-            msg.setSenderName(name);
-            first.send(msg);
-            if (msg instanceof QuitMessage) {
-                first = null;
-                state = State.NOT_CREATED;
-                logger.info("RingAppActor {} finished", name);
-            }
-            logger.info("RingAppActor {} sent message to first actor", name);
-        } else if (msg instanceof TimeExceededMessage) {
-            msg.setSender(this);
-            msg.setSenderName(name);
-            if (parent != null)
-                parent.send(msg);
+    /**
+     * Creates the ring of actors and replies with their names.
+     *
+     * @param m the message with the number of actors of the ring.
+     */
+    private void createRing(SpawnActorRingMessage m) {
+        int numActors = m.getNumActors();
+        if (numActors < 1) {
+            reject(m, "Invalid number of actors");
+            return;
+        }
+
+        logger.info("RingAppActor {} creating ring of {} actors", name, numActors);
+
+        RingActor[] actors = new RingActor[numActors];
+        actors[actors.length - 1] = new RingActor(null, this);
+        spawn(name + "RingActor" + (actors.length - 1), actors[actors.length - 1]);
+        for (int i = actors.length - 2; i >= 0; i--) {
+            actors[i] = new RingActor(actors[i + 1], this);
+            spawn(name + "RingActor" + i, actors[i]);
+        }
+        actors[actors.length - 1].setNext(actors[0]);
+        first = actors[0];
+
+        if (m.getSender() != null) {
+            List<String> actorNames = Arrays.stream(actors).map(Actor::getName).toList();
+            m.getSender().send(new Message<>(this, name, actorNames));
         }
+
+        parent = m.getSender();
+        become(created);
+    }
+
+    /**
+     * Forwards a message to the first actor of the ring.
+     *
+     * @param msg the message to forward.
+     */
+    private void forward(Message<?> msg) {
+        msg.setSender(this);
+        msg.setSenderName(name);
+        first.send(msg);
+        logger.info("RingAppActor {} sent message to first actor", name);
+    }
+
+    /**
+     * Forwards the {@link QuitMessage} to the ring, which stops it.
+     *
+     * @param msg the message to forward.
+     */
+    private void quitRing(QuitMessage msg) {
+        forward(msg);
+        first = null;
+        become(notCreated);
+        logger.info("RingAppActor {} finished", name);
+    }
+
+    /**
+     * Forwards a {@link TimeExceededMessage} to the parent actor, if any.
+     *
+     * @param msg the message to forward.
+     */
+    private void notifyParent(TimeExceededMessage msg) {
+        msg.setSender(this);
+        msg.setSenderName(name);
+        if (parent != null)
+            parent.send(msg);
+    }
+
+    /**
+     * Replies to a message that cannot be handled in the current state of the ring.
+     *
+     * @param msg    the message.
+     * @param reason the reason sent back to its sender.
+     */
+    private void reject(Message<?> msg, String reason) {
+        if (msg.getSender() != null)
+            msg.getSender().send(new Message<>(this, name, reason));
+    }
+
+    /**
+     * Spawns an actor of the ring in the system of this actor, using the ThreadFactory if one was given.
+     *
+     * @param actorName the name of the actor.
+     * @param actor     the actor to spawn.
+     */
+    private void spawn(String actorName, Actor actor) {
+        if (threadFactory != null)
+            getSystem().spawnActor(actorName, actor, threadFactory);
+        else
+            getSystem().spawnActor(actorName, actor);
     }
 }
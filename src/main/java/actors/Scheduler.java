@@ -0,0 +1,289 @@
+package actors;
+
+import messages.Message;
+import messages.TransientMessage;
+import messages.WrapperMessage;
+import util.HashedWheelTimer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sends messages to Actors after a delay, once or periodically, on the timer of their {@link ActorSystem}.
+ * <p>
+ * The messages are sent with {@link ActorRef#trySend(Message)}, so that a full mailbox never blocks
+ * the timer thread: the message is dropped instead.
+ * <p>
+ * A periodic send is coalesced while the target has not processed its previous tick yet, so that a slow
+ * Actor receives at most one pending tick instead of a growing backlog. Ticks can only be tracked for
+ * the Actors extending {@link AbstractActor}, directly or through their {@link ActorProxy}; the ticks sent
+ * to other references are never coalesced.
+ *
+ * @see ActorSystem#scheduleOnce(Duration, ActorRef, Message)
+ * @see ActorSystem#scheduleAtFixedRate(Duration, Duration, ActorRef, Message)
+ */
+final class Scheduler {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private Scheduler() {
+
+    }
+
+    /**
+     * Sends a message once after the given delay.
+     *
+     * @param timer  the timer sending the message.
+     * @param delay  the delay before sending the message.
+     * @param target the Actor to send the message to.
+     * @param msg    the message to send.
+     * @return the handle to cancel the send.
+     */
+    static Cancellable scheduleOnce(HashedWheelTimer timer, Duration delay, ActorRef target, Message<?> msg) {
+        checkArguments(delay, target, msg);
+
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(
+                () -> target.trySend(msg), delay.toNanos(), TimeUnit.NANOSECONDS
+        );
+        return new Cancellable() {
+            @Override
+            public boolean cancel() {
+                return timeout.cancel();
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return timeout.isCancelled();
+            }
+        };
+    }
+
+    /**
+     * Sends a message periodically, the first time after the given delay.
+     *
+     * @param timer        the timer sending the messages.
+     * @param initialDelay the delay before sending the first message.
+     * @param period       the period between two messages.
+     * @param target       the Actor to send the messages to.
+     * @param msg          the message to send on each tick.
+     * @return the handle to cancel the sends.
+     */
+    static Cancellable scheduleAtFixedRate(HashedWheelTimer timer, Duration initialDelay, Duration period,
+                                           ActorRef target, Message<?> msg) {
+        checkArguments(initialDelay, target, msg);
+        if (period == null || period.isNegative() || period.isZero())
+            throw new IllegalArgumentException("Period must be positive!");
+
+        Schedule schedule = new Schedule(timer, period.toNanos(), target, msg);
+        schedule.start(initialDelay.toNanos());
+        return schedule;
+    }
+
+    /**
+     * Checks the arguments common to all the scheduled sends.
+     *
+     * @param delay  the delay before sending the message.
+     * @param target the Actor to send the message to.
+     * @param msg    the message to send.
+     */
+    private static void checkArguments(Duration delay, ActorRef target, Message<?> msg) {
+        if (delay == null || delay.isNegative())
+            throw new IllegalArgumentException("Delay cannot be null or negative!");
+        if (target == null)
+            throw new IllegalArgumentException("Target cannot be null!");
+        if (msg == null)
+            throw new IllegalArgumentException("Message cannot be null!");
+    }
+
+    /**
+     * Returns whether the ticks sent to the given reference can be tracked, to coalesce them.
+     *
+     * @param target the Actor to send the ticks to.
+     * @return true if the target unwraps the ticks, false otherwise.
+     */
+    private static boolean isTrackable(ActorRef target) {
+        return target instanceof AbstractActor ||
+                target instanceof ActorProxy proxy && proxy.getTarget() instanceof AbstractActor;
+    }
+
+    /**
+     * A periodic send. Each tick is scheduled from the start of the schedule, so that the period does not drift.
+     */
+    private static final class Schedule implements Cancellable {
+
+        /**
+         * The timer sending the ticks.
+         */
+        private final HashedWheelTimer timer;
+
+        /**
+         * The period between two ticks, in nanoseconds.
+         */
+        private final long period;
+
+        /**
+         * The Actor to send the ticks to.
+         */
+        private final ActorRef target;
+
+        /**
+         * The message to send on each tick.
+         */
+        private final Message<?> msg;
+
+        /**
+         * Whether the ticks are wrapped, to know when the target processes them.
+         */
+        private final boolean trackable;
+
+        /**
+         * Indicates whether a tick was sent and not processed yet.
+         */
+        private final AtomicBoolean inFlight = new AtomicBoolean(false);
+
+        /**
+         * Indicates whether the schedule was cancelled.
+         */
+        private final AtomicBoolean cancelled = new AtomicBoolean(false);
+
+        /**
+         * The time of the first tick, from {@link System#nanoTime()}.
+         */
+        private long start;
+
+        /**
+         * The number of ticks elapsed. Only used by the timer thread, once started.
+         */
+        private long ticks;
+
+        /**
+         * The timeout of the next tick.
+         */
+        private volatile HashedWheelTimer.Timeout timeout;
+
+        /**
+         * Creates a new Schedule.
+         *
+         * @param timer  the timer sending the ticks.
+         * @param period the period between two ticks, in nanoseconds.
+         * @param target the Actor to send the ticks to.
+         * @param msg    the message to send on each tick.
+         */
+        private Schedule(HashedWheelTimer timer, long period, ActorRef target, Message<?> msg) {
+            this.timer = timer;
+            this.period = period;
+            this.target = target;
+            this.msg = msg;
+            this.trackable = isTrackable(target);
+        }
+
+        /**
+         * Schedules the first tick.
+         *
+         * @param initialDelay the delay before the first tick, in nanoseconds.
+         */
+        private void start(long initialDelay) {
+            start = System.nanoTime() + initialDelay;
+            timeout = timer.newTimeout(this::tick, initialDelay, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Sends the message, unless the previous tick is still pending, and schedules the next tick.
+         * Called on the timer thread.
+         */
+        private void tick() {
+            if (cancelled.get())
+                return;
+
+            if (!trackable) {
+                target.trySend(msg);
+            } else if (inFlight.compareAndSet(false, true) && !target.trySend(new Tick(this, msg))) {
+                // dropped by a full mailbox: the next tick may try again
+                inFlight.set(false);
+            }
+
+            // skip the ticks missed while the timer was late, they would be coalesced anyway
+            long now = System.nanoTime();
+            ticks = Math.max(ticks + 1, (now - start) / period + 1);
+            timeout = timer.newTimeout(this::tick, start + ticks * period - now, TimeUnit.NANOSECONDS);
+            if (cancelled.get())
+                timeout.cancel();
+        }
+
+        /**
+         * Called when the target takes a tick from its mailbox, or when the tick is discarded,
+         * so that the next tick can be sent.
+         */
+        private void delivered() {
+            inFlight.set(false);
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!cancelled.compareAndSet(false, true))
+                return false;
+            timeout.cancel();
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+    }
+
+    /**
+     * A tick of a periodic send, wrapping its message so that the target can report that it took it,
+     * or that it was discarded without being processed.
+     */
+    static final class Tick extends Message<Message<?>> implements TransientMessage, WrapperMessage {
+
+        /**
+         * The schedule of the tick.
+         */
+        private final Schedule schedule;
+
+        /**
+         * Creates a new Tick, with the sender of its message.
+         *
+         * @param schedule the schedule of the tick.
+         * @param msg      the message of the tick.
+         */
+        private Tick(Schedule schedule, Message<?> msg) {
+            super(msg.getSender(), msg.getSenderName(), msg);
+            this.schedule = schedule;
+        }
+
+        /**
+         * Reports the tick as delivered and returns its message, with the sender set on the tick
+         * if the message had none, for example by an {@link ActorProxy}.
+         *
+         * @return the message of the tick.
+         */
+        Message<?> open() {
+            schedule.delivered();
+            Message<?> msg = getBody();
+            msg.setEnqueueTime(getEnqueueTime());
+            if (msg.getSender() == null) {
+                msg.setSender(getSender());
+                msg.setSenderName(getSenderName());
+            }
+            return msg;
+        }
+
+        @Override
+        public Message<?> getWrappedMessage() {
+            return getBody();
+        }
+
+        /**
+         * Reports the tick as gone, so that the next tick can be sent.
+         */
+        @Override
+        public void discard() {
+            schedule.delivered();
+        }
+    }
+}
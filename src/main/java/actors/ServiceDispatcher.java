@@ -0,0 +1,42 @@
+package actors;
+
+/**
+ * Dispatcher generated at compile time for a {@link Service} interface, invoking its methods directly.
+ * <p>
+ * {@link ReflectiveActor} uses the generated dispatchers of the Service interfaces of its implementation,
+ * and only resolves the methods they do not know, such as the methods outside the interfaces, through
+ * method handles. A method is selected from its name and the runtime types of the arguments, then invoked
+ * by its index, so that dispatching a message does not allocate.
+ *
+ * @see ServiceProxy
+ */
+public interface ServiceDispatcher {
+
+    /**
+     * Returns the method to invoke for the given name and arguments.
+     *
+     * @param method the name of the method.
+     * @param args   the arguments of the invocation.
+     * @return the index of the most specific method applicable to the arguments, or -1 if there is none.
+     */
+    int select(String method, Object[] args);
+
+    /**
+     * Returns whether the given method returns nothing.
+     *
+     * @param method the index of the method.
+     * @return true if the method is void, false otherwise.
+     */
+    boolean isVoid(int method);
+
+    /**
+     * Invokes a method.
+     *
+     * @param service the implementation of the Service interface.
+     * @param method  the index of the method, returned by {@link #select(String, Object[])}.
+     * @param args    the arguments of the invocation.
+     * @return the result of the method, or null if it returns nothing.
+     * @throws Throwable anything thrown by the method.
+     */
+    Object invoke(Service service, int method, Object[] args) throws Throwable;
+}
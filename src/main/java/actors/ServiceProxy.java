@@ -0,0 +1,139 @@
+package actors;
+
+import messages.Message;
+import messages.QuitMessage;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Base class of the proxies generated at compile time for the {@link Service} interfaces.
+ * <p>
+ * A generated proxy implements its interface by creating the message of each method directly, with the
+ * same rules as {@link DynamicProxy}, and sending it with the methods of this class: without reflection
+ * at runtime. {@link DynamicProxy#intercept(Class, ActorRef)} returns the generated proxy of an interface
+ * when there is one.
+ *
+ * @see ServiceDispatcher
+ */
+public abstract class ServiceProxy {
+
+    /**
+     * The reference to the Actor.
+     */
+    private final ActorRef targetActor;
+
+    /**
+     * The time to wait for the reply of a call.
+     */
+    private final Duration timeout;
+
+    /**
+     * The name of the proxy, used as the sender name of its messages.
+     */
+    private final String senderName;
+
+    /**
+     * Creates a new ServiceProxy for the given Actor.
+     *
+     * @param target  the Actor to create a proxy for.
+     * @param timeout the time to wait for the reply of a call.
+     * @throws IllegalArgumentException if the target is null or the timeout is not positive.
+     */
+    protected ServiceProxy(ActorRef target, Duration timeout) {
+        if (target == null)
+            throw new IllegalArgumentException("Target cannot be null!");
+        if (timeout == null || timeout.isNegative() || timeout.isZero())
+            throw new IllegalArgumentException("Timeout must be positive!");
+        this.targetActor = target;
+        this.timeout = timeout;
+        this.senderName = (target instanceof Actor a ? a.getName() : "unknown") + " (ServiceProxy)";
+    }
+
+    /**
+     * Sends the message of a method returning nothing. Any reply is ignored.
+     *
+     * @param msg the message.
+     */
+    protected void tell(Message<?> msg) {
+        msg.setSenderName(senderName);
+        msg.setSender(reply -> {
+        });
+        targetActor.send(msg);
+    }
+
+    /**
+     * Sends the message of a method returning a value and waits for the reply.
+     *
+     * @param msg the message.
+     * @param <T> the type of the result.
+     * @return the body of the reply.
+     * @throws RuntimeException if the method failed with it, or there was no reply in time.
+     * @throws Error if the method failed with it.
+     * @throws UndeclaredThrowableException if the method failed with a checked exception.
+     */
+    protected <T> T call(Message<?> msg) {
+        try {
+            return this.<T>callAsync(msg).join();
+        } catch (CompletionException e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Unwraps the failure of a call waited for synchronously, so that the caller sees the exception thrown
+     * by the method, whether the interface has a generated proxy or not.
+     *
+     * @param e the failure of the call.
+     * @return the exception to throw: the cause if it is unchecked, or the cause wrapped in an
+     * {@link UndeclaredThrowableException} if it is checked.
+     * @throws Error if the cause is an Error.
+     */
+    static RuntimeException rethrow(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof RuntimeException r)
+            return r;
+        if (cause instanceof Error error)
+            throw error;
+        return new UndeclaredThrowableException(cause);
+    }
+
+    /**
+     * Sends the message of a method returning a future, without waiting for the reply.
+     *
+     * @param msg the message.
+     * @param <T> the type of the result.
+     * @return the future completed with the body of the reply, or completed exceptionally if it is a {@link Throwable}.
+     */
+    protected <T> CompletableFuture<T> callAsync(Message<?> msg) {
+        msg.setSenderName(senderName);
+        return targetActor.<T>ask(msg, timeout).thenCompose(reply -> {
+            if (reply.getBody() instanceof Throwable t)
+                return CompletableFuture.failedFuture(t);
+            return CompletableFuture.completedFuture(reply.getBody());
+        });
+    }
+
+    /**
+     * Stops the Actor, as {@link DynamicProxy} does for a method named {@code end}.
+     */
+    protected void end() {
+        targetActor.send(new QuitMessage());
+    }
+
+    /**
+     * Returns the Actor behind the proxy.
+     *
+     * @return the reference to the Actor.
+     */
+    public ActorRef getTarget() {
+        return targetActor;
+    }
+
+    @Override
+    public String toString() {
+        return targetActor.toString();
+    }
+}
@@ -1,7 +1,10 @@
 package decorators;
 
 import actors.Actor;
+import actors.ActorSystem;
+import actors.Dispatcher;
 import actors.Modifier;
+import mailboxes.Mailbox;
 import messages.Message;
 
 /**
@@ -28,6 +31,11 @@ public void start() {
         actor.start();
     }
 
+    @Override
+    public void start(Dispatcher dispatcher) {
+        actor.start(dispatcher);
+    }
+
     @Override
     public abstract void send(Message<?> msg);
 
@@ -41,6 +49,16 @@ public void setName(String name) {
         actor.setName(name);
     }
 
+    @Override
+    public void setMailbox(Mailbox mailbox) {
+        actor.setMailbox(mailbox);
+    }
+
+    @Override
+    public void setSystem(ActorSystem system) {
+        actor.setSystem(system);
+    }
+
     @Override
     public void addModifier(Modifier<Message<?>> modifier) {
         actor.addModifier(modifier);
@@ -50,4 +68,9 @@ public void addModifier(Modifier<Message<?>> modifier) {
     public void removeModifier(Modifier<Message<?>> modifier) {
         actor.removeModifier(modifier);
     }
+
+    @Override
+    public Actor unwrap() {
+        return actor.unwrap();
+    }
 }
@@ -85,6 +85,7 @@ public void send(Message<?> msg) {
                         msg.getSenderName(),
                         aes.encrypt(body, password)
                 );
+                emsg.setDeadline(msg.getDeadline());
                 actor.send(emsg);
             } catch (Exception e) {
                 logger.error("Error encrypting message: ", e);
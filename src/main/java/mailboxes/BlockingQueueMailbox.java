@@ -0,0 +1,62 @@
+package mailboxes;
+
+import messages.Message;
+
+import java.util.Collection;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * {@link Mailbox} backed by a {@link BlockingQueue}.
+ * <p>
+ * By default it uses a {@link LinkedBlockingQueue}, which was the queue used by
+ * {@link actors.AbstractActor} before {@link MpscMailbox}. Every operation takes a lock.
+ */
+public class BlockingQueueMailbox implements Mailbox {
+
+    /**
+     * The queue of messages.
+     */
+    private final BlockingQueue<Message<?>> queue;
+
+    /**
+     * Creates a new BlockingQueueMailbox backed by a {@link LinkedBlockingQueue}.
+     */
+    public BlockingQueueMailbox() {
+        this(new LinkedBlockingQueue<>());
+    }
+
+    /**
+     * Creates a new BlockingQueueMailbox backed by the given queue.
+     *
+     * @param queue the queue of messages.
+     */
+    public BlockingQueueMailbox(BlockingQueue<Message<?>> queue) {
+        if (queue == null)
+            throw new IllegalArgumentException("Queue cannot be null");
+        this.queue = queue;
+    }
+
+    @Override
+    public boolean offer(Message<?> msg) {
+        if (msg == null)
+            throw new IllegalArgumentException("Message cannot be null");
+        return queue.offer(msg);
+    }
+
+    @Override
+    public Message<?> poll() {
+        return queue.poll();
+    }
+
+    @Override
+    public int drainTo(Collection<? super Message<?>> target, int max) {
+        // a single lock for the whole batch
+        return queue.drainTo(target, max);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+}
@@ -0,0 +1,289 @@
+package mailboxes;
+
+import actors.ActorRef;
+import messages.DeadLetterMessage;
+import messages.Message;
+import messages.TransientMessage;
+import monitoring.ActorMetrics;
+import monitoring.MonitorService;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free {@link Mailbox} with a fixed capacity and an {@link OverflowPolicy} applied when it is full.
+ * <p>
+ * The messages are stored in a preallocated array, using Dmitry Vyukov's bounded MPMC queue:
+ * each slot has a sequence number telling producers and consumers whether it is free or full.
+ * Although only the Actor polls messages, the queue supports several consumers so that senders
+ * can evict the oldest message under {@link OverflowPolicy#DROP_OLDEST}.
+ */
+public class BoundedMailbox implements Mailbox {
+
+    /**
+     * The default time a sender is blocked under {@link OverflowPolicy#BLOCK}.
+     */
+    public static final Duration DEFAULT_BLOCK_TIMEOUT = Duration.ofSeconds(1);
+
+    /**
+     * The longest time a blocked sender parks before checking the mailbox again, in nanoseconds.
+     */
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * The maximum number of messages of the mailbox.
+     */
+    private final int capacity;
+
+    /**
+     * The number of slots of the queue. The sequence numbers need at least two slots to tell a full
+     * slot from a free one, so a mailbox with a capacity of one still has two slots.
+     */
+    private final int slots;
+
+    /**
+     * The sequence number of each slot.
+     */
+    private final AtomicLongArray sequences;
+
+    /**
+     * The messages of each slot.
+     */
+    private final AtomicReferenceArray<Message<?>> messages;
+
+    /**
+     * The position of the next message to add.
+     */
+    private final AtomicLong enqueuePosition = new AtomicLong();
+
+    /**
+     * The position of the next message to poll.
+     */
+    private final AtomicLong dequeuePosition = new AtomicLong();
+
+    /**
+     * What to do when the mailbox is full.
+     */
+    private final OverflowPolicy policy;
+
+    /**
+     * The maximum time a sender is blocked under {@link OverflowPolicy#BLOCK}, in nanoseconds.
+     */
+    private final long blockTimeoutNanos;
+
+    /**
+     * Where to divert the messages under {@link OverflowPolicy#DEAD_LETTERS}, and the messages evicted under
+     * {@link OverflowPolicy#DROP_OLDEST}, or null.
+     */
+    private final ActorRef deadLetters;
+
+    /**
+     * The number of messages rejected, dropped, evicted or diverted because the mailbox was full.
+     */
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * The name of the Actor that owns the mailbox.
+     */
+    private volatile String owner;
+
+    /**
+     * The counters of the Actor that owns the mailbox, or null.
+     */
+    private volatile ActorMetrics metrics;
+
+    /**
+     * The monitor the counters of the Actor report to, or null.
+     */
+    private volatile MonitorService monitor;
+
+    /**
+     * Creates a new BoundedMailbox. Senders are blocked for {@link #DEFAULT_BLOCK_TIMEOUT} under
+     * {@link OverflowPolicy#BLOCK}.
+     *
+     * @param capacity the maximum number of messages of the mailbox.
+     * @param policy   what to do when the mailbox is full, other than {@link OverflowPolicy#DEAD_LETTERS}.
+     */
+    public BoundedMailbox(int capacity, OverflowPolicy policy) {
+        this(capacity, policy, DEFAULT_BLOCK_TIMEOUT, null);
+    }
+
+    /**
+     * Creates a new BoundedMailbox.
+     *
+     * @param capacity     the maximum number of messages of the mailbox.
+     * @param policy       what to do when the mailbox is full.
+     * @param blockTimeout the maximum time a sender is blocked under {@link OverflowPolicy#BLOCK}.
+     * @param deadLetters  where to divert the messages under {@link OverflowPolicy#DEAD_LETTERS}, and the messages
+     *                     evicted under {@link OverflowPolicy#DROP_OLDEST}, or null to discard the evicted messages.
+     * @throws IllegalArgumentException if the capacity is not positive, the policy or timeout are null
+     *                                  or negative, or the dead letters are missing for
+     *                                  {@link OverflowPolicy#DEAD_LETTERS}.
+     */
+    public BoundedMailbox(int capacity, OverflowPolicy policy, Duration blockTimeout, ActorRef deadLetters) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity must be positive");
+        if (policy == null)
+            throw new IllegalArgumentException("Overflow policy cannot be null");
+        if (blockTimeout == null || blockTimeout.isNegative())
+            throw new IllegalArgumentException("Block timeout cannot be null or negative");
+        if (policy == OverflowPolicy.DEAD_LETTERS && deadLetters == null)
+            throw new IllegalArgumentException("Dead letters cannot be null with the DEAD_LETTERS policy");
+
+        this.capacity = capacity;
+        this.slots = Math.max(capacity, 2);
+        this.sequences = new AtomicLongArray(slots);
+        this.messages = new AtomicReferenceArray<>(slots);
+        for (int i = 0; i < slots; i++)
+            sequences.set(i, i);
+        this.policy = policy;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+        this.deadLetters = deadLetters;
+    }
+
+    @Override
+    public boolean offer(Message<?> msg) {
+        if (msg == null)
+            throw new IllegalArgumentException("Message cannot be null");
+
+        long position = enqueuePosition.get();
+        while (true) {
+            int index = (int) (position % slots);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (slots > capacity && position - dequeuePosition.get() >= capacity)
+                    return false;
+                if (enqueuePosition.compareAndSet(position, position + 1)) {
+                    messages.setPlain(index, msg);
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = enqueuePosition.get();
+            } else if (difference < 0) {
+                // the slot still holds a message from the previous lap
+                return false;
+            } else {
+                position = enqueuePosition.get();
+            }
+        }
+    }
+
+    @Override
+    public boolean enqueue(Message<?> msg) {
+        if (offer(msg))
+            return true;
+
+        switch (policy) {
+            case BLOCK -> {
+                long deadline = System.nanoTime() + blockTimeoutNanos;
+                long parkNanos = 1;
+                while (!offer(msg)) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        dropped.increment();
+                        throw new MailboxOverflowException(
+                                "Mailbox of " + owner + " still full after " + blockTimeoutNanos + " ns"
+                        );
+                    }
+                    LockSupport.parkNanos(this, Math.min(parkNanos, remaining));
+                    parkNanos = Math.min(parkNanos * 2, MAX_PARK_NANOS);
+                }
+                return true;
+            }
+            case FAIL -> {
+                dropped.increment();
+                throw new MailboxOverflowException("Mailbox of " + owner + " is full");
+            }
+            case DROP_NEWEST -> {
+                dropped.increment();
+                return false;
+            }
+            case DROP_OLDEST -> {
+                do {
+                    Message<?> evicted = poll();
+                    if (evicted != null) {
+                        dropped.increment();
+                        ActorMetrics m = metrics;
+                        MonitorService service = monitor;
+                        if (m != null && service != null && service.isCounting())
+                            m.recordEvicted();
+                        if (evicted instanceof TransientMessage t)
+                            t.discard();
+                        else if (deadLetters != null)
+                            deadLetters.send(new DeadLetterMessage(owner, DeadLetterMessage.Reason.OVERFLOW, evicted));
+                    }
+                } while (!offer(msg));
+                return true;
+            }
+            case DEAD_LETTERS -> {
+                dropped.increment();
+                deadLetters.send(new DeadLetterMessage(owner, DeadLetterMessage.Reason.OVERFLOW, msg));
+                return false;
+            }
+            default -> throw new IllegalStateException("Unknown overflow policy " + policy);
+        }
+    }
+
+    @Override
+    public Message<?> poll() {
+        long position = dequeuePosition.get();
+        while (true) {
+            int index = (int) (position % slots);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (dequeuePosition.compareAndSet(position, position + 1)) {
+                    Message<?> msg = messages.getPlain(index);
+                    messages.setPlain(index, null);
+                    // free the slot for the next lap
+                    sequences.lazySet(index, position + slots);
+                    return msg;
+                }
+                position = dequeuePosition.get();
+            } else if (difference < 0) {
+                // the slot has not been filled yet
+                return null;
+            } else {
+                position = dequeuePosition.get();
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return dequeuePosition.get() >= enqueuePosition.get();
+    }
+
+    @Override
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    @Override
+    public void setMetrics(ActorMetrics metrics, MonitorService monitor) {
+        this.monitor = monitor;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the maximum number of messages of the mailbox.
+     *
+     * @return the capacity of the mailbox.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of messages rejected, dropped, evicted or diverted because the mailbox was full.
+     *
+     * @return the number of dropped messages.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+}
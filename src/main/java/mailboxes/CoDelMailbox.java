@@ -0,0 +1,257 @@
+package mailboxes;
+
+import actors.ActorRef;
+import messages.DeadLetterMessage;
+import messages.Message;
+import messages.TransientMessage;
+import monitoring.ActorMetrics;
+import monitoring.MonitorService;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free, unbounded {@link Mailbox} shedding the messages that waited too long, using the CoDel
+ * (controlled delay) algorithm of RFC 8289.
+ * <p>
+ * Each message is stamped with the time it was added to the mailbox, and its sojourn time is checked when the
+ * Actor polls it. Short bursts are absorbed: messages are only shed once the sojourn time has stayed above the
+ * target for a whole interval. From then on, a message is shed at each drop time, the drops getting closer
+ * (interval / sqrt(count)) until the sojourn time falls back below the target. Under overload, the Actor thus
+ * skips the stale messages whose senders have most likely given up, instead of working through an ever-growing
+ * backlog, and the waiting time of the messages it processes stays bounded.
+ * <p>
+ * The shed messages are counted as evicted and diverted to the dead letters, if any, except the
+ * {@link TransientMessage}s which are discarded. The system messages are never shed, since they do not go
+ * through the mailbox.
+ */
+public class CoDelMailbox implements Mailbox {
+
+    /**
+     * The default acceptable sojourn time.
+     */
+    public static final Duration DEFAULT_TARGET = Duration.ofMillis(5);
+
+    /**
+     * The default time the sojourn time must stay above the target before shedding messages.
+     */
+    public static final Duration DEFAULT_INTERVAL = Duration.ofMillis(100);
+
+    /**
+     * The messages of the mailbox.
+     */
+    private final MpscMailbox queue = new MpscMailbox();
+
+    /**
+     * The acceptable sojourn time, in nanoseconds.
+     */
+    private final long targetNanos;
+
+    /**
+     * The time the sojourn time must stay above the target before shedding messages, in nanoseconds.
+     */
+    private final long intervalNanos;
+
+    /**
+     * Where to divert the shed messages, or null to discard them.
+     */
+    private final ActorRef deadLetters;
+
+    /**
+     * The number of messages shed.
+     */
+    private final LongAdder shed = new LongAdder();
+
+    /**
+     * The name of the Actor that owns the mailbox.
+     */
+    private volatile String owner;
+
+    /**
+     * The counters of the Actor that owns the mailbox, or null.
+     */
+    private volatile ActorMetrics metrics;
+
+    /**
+     * The monitor the counters of the Actor report to, or null.
+     */
+    private volatile MonitorService monitor;
+
+    /**
+     * The time when the sojourn time will have stayed above the target for an interval, or 0 if it is below the
+     * target. Only accessed by the consumer, like the rest of the state of the algorithm.
+     */
+    private long firstAboveTime;
+
+    /**
+     * The time of the next drop, while dropping.
+     */
+    private long dropNext;
+
+    /**
+     * The number of drops since entering the dropping state.
+     */
+    private int count;
+
+    /**
+     * The number of drops of the previous dropping state.
+     */
+    private int lastCount;
+
+    /**
+     * Whether messages are being shed.
+     */
+    private boolean dropping;
+
+    /**
+     * Creates a new CoDelMailbox with the {@link #DEFAULT_TARGET} and {@link #DEFAULT_INTERVAL},
+     * discarding the shed messages.
+     */
+    public CoDelMailbox() {
+        this(DEFAULT_TARGET, DEFAULT_INTERVAL, null);
+    }
+
+    /**
+     * Creates a new CoDelMailbox.
+     *
+     * @param target      the acceptable sojourn time, well below the timeout of the senders.
+     * @param interval    the time the sojourn time must stay above the target before shedding messages,
+     *                    about the time the Actor takes to work through a burst.
+     * @param deadLetters where to divert the shed messages, or null to discard them.
+     * @throws IllegalArgumentException if the target or the interval is null or not positive.
+     */
+    public CoDelMailbox(Duration target, Duration interval, ActorRef deadLetters) {
+        if (target == null || target.isNegative() || target.isZero())
+            throw new IllegalArgumentException("Target cannot be null or not positive");
+        if (interval == null || interval.isNegative() || interval.isZero())
+            throw new IllegalArgumentException("Interval cannot be null or not positive");
+
+        this.targetNanos = target.toNanos();
+        this.intervalNanos = interval.toNanos();
+        this.deadLetters = deadLetters;
+    }
+
+    @Override
+    public boolean offer(Message<?> msg) {
+        if (msg == null)
+            throw new IllegalArgumentException("Message cannot be null");
+
+        msg.setEnqueueTime(System.nanoTime());
+        return queue.offer(msg);
+    }
+
+    @Override
+    public Message<?> poll() {
+        long now = System.nanoTime();
+        Message<?> msg = queue.poll();
+        if (msg == null) {
+            firstAboveTime = 0;
+            dropping = false;
+            return null;
+        }
+
+        boolean okToDrop = isAboveTarget(msg, now);
+        if (dropping) {
+            if (!okToDrop) {
+                // the sojourn time is back below the target
+                dropping = false;
+            }
+            while (dropping && now - dropNext >= 0) {
+                drop(msg);
+                count++;
+                msg = queue.poll();
+                if (msg == null || !isAboveTarget(msg, now)) {
+                    dropping = false;
+                } else {
+                    dropNext = controlLaw(dropNext, count);
+                }
+            }
+        } else if (okToDrop) {
+            drop(msg);
+            msg = queue.poll();
+            dropping = true;
+            // drop faster if the previous dropping state ended recently
+            int delta = count - lastCount;
+            count = delta > 1 && now - dropNext < 16 * intervalNanos ? delta : 1;
+            dropNext = controlLaw(now, count);
+            lastCount = count;
+            if (msg != null)
+                isAboveTarget(msg, now);
+        }
+        return msg;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    @Override
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    @Override
+    public void setMetrics(ActorMetrics metrics, MonitorService monitor) {
+        this.monitor = monitor;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the number of messages shed because they waited too long.
+     *
+     * @return the number of shed messages.
+     */
+    public long getShedCount() {
+        return shed.sum();
+    }
+
+    /**
+     * Checks the sojourn time of a message just polled, and updates the time it has been above the target.
+     * The last message of the mailbox is never considered above the target, so that the Actor is never left idle.
+     *
+     * @param msg the message.
+     * @param now the current time, from {@link System#nanoTime()}.
+     * @return true if the sojourn time has stayed above the target for at least an interval.
+     */
+    private boolean isAboveTarget(Message<?> msg, long now) {
+        if (now - msg.getEnqueueTime() < targetNanos || queue.isEmpty()) {
+            firstAboveTime = 0;
+            return false;
+        }
+        if (firstAboveTime == 0) {
+            firstAboveTime = now + intervalNanos;
+            return false;
+        }
+        return now - firstAboveTime >= 0;
+    }
+
+    /**
+     * Returns the time of the next drop, getting closer as the number of drops grows.
+     *
+     * @param time  the time of the previous drop.
+     * @param count the number of drops.
+     * @return the time of the next drop.
+     */
+    private long controlLaw(long time, int count) {
+        return time + (long) (intervalNanos / Math.sqrt(count));
+    }
+
+    /**
+     * Sheds a message, diverting it to the dead letters if any.
+     * The {@link TransientMessage}s are discarded instead, since they are not lost but simply skipped.
+     *
+     * @param msg the message.
+     */
+    private void drop(Message<?> msg) {
+        shed.increment();
+        ActorMetrics m = metrics;
+        MonitorService service = monitor;
+        if (m != null && service != null && service.isCounting())
+            m.recordEvicted();
+        if (msg instanceof TransientMessage t)
+            t.discard();
+        else if (deadLetters != null)
+            deadLetters.send(new DeadLetterMessage(owner, DeadLetterMessage.Reason.OVERLOAD, msg));
+    }
+}
@@ -0,0 +1,162 @@
+package mailboxes;
+
+import messages.ConflationKey;
+import messages.Message;
+import messages.TransientMessage;
+import monitoring.ActorMetrics;
+import monitoring.MonitorService;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Unbounded {@link Mailbox} keeping only the latest pending message of each {@link ConflationKey}.
+ * <p>
+ * A message implementing {@link ConflationKey} replaces the pending message with the same key in place,
+ * so that it keeps the position of the message it replaces and the Actor never processes stale values.
+ * The pending message of each key is found in a map rather than by walking the queue, and replaced with
+ * a compare-and-set. The number of pending conflated messages is therefore bounded by the number of keys,
+ * whatever the rate they are sent at. The other messages are queued as usual.
+ * <p>
+ * The replaced messages are counted as evicted. Nobody is notified of them, so a request waiting for
+ * their reply times out, except the {@link TransientMessage}s which are discarded.
+ */
+public class ConflatingMailbox implements Mailbox {
+
+    /**
+     * The messages and the slots of the conflated messages, in order.
+     */
+    private final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The slot of the pending message of each key.
+     */
+    private final Map<Object, Slot> pending = new ConcurrentHashMap<>();
+
+    /**
+     * The number of messages replaced by a newer one.
+     */
+    private final LongAdder conflated = new LongAdder();
+
+    /**
+     * The counters of the Actor owning the mailbox, to report the replaced messages.
+     */
+    private volatile ActorMetrics metrics;
+
+    /**
+     * The monitor the counters of the Actor report to, or null.
+     */
+    private volatile MonitorService monitor;
+
+    /**
+     * Default constructor.
+     */
+    public ConflatingMailbox() {
+
+    }
+
+    @Override
+    public boolean offer(Message<?> msg) {
+        if (msg == null)
+            throw new IllegalArgumentException("Message cannot be null");
+
+        if (!(msg instanceof ConflationKey c) || c.getConflationKey() == null) {
+            queue.offer(msg);
+            return true;
+        }
+
+        Object key = c.getConflationKey();
+        while (true) {
+            Slot slot = pending.get(key);
+            if (slot != null) {
+                // replace the pending message, unless the Actor has just taken it
+                Message<?> replaced = slot.getAndUpdate(current -> current == null ? null : msg);
+                if (replaced != null) {
+                    recordConflated(replaced);
+                    return true;
+                }
+            }
+
+            Slot fresh = new Slot(msg);
+            if (slot == null ? pending.putIfAbsent(key, fresh) == null : pending.replace(key, slot, fresh)) {
+                queue.offer(fresh);
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public Message<?> poll() {
+        Object next = queue.poll();
+        if (next instanceof Slot slot) {
+            Message<?> msg = slot.getAndSet(null);
+            pending.remove(((ConflationKey) msg).getConflationKey(), slot);
+            return msg;
+        }
+        return (Message<?>) next;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    @Override
+    public void setMetrics(ActorMetrics metrics, MonitorService monitor) {
+        this.monitor = monitor;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the number of messages replaced by a newer message with the same key.
+     *
+     * @return the number of conflated messages.
+     */
+    public long getConflatedCount() {
+        return conflated.sum();
+    }
+
+    /**
+     * Returns the number of keys with a pending message.
+     *
+     * @return the number of keys.
+     */
+    public int getPendingKeys() {
+        return pending.size();
+    }
+
+    /**
+     * Counts a message replaced by a newer one, and discards it if it is a {@link TransientMessage}.
+     *
+     * @param replaced the replaced message.
+     */
+    private void recordConflated(Message<?> replaced) {
+        conflated.increment();
+        ActorMetrics m = metrics;
+        MonitorService service = monitor;
+        if (m != null && service != null && service.isCounting())
+            m.recordEvicted();
+        if (replaced instanceof TransientMessage t)
+            t.discard();
+    }
+
+    /**
+     * The position of the pending message of a key in the queue. Its message is replaced by the newer messages
+     * with the same key, until the Actor takes it and leaves the slot empty.
+     */
+    private static final class Slot extends AtomicReference<Message<?>> {
+
+        /**
+         * Creates a new Slot.
+         *
+         * @param msg the first message of the slot.
+         */
+        private Slot(Message<?> msg) {
+            super(msg);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package mailboxes;
+
+import messages.Message;
+import monitoring.ActorMetrics;
+import monitoring.MonitorService;
+
+import java.util.Collection;
+
+/**
+ * A Mailbox holds the messages sent to an Actor until the Actor processes them.
+ * <p>
+ * Any number of threads may offer messages to a Mailbox, but only the thread currently running
+ * the Actor polls them (multi-producer, single-consumer). Waiting for messages is left to the
+ * Actor, so implementations only provide non-blocking operations.
+ *
+ * @see MpscMailbox
+ * @see BoundedMailbox
+ * @see BlockingQueueMailbox
+ */
+public interface Mailbox {
+
+    /**
+     * Adds a message to the Mailbox without blocking. May be called from any thread.
+     *
+     * @param msg the message to add.
+     * @return true if the message was added, false if the Mailbox is full.
+     */
+    boolean offer(Message<?> msg);
+
+    /**
+     * Adds a message to the Mailbox, applying the overflow policy of the Mailbox if it is full.
+     * May be called from any thread.
+     * <p>
+     * By default, the message is simply offered, which is enough for unbounded Mailboxes.
+     *
+     * @param msg the message to add.
+     * @return true if the message was added, false if it was dropped.
+     * @throws MailboxOverflowException if the overflow policy rejects the message.
+     */
+    default boolean enqueue(Message<?> msg) {
+        return offer(msg);
+    }
+
+    /**
+     * Retrieves and removes the next message of the Mailbox.
+     * Must only be called by the consumer.
+     *
+     * @return the next message, or null if the Mailbox is empty.
+     */
+    Message<?> poll();
+
+    /**
+     * Retrieves and removes up to the given number of messages, in order, and adds them to the given collection.
+     * Must only be called by the consumer.
+     * <p>
+     * By default, the messages are polled one by one.
+     *
+     * @param target the collection to add the messages to.
+     * @param max    the maximum number of messages to remove.
+     * @return the number of messages removed.
+     */
+    default int drainTo(Collection<? super Message<?>> target, int max) {
+        int count = 0;
+        Message<?> msg;
+        while (count < max && (msg = poll()) != null) {
+            target.add(msg);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns whether the Mailbox has no messages.
+     * Must only be called by the consumer.
+     *
+     * @return true if the Mailbox has no messages, false otherwise.
+     */
+    boolean isEmpty();
+
+    /**
+     * Sets the name of the Actor that owns the Mailbox, used to report the messages it cannot deliver.
+     *
+     * @param owner the name of the Actor.
+     */
+    default void setOwner(String owner) {
+    }
+
+    /**
+     * Sets the counters of the Actor that owns the Mailbox, used to report the messages it evicts
+     * after accepting them, and the monitor of its system, telling whether they are being counted.
+     *
+     * @param metrics the counters of the Actor.
+     * @param monitor the monitor the counters of the Actor report to.
+     */
+    default void setMetrics(ActorMetrics metrics, MonitorService monitor) {
+    }
+}
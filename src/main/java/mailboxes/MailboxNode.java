@@ -0,0 +1,54 @@
+package mailboxes;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A node that can be linked directly into a {@link MpscMailbox}, so that enqueueing it
+ * does not allocate a wrapper node.
+ * <p>
+ * {@link messages.Message} extends this class. A node can only be linked into one Mailbox at
+ * a time: if the same message is offered again while still queued, the Mailbox falls back to
+ * wrapping it in a separate node.
+ */
+public abstract class MailboxNode {
+
+    /**
+     * VarHandle for the {@link #next} field.
+     */
+    static final VarHandle NEXT;
+
+    /**
+     * VarHandle for the {@link #linked} field.
+     */
+    static final VarHandle LINKED;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            NEXT = lookup.findVarHandle(MailboxNode.class, "next", MailboxNode.class);
+            LINKED = lookup.findVarHandle(MailboxNode.class, "linked", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * The next node in the Mailbox.
+     * This field is transient because it is not part of the message.
+     */
+    transient volatile MailboxNode next;
+
+    /**
+     * Indicates whether the node is currently linked into a Mailbox.
+     * This field is transient because it is not part of the message.
+     */
+    transient volatile boolean linked;
+
+    /**
+     * Default constructor.
+     */
+    protected MailboxNode() {
+
+    }
+}
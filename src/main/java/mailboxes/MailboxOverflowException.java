@@ -0,0 +1,19 @@
+package mailboxes;
+
+/**
+ * Thrown when a message cannot be added to a full {@link BoundedMailbox}.
+ *
+ * @see OverflowPolicy#FAIL
+ * @see OverflowPolicy#BLOCK
+ */
+public class MailboxOverflowException extends IllegalStateException {
+
+    /**
+     * Creates a new MailboxOverflowException.
+     *
+     * @param message the detail message.
+     */
+    public MailboxOverflowException(String message) {
+        super(message);
+    }
+}
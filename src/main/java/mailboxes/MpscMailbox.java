@@ -0,0 +1,150 @@
+package mailboxes;
+
+import messages.Message;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Lock-free, unbounded, multi-producer single-consumer {@link Mailbox}.
+ * <p>
+ * This is an intrusive variant of Dmitry Vyukov's MPSC node-based queue: producers only perform
+ * an atomic swap of the head, and messages are linked through their own {@link MailboxNode}
+ * fields, so enqueueing a message does not allocate. A message that is already linked into a
+ * Mailbox is wrapped in a separate node instead.
+ * <p>
+ * This is the default Mailbox of {@link actors.AbstractActor}.
+ */
+public class MpscMailbox implements Mailbox {
+
+    /**
+     * VarHandle for the {@link #head} field.
+     */
+    private static final VarHandle HEAD;
+
+    static {
+        try {
+            HEAD = MethodHandles.lookup().findVarHandle(MpscMailbox.class, "head", MailboxNode.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * The stub node, linked whenever the queue would otherwise become empty.
+     */
+    private final MailboxNode stub = new Node(null);
+
+    /**
+     * The last node of the queue, where producers link their nodes.
+     * Updated through the {@link #HEAD} VarHandle.
+     */
+    private volatile MailboxNode head = stub;
+
+    /**
+     * The first node of the queue, only accessed by the consumer.
+     */
+    private MailboxNode tail = stub;
+
+    /**
+     * Default constructor.
+     */
+    public MpscMailbox() {
+
+    }
+
+    @Override
+    public boolean offer(Message<?> msg) {
+        if (msg == null)
+            throw new IllegalArgumentException("Message cannot be null");
+
+        // link the message itself, unless it is already linked into some mailbox
+        push(MailboxNode.LINKED.compareAndSet(msg, false, true) ? msg : new Node(msg));
+        return true;
+    }
+
+    @Override
+    public Message<?> poll() {
+        MailboxNode tail = this.tail;
+        MailboxNode next = tail.next;
+
+        // skip the stub node
+        if (tail == stub) {
+            if (next == null)
+                return null;
+            this.tail = next;
+            tail = next;
+            next = next.next;
+        }
+
+        if (next != null) {
+            this.tail = next;
+            return unlink(tail);
+        }
+
+        // a producer swapped the head but did not link its node yet
+        if (tail != head)
+            return null;
+
+        // tail is the only node: push the stub behind it so that it can be unlinked
+        push(stub);
+        next = tail.next;
+        if (next != null) {
+            this.tail = next;
+            return unlink(tail);
+        }
+        return null;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return tail == stub && head == stub;
+    }
+
+    /**
+     * Links a node at the head of the queue.
+     *
+     * @param node the node to link.
+     */
+    private void push(MailboxNode node) {
+        MailboxNode.NEXT.setRelease(node, (MailboxNode) null);
+        MailboxNode prev = (MailboxNode) HEAD.getAndSet(this, node);
+        // until this store, the node is not reachable from the tail
+        prev.next = node;
+    }
+
+    /**
+     * Returns the message of a node that is no longer reachable from the queue, releasing the
+     * message so that it can be linked again.
+     *
+     * @param node the node.
+     * @return the message of the node.
+     */
+    private static Message<?> unlink(MailboxNode node) {
+        MailboxNode.NEXT.setRelease(node, (MailboxNode) null);
+        if (node instanceof Node n)
+            return n.message;
+        node.linked = false;
+        return (Message<?>) node;
+    }
+
+    /**
+     * Wrapper node for messages that cannot be linked directly, and for the stub.
+     */
+    private static final class Node extends MailboxNode {
+
+        /**
+         * The wrapped message.
+         */
+        private final Message<?> message;
+
+        /**
+         * Creates a new wrapper node.
+         *
+         * @param message the wrapped message.
+         */
+        private Node(Message<?> message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package mailboxes;
+
+/**
+ * What a {@link BoundedMailbox} does with a message sent while it is full.
+ */
+public enum OverflowPolicy {
+    /**
+     * Block the sender until there is room, failing with a {@link MailboxOverflowException} on timeout.
+     */
+    BLOCK,
+    /**
+     * Fail immediately with a {@link MailboxOverflowException}.
+     */
+    FAIL,
+    /**
+     * Drop the message being sent.
+     */
+    DROP_NEWEST,
+    /**
+     * Drop the oldest message of the mailbox to make room for the message being sent,
+     * diverting it to the dead letters of the mailbox if any.
+     */
+    DROP_OLDEST,
+    /**
+     * Divert the message being sent to the dead letters.
+     */
+    DEAD_LETTERS
+}
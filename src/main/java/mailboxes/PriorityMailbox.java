@@ -0,0 +1,149 @@
+package mailboxes;
+
+import messages.Message;
+import messages.WrapperMessage;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Lock-free, unbounded {@link Mailbox} delivering the messages by priority, then in the order they were received.
+ * <p>
+ * The priorities of the message classes are given when the Mailbox is created, typically when spawning the Actor.
+ * A message has the priority of its class, or else of its closest superclass or interface with a priority, or else
+ * the default priority. A {@link WrapperMessage}, such as a tick of a periodic schedule, has the priority of the
+ * message it wraps. Each priority has its own {@link MpscMailbox}, so that sending a message only resolves its
+ * priority, cached per class, and pushes it without any lock, while polling takes the first message of the highest
+ * priority lane that is not empty.
+ * <p>
+ * A steady flow of high priority messages starves the lower priorities.
+ *
+ * @see actors.ActorContext#spawnActor(String, actors.Actor, Mailbox)
+ */
+public class PriorityMailbox implements Mailbox {
+
+    /**
+     * The priority of the message classes without any priority.
+     */
+    public static final int DEFAULT_PRIORITY = 0;
+
+    /**
+     * The priorities, from the highest to the lowest.
+     */
+    private final int[] priorities;
+
+    /**
+     * The lane of each priority, in the same order as {@link #priorities}.
+     */
+    private final MpscMailbox[] lanes;
+
+    /**
+     * The lane of each message class, resolved on first use.
+     */
+    private final ClassValue<MpscMailbox> laneOf;
+
+    /**
+     * Creates a new PriorityMailbox.
+     *
+     * @param priorities the priority of each message class. The messages of a higher priority are delivered first,
+     *                   and the messages of the classes without a priority have the {@link #DEFAULT_PRIORITY}.
+     * @throws IllegalArgumentException if the priorities are null or contain a null class or priority.
+     */
+    public PriorityMailbox(Map<Class<?>, Integer> priorities) {
+        if (priorities == null)
+            throw new IllegalArgumentException("Priorities cannot be null!");
+        if (priorities.keySet().stream().anyMatch(k -> k == null)
+                || priorities.values().stream().anyMatch(v -> v == null))
+            throw new IllegalArgumentException("Priorities cannot contain null!");
+
+        Map<Class<?>, Integer> byClass = Map.copyOf(priorities);
+        this.priorities = IntStream.concat(byClass.values().stream().mapToInt(Integer::intValue), IntStream.of(DEFAULT_PRIORITY))
+                .boxed()
+                .distinct()
+                .sorted(Comparator.reverseOrder())
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        this.lanes = new MpscMailbox[this.priorities.length];
+        for (int i = 0; i < lanes.length; i++)
+            lanes[i] = new MpscMailbox();
+
+        this.laneOf = new ClassValue<>() {
+            @Override
+            protected MpscMailbox computeValue(Class<?> type) {
+                return lane(priorityOf(type, byClass));
+            }
+        };
+    }
+
+    @Override
+    public boolean offer(Message<?> msg) {
+        if (msg == null)
+            throw new IllegalArgumentException("Message cannot be null");
+        Message<?> classified = msg;
+        while (classified instanceof WrapperMessage wrapper && wrapper.getWrappedMessage() != null)
+            classified = wrapper.getWrappedMessage();
+        return laneOf.get(classified.getClass()).offer(msg);
+    }
+
+    @Override
+    public Message<?> poll() {
+        for (MpscMailbox lane : lanes) {
+            Message<?> msg = lane.poll();
+            if (msg != null)
+                return msg;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (MpscMailbox lane : lanes)
+            if (!lane.isEmpty())
+                return false;
+        return true;
+    }
+
+    /**
+     * Returns the priority of a message class.
+     *
+     * @param type       the class of the message.
+     * @param priorities the priority of each message class.
+     * @return the priority of the class, or else of its closest superclass or interface with a priority,
+     * or else the {@link #DEFAULT_PRIORITY}. The interfaces of a class, including the ones they extend,
+     * are searched breadth first before its superclass.
+     */
+    private static int priorityOf(Class<?> type, Map<Class<?>, Integer> priorities) {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            Integer priority = priorities.get(c);
+            if (priority != null)
+                return priority;
+            Deque<Class<?>> interfaces = new ArrayDeque<>(List.of(c.getInterfaces()));
+            while (!interfaces.isEmpty()) {
+                Class<?> iface = interfaces.poll();
+                priority = priorities.get(iface);
+                if (priority != null)
+                    return priority;
+                interfaces.addAll(List.of(iface.getInterfaces()));
+            }
+        }
+        return DEFAULT_PRIORITY;
+    }
+
+    /**
+     * Returns the lane of a priority.
+     *
+     * @param priority the priority, one of {@link #priorities}.
+     * @return the lane.
+     */
+    private MpscMailbox lane(int priority) {
+        for (int i = 0; i < priorities.length; i++)
+            if (priorities[i] == priority)
+                return lanes[i];
+        throw new IllegalStateException("Unknown priority " + priority);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * This package contains the mailboxes that hold the messages sent to the Actors until they are processed.
+ */
+package mailboxes;
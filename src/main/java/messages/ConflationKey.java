@@ -0,0 +1,16 @@
+package messages;
+
+/**
+ * This interface is implemented by the messages of which only the latest value matters, such as status updates.
+ * <p>
+ * In a {@link mailboxes.ConflatingMailbox}, a message replaces the pending message with the same key, if any.
+ */
+public interface ConflationKey {
+
+    /**
+     * Returns the key identifying the messages replacing each other.
+     *
+     * @return the key, compared with {@link Object#equals(Object)}.
+     */
+    Object getConflationKey();
+}
@@ -0,0 +1,78 @@
+package messages;
+
+/**
+ * A message that could not be delivered to its recipient, wrapping the original message.
+ *
+ * @see mailboxes.OverflowPolicy#DEAD_LETTERS
+ * @see mailboxes.CoDelMailbox
+ * @see actors.DeadLetters
+ */
+public class DeadLetterMessage extends Message<Message<?>> {
+
+    /**
+     * The name of the Actor the message was sent to.
+     */
+    private final String recipient;
+
+    /**
+     * The reason why the message was not delivered.
+     */
+    private final Reason reason;
+
+    /**
+     * Creates a new dead letter.
+     *
+     * @param recipient the name of the Actor the message was sent to, or null if unknown.
+     * @param reason    the reason why the message was not delivered.
+     * @param message   the message that was not delivered.
+     */
+    public DeadLetterMessage(String recipient, Reason reason, Message<?> message) {
+        super(message);
+        this.recipient = recipient;
+        this.reason = reason;
+    }
+
+    /**
+     * Getter for the name of the Actor the message was sent to.
+     *
+     * @return the name of the recipient.
+     */
+    public String getRecipient() {
+        return recipient;
+    }
+
+    /**
+     * Getter for the reason why the message was not delivered.
+     *
+     * @return the reason.
+     */
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * This enum represents the reason why a message was not delivered.
+     */
+    public enum Reason {
+        /**
+         * The mailbox of the recipient was full.
+         */
+        OVERFLOW,
+        /**
+         * The message waited too long in the mailbox of an overloaded recipient.
+         */
+        OVERLOAD,
+        /**
+         * The deadline of the message had passed when the recipient took it.
+         */
+        EXPIRED,
+        /**
+         * The recipient stopped before processing the message.
+         */
+        STOPPED,
+        /**
+         * There is no Actor with the name of the recipient.
+         */
+        UNDELIVERABLE
+    }
+}
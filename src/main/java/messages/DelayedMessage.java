@@ -1,7 +1,8 @@
 package messages;
 
 /**
- * A message that blocks the sender for a given amount of time.
+ * A message that is processed by the receiving actor only after a given amount of time.
+ * Meanwhile, the actor keeps processing its other messages.
  */
 public interface DelayedMessage {
     /**
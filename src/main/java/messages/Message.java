@@ -1,13 +1,18 @@
 package messages;
 
 import actors.ActorRef;
+import mailboxes.MailboxNode;
+
+import java.time.Duration;
 
 /**
  * This class represents a generic message that can be sent to an Actor.
+ * <p>
+ * Messages are {@link MailboxNode}s, so they can be queued without allocating.
  *
  * @param <T> the type of the message.
  */
-public class Message<T> {
+public class Message<T> extends MailboxNode {
 
     /**
      * The Actor that sent the message.
@@ -25,6 +30,23 @@
      */
     private T body;
 
+    /**
+     * The identifier matching a reply to its request, or 0 if the message is not part of a request.
+     */
+    private long correlationId;
+
+    /**
+     * The time the message was last added to a mailbox, from {@link System#nanoTime()}, or 0 if unknown.
+     * This field is transient because it is only meaningful in this JVM.
+     */
+    private transient long enqueueTime;
+
+    /**
+     * The time after which nobody is waiting for the message anymore, in milliseconds since the epoch,
+     * or 0 if the message never expires.
+     */
+    private long deadline;
+
     /**
      * Default constructor.
      *
@@ -121,4 +143,95 @@ public T getBody() {
     public void setBody(T body) {
         this.body = body;
     }
+
+    /**
+     * Getter for the time the message was last added to a mailbox.
+     *
+     * @return the time, from {@link System#nanoTime()}, or 0 if unknown.
+     */
+    public long getEnqueueTime() {
+        return enqueueTime;
+    }
+
+    /**
+     * Setter for the time the message is added to a mailbox. Set by the Actors when the counters are enabled.
+     *
+     * @param enqueueTime the time, from {@link System#nanoTime()}, or 0 if unknown.
+     */
+    public void setEnqueueTime(long enqueueTime) {
+        this.enqueueTime = enqueueTime;
+    }
+
+    /**
+     * Getter for the time after which nobody is waiting for the message anymore.
+     *
+     * @return the deadline, in milliseconds since the epoch, or 0 if the message never expires.
+     */
+    public long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Setter for the time after which nobody is waiting for the message anymore. An Actor drops the message
+     * instead of processing it once the deadline has passed. The deadline is kept when the message is forwarded.
+     *
+     * @param deadline the deadline, in milliseconds since the epoch, or 0 if the message never expires.
+     */
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Sets the deadline of the message to the given time from now.
+     *
+     * @param timeToLive the time the message remains worth processing.
+     * @throws IllegalArgumentException if the time to live is null or negative.
+     * @see #setDeadline(long)
+     */
+    public void setTimeToLive(Duration timeToLive) {
+        if (timeToLive == null || timeToLive.isNegative())
+            throw new IllegalArgumentException("Time to live cannot be null or negative!");
+        this.deadline = System.currentTimeMillis() + timeToLive.toMillis();
+    }
+
+    /**
+     * Returns whether the deadline of the message has passed.
+     *
+     * @return true if the message has a deadline and it has passed, false otherwise.
+     */
+    public boolean isExpired() {
+        return deadline != 0 && System.currentTimeMillis() > deadline;
+    }
+
+    /**
+     * Getter for the identifier matching a reply to its request.
+     *
+     * @return the correlation identifier, or 0 if the message is not part of a request.
+     */
+    public long getCorrelationId() {
+        return correlationId;
+    }
+
+    /**
+     * Setter for the identifier matching a reply to its request. Set by {@link ActorRef#ask} on the request,
+     * and kept by the Actors replying with the same message or with {@link #reply(Object)}.
+     *
+     * @param correlationId the correlation identifier, or 0 if the message is not part of a request.
+     */
+    public void setCorrelationId(long correlationId) {
+        this.correlationId = correlationId;
+    }
+
+    /**
+     * Creates a reply to this message, carrying its correlation identifier, to be sent to its sender.
+     *
+     * @param body the body of the reply.
+     * @param <R>  the type of the reply.
+     * @return the reply, with no sender.
+     */
+    public <R> Message<R> reply(R body) {
+        Message<R> reply = new Message<>(body);
+        reply.setCorrelationId(correlationId);
+        return reply;
+    }
 }
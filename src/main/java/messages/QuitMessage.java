@@ -4,8 +4,12 @@
 
 /**
  * This class represents a quit message that can be sent to an Actor to terminate it.
+ * <p>
+ * As a {@link SystemMessage}, it is processed before the messages already queued, which are then sent to the
+ * dead letters of the system with the {@link DeadLetterMessage.Reason#STOPPED} reason, except the
+ * {@link TransientMessage}s, which are discarded.
  */
-public class QuitMessage extends Message<String> {
+public class QuitMessage extends Message<String> implements SystemMessage {
 
     /**
      * Default constructor.
@@ -3,7 +3,7 @@
 import actors.ActorRef;
 
 /**
- * A message that blocks the sender for a given amount of time.
+ * A message that is processed by the receiving actor only after a given amount of time.
  */
 public class SleepMessage extends Message<Integer> implements DelayedMessage {
     /**
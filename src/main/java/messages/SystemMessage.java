@@ -0,0 +1,11 @@
+package messages;
+
+/**
+ * This interface is implemented by the messages controlling an Actor rather than carrying work,
+ * such as {@link QuitMessage}.
+ * <p>
+ * System messages go through a separate lane of the Actor, which is always drained before its mailbox,
+ * so that they are neither delayed by the queued messages nor rejected by a full mailbox.
+ */
+public interface SystemMessage {
+}
@@ -0,0 +1,16 @@
+package messages;
+
+/**
+ * This interface is implemented by the messages standing for a signal rather than carrying data,
+ * such as the ticks of a periodic schedule.
+ * <p>
+ * A transient message that leaves a mailbox without being processed, because it is evicted, shed or left by a
+ * stopped Actor, is discarded instead of being reported as a dead letter, so that its source can send the next one.
+ */
+public interface TransientMessage {
+
+    /**
+     * Called when the message leaves a mailbox without being processed.
+     */
+    void discard();
+}
@@ -0,0 +1,18 @@
+package messages;
+
+/**
+ * This interface is implemented by the messages carrying another message to the Actor on behalf of the system,
+ * such as the ticks of a periodic schedule or the delayed messages once due.
+ * <p>
+ * A mailbox ordering the messages by their type, such as {@link mailboxes.PriorityMailbox}, classifies such a
+ * message by the message it wraps.
+ */
+public interface WrapperMessage {
+
+    /**
+     * Returns the wrapped message.
+     *
+     * @return the message delivered to the Actor in place of this one.
+     */
+    Message<?> getWrappedMessage();
+}
@@ -0,0 +1,271 @@
+package monitoring;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free counters of the messages of an Actor, readable at any time without walking any event.
+ * <p>
+ * The counters are striped ({@link LongAdder}), so that many senders can update them without contending.
+ * The mailbox depth is derived from the received and dequeued counters, and its peak is sampled
+ * by the Actor itself while it takes messages.
+ * <p>
+ * The Actor also records the time its messages wait in the mailbox and the time it takes to process them
+ * in two {@link LatencyHistogram}s, created when the first message is processed, and its recent traffic
+ * in a {@link RateCounter}.
+ * <p>
+ * The counters are only updated when the monitoring level includes them
+ * (see {@link MonitorService#isCounting()}). Changing the level while messages are queued can
+ * therefore skew the depth, which is never reported below zero.
+ *
+ * @see MonitorService#getMetrics(String)
+ */
+public class ActorMetrics {
+
+    /**
+     * The number of dequeued messages between two samples of the peak depth.
+     */
+    static final int PEAK_SAMPLE_INTERVAL = 32;
+
+    /**
+     * The number of messages sent by the Actor.
+     */
+    private final LongAdder sent = new LongAdder();
+
+    /**
+     * The number of messages added to the mailbox of the Actor.
+     */
+    private final LongAdder received = new LongAdder();
+
+    /**
+     * The number of messages taken from the mailbox of the Actor, or evicted from it.
+     */
+    private final LongAdder dequeued = new LongAdder();
+
+    /**
+     * The number of messages processed by the Actor.
+     */
+    private final LongAdder processed = new LongAdder();
+
+    /**
+     * The number of messages rejected or evicted by the mailbox of the Actor.
+     */
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * The number of messages dropped by the Actor because their deadline had passed.
+     */
+    private final LongAdder expired = new LongAdder();
+
+    /**
+     * The messages sent or received by the Actor in the last seconds.
+     */
+    private final RateCounter traffic = new RateCounter();
+
+    /**
+     * The highest sampled mailbox depth.
+     */
+    private volatile long peakDepth;
+
+    /**
+     * The number of messages dequeued since the last sample of the peak depth. Only used by the Actor.
+     */
+    private int sinceLastSample;
+
+    /**
+     * The time the messages wait in the mailbox, from enqueue to processing. Created on first use.
+     */
+    private volatile LatencyHistogram queueWait;
+
+    /**
+     * The time the Actor takes to process the messages. Created on first use.
+     */
+    private volatile LatencyHistogram serviceTime;
+
+    /**
+     * Records a message sent by the Actor.
+     */
+    public void recordSent() {
+        sent.increment();
+        traffic.record();
+    }
+
+    /**
+     * Records a message added to the mailbox of the Actor.
+     */
+    public void recordReceived() {
+        received.increment();
+        traffic.record();
+    }
+
+    /**
+     * Records a message taken from the mailbox by the Actor, sampling the peak depth periodically.
+     * Must only be called by the Actor.
+     */
+    public void recordDequeued() {
+        dequeued.increment();
+        if (++sinceLastSample >= PEAK_SAMPLE_INTERVAL)
+            sampleDepth();
+    }
+
+    /**
+     * Records a message taken from the mailbox and then added back to it, such as a delayed message once due.
+     * The message is counted in the depth again, but not as received twice.
+     */
+    public void recordRequeued() {
+        dequeued.decrement();
+    }
+
+    /**
+     * Records a message processed by the Actor.
+     */
+    public void recordProcessed() {
+        processed.increment();
+    }
+
+    /**
+     * Records a batch of messages processed by the Actor.
+     *
+     * @param count the number of messages.
+     */
+    public void recordProcessed(int count) {
+        processed.add(count);
+    }
+
+    /**
+     * Records a message that the mailbox of the Actor did not accept.
+     */
+    public void recordDropped() {
+        dropped.increment();
+    }
+
+    /**
+     * Records a message dropped by the Actor instead of being processed, because its deadline had passed.
+     */
+    public void recordExpired() {
+        expired.increment();
+    }
+
+    /**
+     * Records a message accepted earlier but then evicted from the mailbox of the Actor.
+     */
+    public void recordEvicted() {
+        dequeued.increment();
+        dropped.increment();
+    }
+
+    /**
+     * Records the time a message waited in the mailbox. Must only be called by the Actor.
+     *
+     * @param nanos the time, in nanoseconds.
+     */
+    public void recordQueueWait(long nanos) {
+        LatencyHistogram histogram = queueWait;
+        if (histogram == null)
+            queueWait = histogram = new LatencyHistogram();
+        histogram.record(nanos);
+    }
+
+    /**
+     * Records the time the Actor took to process a message. Must only be called by the Actor.
+     *
+     * @param nanos the time, in nanoseconds.
+     */
+    public void recordServiceTime(long nanos) {
+        LatencyHistogram histogram = serviceTime;
+        if (histogram == null)
+            serviceTime = histogram = new LatencyHistogram();
+        histogram.record(nanos);
+    }
+
+    /**
+     * Returns the percentiles of the time the messages waited in the mailbox.
+     *
+     * @return the snapshot of the histogram, empty if no message was processed.
+     */
+    public LatencyHistogram.Snapshot getQueueWait() {
+        LatencyHistogram histogram = queueWait;
+        return (histogram == null ? new LatencyHistogram() : histogram).snapshot();
+    }
+
+    /**
+     * Returns the percentiles of the time the Actor took to process the messages.
+     *
+     * @return the snapshot of the histogram, empty if no message was processed.
+     */
+    public LatencyHistogram.Snapshot getServiceTime() {
+        LatencyHistogram histogram = serviceTime;
+        return (histogram == null ? new LatencyHistogram() : histogram).snapshot();
+    }
+
+    /**
+     * Clears the latency histograms. The Actor starts recording into new histograms,
+     * so the values being recorded meanwhile may be lost.
+     */
+    public void resetLatencies() {
+        queueWait = null;
+        serviceTime = null;
+    }
+
+    /**
+     * Returns the number of messages sent or received by the Actor in the given window,
+     * ending at the last complete second.
+     *
+     * @param windowSeconds the length of the window, in seconds.
+     * @return the number of messages.
+     * @throws IllegalArgumentException if the window is not between 1 and {@value RateCounter#MAX_WINDOW} seconds.
+     */
+    public long getTraffic(int windowSeconds) {
+        return traffic.count(windowSeconds);
+    }
+
+    /**
+     * Samples the current mailbox depth to update the peak depth. Must only be called by the Actor.
+     */
+    public void sampleDepth() {
+        sinceLastSample = 0;
+        long depth = getDepth();
+        if (depth > peakDepth)
+            peakDepth = depth;
+    }
+
+    /**
+     * Returns the current number of messages in the mailbox of the Actor.
+     *
+     * @return the mailbox depth.
+     */
+    public long getDepth() {
+        return Math.max(0, received.sum() - dequeued.sum());
+    }
+
+    /**
+     * Returns a consistent-enough copy of the counters.
+     *
+     * @return the snapshot of the counters.
+     */
+    public Snapshot snapshot() {
+        long depth = getDepth();
+        return new Snapshot(
+                sent.sum(),
+                received.sum(),
+                processed.sum(),
+                dropped.sum(),
+                expired.sum(),
+                depth,
+                Math.max(peakDepth, depth)
+        );
+    }
+
+    /**
+     * A copy of the counters of an Actor.
+     *
+     * @param sent      the number of messages sent by the Actor.
+     * @param received  the number of messages added to the mailbox of the Actor.
+     * @param processed the number of messages processed by the Actor.
+     * @param dropped   the number of messages rejected or evicted by the mailbox of the Actor.
+     * @param expired   the number of messages dropped by the Actor because their deadline had passed.
+     * @param depth     the current number of messages in the mailbox of the Actor.
+     * @param peakDepth the highest sampled number of messages in the mailbox of the Actor.
+     */
+    public record Snapshot(long sent, long received, long processed, long dropped, long expired, long depth, long peakDepth) {
+    }
+}
@@ -0,0 +1,248 @@
+package monitoring;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous fan-out of {@link ActorEvent}s to {@link Subscription}s.
+ * <p>
+ * Events are published into a preallocated ring buffer: publishing only claims the next slot and
+ * stores the event, so the actor emitting it never runs the subscribers' code. One or more consumer
+ * threads read the ring and call the subscribers, each subscription following the ring with its own
+ * cursor. Publishers never wait for the consumers: a subscription that falls more than a whole ring
+ * behind skips the overwritten events and counts them as dropped.
+ * <p>
+ * Each slot has a tag holding the sequence of its event, doubled, plus one while the event is being
+ * written. Readers check the tag before and after reading the event to detect that it was overwritten.
+ *
+ * @see MonitorService#subscribe(java.util.Set, java.util.Set, ActorListener)
+ */
+class EventBus {
+
+    /**
+     * The default number of slots of the ring.
+     */
+    static final int DEFAULT_CAPACITY = 1 << 14;
+
+    /**
+     * The default number of consumer threads.
+     */
+    static final int DEFAULT_CONSUMERS = 1;
+
+    /**
+     * The maximum number of events delivered to a subscription before moving to the next one.
+     */
+    private static final int BATCH_SIZE = 256;
+
+    /**
+     * The longest time an idle consumer parks before checking the ring again, in nanoseconds.
+     */
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * The number of slots of the ring. Always a power of two.
+     */
+    private final int capacity;
+
+    /**
+     * The mask to get the slot of a sequence.
+     */
+    private final int mask;
+
+    /**
+     * The events of each slot.
+     */
+    private final AtomicReferenceArray<ActorEvent> events;
+
+    /**
+     * The tag of each slot: twice the sequence of its event, plus one while it is being written.
+     */
+    private final AtomicLongArray tags;
+
+    /**
+     * The sequence of the next event to publish.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * The consumer threads.
+     */
+    private final Consumer[] consumers;
+
+    /**
+     * The consumer of the next subscription, to spread the subscriptions over the consumers.
+     */
+    private final AtomicInteger nextConsumer = new AtomicInteger();
+
+    /**
+     * Indicates whether the consumer threads have been asked to stop.
+     */
+    private volatile boolean stopped;
+
+    /**
+     * Creates a new EventBus and starts its consumer threads.
+     *
+     * @param capacity  the minimum number of slots of the ring, rounded up to a power of two.
+     * @param consumers the number of consumer threads.
+     * @throws IllegalArgumentException if capacity or consumers are not positive.
+     */
+    EventBus(int capacity, int consumers) {
+        if (capacity < 1 || capacity > 1 << 30)
+            throw new IllegalArgumentException("Capacity must be positive and at most 2^30");
+        if (consumers < 1)
+            throw new IllegalArgumentException("Consumers must be positive");
+
+        int size = Integer.highestOneBit(capacity);
+        this.capacity = size < capacity ? size << 1 : size;
+        this.mask = this.capacity - 1;
+        this.events = new AtomicReferenceArray<>(this.capacity);
+        this.tags = new AtomicLongArray(this.capacity);
+        // each slot is published for the lap before the first one
+        for (int i = 0; i < this.capacity; i++)
+            tags.set(i, 2L * (i - this.capacity));
+
+        this.consumers = new Consumer[consumers];
+        for (int i = 0; i < consumers; i++) {
+            this.consumers[i] = new Consumer();
+            Thread.ofPlatform().daemon().name("monitor-event-bus-" + i).start(this.consumers[i]);
+        }
+    }
+
+    /**
+     * Publishes an event into the ring. Never blocks on the consumers.
+     *
+     * @param event the event to publish.
+     */
+    void publish(ActorEvent event) {
+        long sequence = head.getAndIncrement();
+        int index = (int) (sequence & mask);
+
+        // the publisher of the previous lap may still be writing if the ring wrapped meanwhile
+        long previous = 2 * (sequence - capacity);
+        while (!tags.compareAndSet(index, previous, 2 * sequence + 1))
+            Thread.onSpinWait();
+
+        events.setRelease(index, event);
+        tags.setRelease(index, 2 * sequence);
+    }
+
+    /**
+     * Adds a subscription, which receives the events published from now on.
+     *
+     * @param subscription the subscription to add.
+     */
+    void add(Subscription subscription) {
+        subscription.cursor = head.get();
+        consumers[Math.floorMod(nextConsumer.getAndIncrement(), consumers.length)].subscriptions.add(subscription);
+    }
+
+    /**
+     * Removes a subscription. Its listener may still receive the events being delivered.
+     *
+     * @param subscription the subscription to remove.
+     */
+    void remove(Subscription subscription) {
+        for (Consumer consumer : consumers)
+            consumer.subscriptions.remove(subscription);
+    }
+
+    /**
+     * Stops the consumer threads once they have delivered the events being read. The events published
+     * afterwards are no longer delivered.
+     */
+    void shutdown() {
+        stopped = true;
+    }
+
+    /**
+     * Returns the number of slots of the ring.
+     *
+     * @return the capacity of the ring.
+     */
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of events published but not yet read by the given subscription.
+     *
+     * @param subscription the subscription.
+     * @return the lag of the subscription.
+     */
+    long lag(Subscription subscription) {
+        return Math.max(0, head.get() - subscription.cursor);
+    }
+
+    /**
+     * Delivers the available events to a subscription, from its cursor.
+     * Only called by the consumer thread of the subscription.
+     *
+     * @param subscription the subscription.
+     * @param max          the maximum number of events to read.
+     * @return the number of events read, whether they matched the subscription or not.
+     */
+    private int drain(Subscription subscription, int max) {
+        int read = 0;
+        long cursor = subscription.cursor;
+        while (read < max) {
+            int index = (int) (cursor & mask);
+            long tag = tags.getAcquire(index);
+            if (tag == 2 * cursor) {
+                ActorEvent event = events.getAcquire(index);
+                if (tags.getAcquire(index) == tag) {
+                    cursor++;
+                    read++;
+                    subscription.cursor = cursor;
+                    subscription.deliver(event);
+                    continue;
+                }
+            } else if (tag < 2 * cursor + 2) {
+                // not published yet, or still being written
+                break;
+            }
+
+            // the event was overwritten: skip to the oldest event still in the ring, counting all the skipped
+            // events since the overwritten ones cannot be matched against the subscription anymore
+            long oldest = Math.max(cursor + 1, head.get() - capacity);
+            subscription.dropped += oldest - cursor;
+            cursor = oldest;
+            subscription.cursor = cursor;
+        }
+        return read;
+    }
+
+    /**
+     * A consumer thread, delivering the events to its share of the subscriptions.
+     */
+    private class Consumer implements Runnable {
+
+        /**
+         * The subscriptions served by this consumer.
+         */
+        private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void run() {
+            long parkNanos = 0;
+            while (!stopped) {
+                int read = 0;
+                for (Subscription subscription : subscriptions)
+                    read += drain(subscription, BATCH_SIZE);
+
+                if (read > 0) {
+                    parkNanos = 0;
+                } else {
+                    // back off while the ring is idle
+                    parkNanos = Math.min(Math.max(parkNanos * 2, 1000), MAX_PARK_NANOS);
+                    LockSupport.parkNanos(this, parkNanos);
+                }
+            }
+        }
+    }
+}
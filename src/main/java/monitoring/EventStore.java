@@ -0,0 +1,299 @@
+package monitoring;
+
+import messages.Message;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A bounded store of {@link ActorEvent}s, keeping the most recent ones.
+ * <p>
+ * The events are kept in a ring, limited both by a number of events and by an estimate of the memory they
+ * retain. When a limit is reached, the oldest events are evicted first. The ring starts small and doubles
+ * as needed up to the maximum number of events, so that a store of a rarely active actor stays small.
+ * <p>
+ * This class is thread-safe: actors append their events concurrently while the queries iterate the store.
+ *
+ * @see MonitorService
+ */
+public class EventStore {
+
+    /**
+     * The estimated size of an {@link ActorEvent}, in bytes.
+     */
+    static final int EVENT_SIZE = 32;
+
+    /**
+     * The estimated size of a {@link MessageEvent} and its {@link Message}, without the body, in bytes.
+     */
+    static final int MESSAGE_EVENT_SIZE = 40 + 48;
+
+    /**
+     * The estimated size of a body of unknown type, in bytes.
+     */
+    static final int DEFAULT_BODY_SIZE = 64;
+
+    /**
+     * The initial number of slots of the ring, unless the maximum number of events is lower.
+     */
+    static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The events, from {@link #head} for {@link #size} events, wrapping around.
+     */
+    private ActorEvent[] events;
+
+    /**
+     * The estimated size of each event, in bytes.
+     */
+    private long[] sizes;
+
+    /**
+     * The index of the oldest event.
+     */
+    private int head;
+
+    /**
+     * The number of events in the store.
+     */
+    private int size;
+
+    /**
+     * The estimated size of all the events in the store, in bytes.
+     */
+    private long bytes;
+
+    /**
+     * The maximum number of events in the store, up to which the ring grows.
+     */
+    private int maxEvents;
+
+    /**
+     * The maximum estimated size of the events in the store, in bytes.
+     */
+    private long maxBytes;
+
+    /**
+     * The number of events evicted to respect the limits.
+     */
+    private long evicted;
+
+    /**
+     * Creates a new EventStore limited by a number of events only.
+     *
+     * @param maxEvents the maximum number of events.
+     */
+    public EventStore(int maxEvents) {
+        this(maxEvents, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a new EventStore.
+     *
+     * @param maxEvents the maximum number of events.
+     * @param maxBytes  the maximum estimated size of the events, in bytes.
+     * @throws IllegalArgumentException if a limit is not positive.
+     */
+    public EventStore(int maxEvents, long maxBytes) {
+        checkLimits(maxEvents, maxBytes);
+        this.events = new ActorEvent[Math.min(maxEvents, INITIAL_CAPACITY)];
+        this.sizes = new long[events.length];
+        this.maxEvents = maxEvents;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Adds an event, evicting the oldest events if needed.
+     * An event larger than the maximum size on its own is not stored.
+     *
+     * @param event the event to add.
+     */
+    public synchronized void add(ActorEvent event) {
+        long eventSize = estimateSize(event);
+        if (eventSize > maxBytes) {
+            evicted++;
+            return;
+        }
+
+        if (size == events.length && size < maxEvents)
+            resize((int) Math.min(2L * size, maxEvents));
+        while (size == events.length || bytes + eventSize > maxBytes)
+            evictOldest();
+
+        int index = (head + size) % events.length;
+        events[index] = event;
+        sizes[index] = eventSize;
+        size++;
+        bytes += eventSize;
+    }
+
+    /**
+     * Changes the limits of the store, evicting the oldest events if needed.
+     *
+     * @param maxEvents the maximum number of events.
+     * @param maxBytes  the maximum estimated size of the events, in bytes.
+     * @throws IllegalArgumentException if a limit is not positive.
+     */
+    public synchronized void setLimits(int maxEvents, long maxBytes) {
+        checkLimits(maxEvents, maxBytes);
+        this.maxEvents = maxEvents;
+        this.maxBytes = maxBytes;
+        while (size > maxEvents || bytes > maxBytes)
+            evictOldest();
+
+        // keep the ring just large enough for the events left, within the new maximum
+        int capacity = Math.min(maxEvents, Math.max(size, INITIAL_CAPACITY));
+        if (capacity != events.length)
+            resize(capacity);
+    }
+
+    /**
+     * Returns the number of slots of the ring.
+     *
+     * @return the capacity of the store.
+     */
+    synchronized int getCapacity() {
+        return events.length;
+    }
+
+    /**
+     * Calls the given action for each event, from the oldest to the most recent, without copying the store.
+     * The store is locked meanwhile, so the action should be short.
+     *
+     * @param action the action to call.
+     */
+    public synchronized void forEach(Consumer<? super ActorEvent> action) {
+        for (int i = 0; i < size; i++)
+            action.accept(events[(head + i) % events.length]);
+    }
+
+    /**
+     * Adds the events, from the oldest to the most recent, to the given collection.
+     *
+     * @param target the collection to add the events to.
+     */
+    public synchronized void addTo(Collection<? super ActorEvent> target) {
+        forEach(target::add);
+    }
+
+    /**
+     * Returns a snapshot of the events, from the oldest to the most recent.
+     *
+     * @return the list of events.
+     */
+    public synchronized List<ActorEvent> toList() {
+        List<ActorEvent> list = new ArrayList<>(size);
+        addTo(list);
+        return list;
+    }
+
+    /**
+     * Returns the number of events in the store.
+     *
+     * @return the number of events.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the estimated size of the events in the store.
+     *
+     * @return the estimated size, in bytes.
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the number of events evicted, or not stored, to respect the limits.
+     *
+     * @return the number of evicted events.
+     */
+    public synchronized long getEvictedCount() {
+        return evicted;
+    }
+
+    /**
+     * Moves the events to a ring with the given number of slots, the oldest first.
+     * Must be called with the lock held.
+     *
+     * @param capacity the number of slots, at least the number of events.
+     */
+    private void resize(int capacity) {
+        ActorEvent[] newEvents = new ActorEvent[capacity];
+        long[] newSizes = new long[capacity];
+        for (int i = 0; i < size; i++) {
+            int index = (head + i) % events.length;
+            newEvents[i] = events[index];
+            newSizes[i] = sizes[index];
+        }
+        events = newEvents;
+        sizes = newSizes;
+        head = 0;
+    }
+
+    /**
+     * Removes the oldest event. Must be called with the lock held.
+     */
+    private void evictOldest() {
+        events[head] = null;
+        bytes -= sizes[head];
+        head = (head + 1) % events.length;
+        size--;
+        evicted++;
+    }
+
+    /**
+     * Checks that the limits are positive.
+     *
+     * @param maxEvents the maximum number of events.
+     * @param maxBytes  the maximum estimated size of the events, in bytes.
+     */
+    private static void checkLimits(int maxEvents, long maxBytes) {
+        if (maxEvents < 1)
+            throw new IllegalArgumentException("The maximum number of events must be positive.");
+        if (maxBytes < 1)
+            throw new IllegalArgumentException("The maximum size must be positive.");
+    }
+
+    /**
+     * Estimates the memory retained by an event, including the body of its message.
+     * This is a rough estimate, meant to bound the memory of the store, not to measure it.
+     *
+     * @param event the event.
+     * @return the estimated size, in bytes.
+     */
+    static long estimateSize(ActorEvent event) {
+        if (!(event instanceof MessageEvent<?> messageEvent))
+            return EVENT_SIZE;
+
+        Message<?> message = messageEvent.getMessage();
+        return MESSAGE_EVENT_SIZE + (message == null ? 0 : estimateBodySize(message.getBody()));
+    }
+
+    /**
+     * Estimates the memory retained by the body of a message.
+     *
+     * @param body the body.
+     * @return the estimated size, in bytes.
+     */
+    private static long estimateBodySize(Object body) {
+        if (body == null)
+            return 0;
+        if (body instanceof CharSequence s)
+            return 40 + 2L * s.length();
+        if (body instanceof byte[] a)
+            return 16 + a.length;
+        if (body instanceof Number || body instanceof Boolean || body instanceof Character)
+            return 16;
+        if (body instanceof Collection<?> c)
+            return 40 + (long) c.size() * DEFAULT_BODY_SIZE;
+        if (body instanceof Map<?, ?> m)
+            return 40 + (long) m.size() * 2 * DEFAULT_BODY_SIZE;
+        return DEFAULT_BODY_SIZE;
+    }
+}
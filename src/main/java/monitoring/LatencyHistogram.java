@@ -0,0 +1,174 @@
+package monitoring;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A histogram of latencies in nanoseconds, with a bounded relative error over a high dynamic range.
+ * <p>
+ * The buckets are log-linear: values below {@value #SUB_BUCKETS} ns have a bucket each, and every
+ * power of two above is split into {@value #SUB_BUCKETS} linear buckets, so that a value is reported with
+ * a relative error of at most 1/{@value #SUB_BUCKETS}. Values above {@link #MAX_VALUE} are counted
+ * in the last bucket, but the maximum is kept exactly.
+ * <p>
+ * A histogram has a single writer, the Actor it belongs to: recording a value only computes a bucket
+ * and increments it, without allocating nor contending. Readers may run concurrently and see the
+ * values being recorded, or not yet.
+ *
+ * @see ActorMetrics
+ */
+public class LatencyHistogram {
+
+    /**
+     * The number of bits of the linear part of a bucket.
+     */
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /**
+     * The number of linear buckets in each power of two.
+     */
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The highest value with its own bucket, about 68 seconds.
+     */
+    public static final long MAX_VALUE = (1L << 36) - 1;
+
+    /**
+     * The number of buckets.
+     */
+    private static final int BUCKETS = index(MAX_VALUE) + 1;
+
+    /**
+     * The number of values recorded in each bucket.
+     */
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(BUCKETS);
+
+    /**
+     * The number of values recorded.
+     */
+    private volatile long count;
+
+    /**
+     * The highest value recorded.
+     */
+    private volatile long max;
+
+    /**
+     * Records a value. Must only be called by the single writer of the histogram.
+     *
+     * @param nanos the value, in nanoseconds. Negative values are recorded as zero.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        int index = index(Math.min(value, MAX_VALUE));
+        // single writer: no need for an atomic increment
+        counts.lazySet(index, counts.get(index) + 1);
+        count = count + 1;
+        if (value > max)
+            max = value;
+    }
+
+    /**
+     * Returns the number of values recorded.
+     *
+     * @return the number of values.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the highest value recorded.
+     *
+     * @return the highest value, in nanoseconds, or 0 if no value was recorded.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the value below which the given percentage of the recorded values fall.
+     *
+     * @param percentile the percentage, between 0 and 100.
+     * @return the highest value equivalent to the percentile, in nanoseconds, or 0 if no value was recorded.
+     * @throws IllegalArgumentException if the percentile is not between 0 and 100.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("The percentile must be between 0 and 100.");
+
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++)
+            total += counts.get(i);
+        if (total == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank)
+                return Math.min(highestEquivalentValue(i), max);
+        }
+        return max;
+    }
+
+    /**
+     * Returns the usual percentiles of the histogram.
+     *
+     * @return the snapshot of the histogram.
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(
+                getCount(),
+                getValueAtPercentile(50),
+                getValueAtPercentile(90),
+                getValueAtPercentile(99),
+                getValueAtPercentile(99.9),
+                getMax()
+        );
+    }
+
+    /**
+     * Returns the bucket of a value.
+     *
+     * @param value the value, between 0 and {@link #MAX_VALUE}.
+     * @return the index of the bucket.
+     */
+    static int index(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+
+        // keep the leading bit and the next SUB_BUCKET_BITS bits
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return SUB_BUCKETS * (shift + 1) + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * Returns the highest value of a bucket.
+     *
+     * @param index the index of the bucket.
+     * @return the highest value of the bucket.
+     */
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKETS)
+            return index;
+
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = (long) (index % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * The usual percentiles of a histogram, in nanoseconds.
+     *
+     * @param count the number of values recorded.
+     * @param p50   the median.
+     * @param p90   the 90th percentile.
+     * @param p99   the 99th percentile.
+     * @param p999  the 99.9th percentile.
+     * @param max   the highest value recorded.
+     */
+    public record Snapshot(long count, long p50, long p90, long p99, long p999, long max) {
+    }
+}
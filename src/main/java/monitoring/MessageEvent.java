@@ -9,6 +9,16 @@
  */
 public class MessageEvent<T extends Message<?>> extends ActorEvent {
 
+    /**
+     * Cache of the simple names of the message classes, which are computed on each call otherwise.
+     */
+    private static final ClassValue<String> simpleNames = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            return type.getSimpleName();
+        }
+    };
+
     /**
      * The message that was sent or received.
      */
@@ -29,7 +39,7 @@
     public MessageEvent(String source, EventType eventType, T message) {
         super(source, eventType);
         this.message = message;
-        this.messageClass = message.getClass().getSimpleName();
+        this.messageClass = simpleNames.get(message.getClass());
     }
 
     /**
@@ -5,15 +5,22 @@
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 
 /**
  * This class represents a service that monitors the execution of the actors.
  * <p>
- * This class uses the Singleton pattern to ensure that there is only one instance of the service,
- * as all the actors must use the same instance.
+ * Each {@link actors.ActorSystem} has its own instance of the service, used by all its actors.
+ * The default system, behind {@link ActorContext}, uses the shared instance returned by {@link #getInstance()}.
  * <p>
  * It uses an Observer pattern to notify the observers when an actor emits an event.
+ * The listeners are indexed by source and event type, so that an event only reaches
+ * the listeners interested in it, whatever the number of actors in the system.
+ * <p>
+ * Emitting an event is skipped entirely, without allocating it, when no listener is interested in it
+ * (see {@link #isListening(String, ActorEvent.EventType)}) or when its type is excluded by the current
+ * monitoring {@link Level}.
  * <p>
  * This class also provides some methods to get statistics about the actor events.
  *
@@ -24,9 +31,14 @@
 public class MonitorService implements Publisher {
 
     /**
-     * The instance of the service.
+     * The instance of the service used by the default actor system.
      */
-    private static MonitorService instance = null;
+    private static volatile MonitorService instance = null;
+
+    /**
+     * The names of the actors of the system monitored by {@link #monitorAllActors()}.
+     */
+    private volatile Supplier<? extends Collection<String>> actorNames = ActorContext::getNames;
 
     /**
      * The set of monitored actors. This set is used to avoid monitoring the same actor twice.
@@ -35,51 +47,135 @@ public class MonitorService implements Publisher {
     private final Set<String> monitoredActors = ConcurrentHashMap.newKeySet();
 
     /**
-     * The list of listeners. Must be thread-safe.
+     * The listeners, called synchronously by the actors.
+     */
+    private final ListenerIndex listeners = new ListenerIndex();
+
+    /**
+     * The listeners of the asynchronous subscriptions, only used to know which events they are interested in.
+     */
+    private final ListenerIndex subscribedListeners = new ListenerIndex();
+
+    /**
+     * The bus delivering the events to the subscriptions. Created on the first subscription.
+     */
+    private volatile EventBus eventBus;
+
+    /**
+     * Indicates whether the service has been shut down, after which no event bus is created.
+     * Guarded by this service.
+     */
+    private boolean shutdown;
+
+    /**
+     * The current monitoring level.
+     */
+    private volatile Level level = Level.FULL;
+
+    /**
+     * The default maximum number of events kept for all the monitored actors.
+     */
+    public static final int DEFAULT_MAX_EVENTS = 100_000;
+
+    /**
+     * The default maximum number of events kept for each monitored actor.
+     */
+    public static final int DEFAULT_MAX_ACTOR_EVENTS = 10_000;
+
+    /**
+     * The most recent events of all the monitored actors.
+     */
+    private final EventStore events = new EventStore(DEFAULT_MAX_EVENTS);
+
+    /**
+     * The most recent events grouped by actor. Must be thread-safe.
      */
-    private final Queue<ActorListener> listeners = new ConcurrentLinkedQueue<>();
+    private final Map<String, EventStore> actorEvents = new ConcurrentHashMap<>();
 
     /**
-     * The list of all events. Must be thread-safe.
+     * The maximum number of events kept for each monitored actor.
      */
-    private final Queue<ActorEvent> events = new ConcurrentLinkedQueue<>();
+    private volatile int maxActorEvents = DEFAULT_MAX_ACTOR_EVENTS;
 
     /**
-     * The list events grouped by actor. Must be thread-safe.
+     * The maximum estimated size of the events kept for each monitored actor, in bytes.
      */
-    private final Map<String, List<ActorEvent>> actorEvents = new ConcurrentHashMap<>();
+    private volatile long maxActorBytes = Long.MAX_VALUE;
 
     /**
-     * The number of messages sent or received by each actor. Must be thread-safe.
+     * The counters of the running actors and of the monitored actors, by actor name. Must be thread-safe.
      */
-    private final Map<String, Integer> messageCount = new ConcurrentHashMap<>();
+    private final Map<String, ActorMetrics> metrics = new ConcurrentHashMap<>();
 
     /**
-     * The events grouped by type. Must be thread-safe.
+     * The default window of the traffic, in seconds.
      */
-    private final Map<ActorEvent.EventType, List<ActorEvent>> eventTypesMap = new ConcurrentHashMap<>();
+    public static final int DEFAULT_TRAFFIC_WINDOW = 60;
 
     /**
-     * Private constructor to ensure that the class cannot be instantiated.
+     * The window of the traffic, in seconds.
      */
-    private MonitorService() {
+    private volatile int trafficWindow = DEFAULT_TRAFFIC_WINDOW;
+
+    /**
+     * The number of messages in the traffic window from which the traffic is {@link TrafficDensity#MEDIUM}.
+     */
+    private volatile long mediumTrafficThreshold = TrafficDensity.DEFAULT_MEDIUM_THRESHOLD;
+
+    /**
+     * The number of messages in the traffic window from which the traffic is {@link TrafficDensity#HIGH}.
+     */
+    private volatile long highTrafficThreshold = TrafficDensity.DEFAULT_HIGH_THRESHOLD;
+
+    /**
+     * Creates a new service, monitoring the actors of the default actor system until
+     * {@link #setActorNames(Supplier)} is called. Use {@link #getInstance()} for the default system.
+     */
+    public MonitorService() {
 
     }
 
     /**
-     * Returns the instance of the service.
+     * Returns the instance of the service used by the default actor system, creating it on first use.
      *
      * @return the instance of the service.
      */
     public static MonitorService getInstance() {
-        if (instance == null)
-            instance = new MonitorService();
+        MonitorService service = instance;
+        if (service == null) {
+            synchronized (MonitorService.class) {
+                service = instance;
+                if (service == null)
+                    instance = service = new MonitorService();
+            }
+        }
+        return service;
+    }
 
-        return instance;
+    /**
+     * Sets the names of the actors of the system, monitored by {@link #monitorAllActors()}.
+     * Called by the actor system owning the service.
+     *
+     * @param actorNames the supplier of the names of the actors.
+     * @throws IllegalArgumentException if the supplier is null.
+     */
+    public void setActorNames(Supplier<? extends Collection<String>> actorNames) {
+        if (actorNames == null)
+            throw new IllegalArgumentException("Actor names cannot be null.");
+        this.actorNames = actorNames;
     }
 
+    @Override
     public void attach(ActorListener listener) {
-        listeners.add(listener);
+        attach(null, null, listener);
+    }
+
+    @Override
+    public void attach(String source, ActorEvent.EventType eventType, ActorListener listener) {
+        if (listener == null)
+            throw new IllegalArgumentException("The listener cannot be null.");
+
+        listeners.add(source, eventType, listener);
     }
 
     @Override
@@ -87,9 +183,226 @@ public void detach(ActorListener listener) {
         listeners.remove(listener);
     }
 
+    /**
+     * Subscribe asynchronously to all the events.
+     *
+     * @param listener the listener to call for each event.
+     * @return the subscription.
+     * @see #subscribe(Set, Set, ActorListener)
+     */
+    public Subscription subscribe(ActorListener listener) {
+        return subscribe(Set.of(), Set.of(), listener);
+    }
+
+    /**
+     * Subscribe asynchronously to the events of the given actors and types.
+     * <p>
+     * Unlike the listeners added with {@link #attach(ActorListener)}, the listener is not called by the
+     * actors but by a consumer thread, so a slow listener does not delay the messages. The events are
+     * buffered in a bounded ring: a listener too slow to keep up loses the oldest events, which are
+     * counted by {@link Subscription#getDroppedCount()}.
+     *
+     * @param sources    the names of the actors, or an empty set for any actor.
+     * @param eventTypes the types of the events, or an empty set for any type.
+     * @param listener   the listener to call for each event.
+     * @return the subscription.
+     */
+    public Subscription subscribe(Set<String> sources, Set<ActorEvent.EventType> eventTypes, ActorListener listener) {
+        if (sources == null || eventTypes == null)
+            throw new IllegalArgumentException("The sources and event types cannot be null.");
+        if (listener == null)
+            throw new IllegalArgumentException("The listener cannot be null.");
+
+        EventBus bus = getEventBus();
+        Subscription subscription = new Subscription(bus, sources, eventTypes, listener);
+        bus.add(subscription);
+
+        for (String source : sources.isEmpty() ? Collections.<String>singleton(null) : sources)
+            for (ActorEvent.EventType eventType : eventTypes.isEmpty() ? Collections.<ActorEvent.EventType>singleton(null) : eventTypes)
+                subscribedListeners.add(source, eventType, listener);
+
+        return subscription;
+    }
+
+    /**
+     * Cancel a subscription. Its listener may still be called for the events being delivered.
+     *
+     * @param subscription the subscription to cancel.
+     */
+    public void unsubscribe(Subscription subscription) {
+        if (subscription == null)
+            throw new IllegalArgumentException("The subscription cannot be null.");
+
+        subscribedListeners.remove(subscription.getListener());
+        EventBus bus = eventBus;
+        if (bus != null)
+            bus.remove(subscription);
+    }
+
+    /**
+     * Returns the bus delivering the events to the subscriptions, creating it if needed.
+     *
+     * @return the event bus.
+     * @throws IllegalStateException if the service has been shut down before the first subscription.
+     */
+    private EventBus getEventBus() {
+        EventBus bus = eventBus;
+        if (bus == null) {
+            synchronized (this) {
+                if (shutdown)
+                    throw new IllegalStateException("The monitor service has been shut down.");
+                bus = eventBus;
+                if (bus == null)
+                    eventBus = bus = new EventBus(EventBus.DEFAULT_CAPACITY, EventBus.DEFAULT_CONSUMERS);
+            }
+        }
+        return bus;
+    }
+
+    /**
+     * Stops the consumer threads delivering the events to the subscriptions, if any. Called by the actor
+     * system owning the service when it shuts down. The subscriptions are no longer delivered afterwards.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            shutdown = true;
+            if (eventBus != null)
+                eventBus.shutdown();
+        }
+    }
+
+    /**
+     * Returns whether an event of the given source and type would reach at least one listener.
+     * Callers should check it before creating an event, so that nothing is allocated when nobody listens.
+     *
+     * @param source    the name of the Actor that would generate the event.
+     * @param eventType the type of the event.
+     * @return true if the event type is enabled by the current level and has a listener, false otherwise.
+     */
+    public boolean isListening(String source, ActorEvent.EventType eventType) {
+        return level.includes(eventType) &&
+                (listeners.isListening(source, eventType) || subscribedListeners.isListening(source, eventType));
+    }
+
+    /**
+     * Returns whether the actors should update their {@link ActorMetrics}, which is the case from
+     * the {@link Level#COUNTERS} level.
+     *
+     * @return true if the counters are enabled, false otherwise.
+     */
+    public boolean isCounting() {
+        return level.compareTo(Level.COUNTERS) >= 0;
+    }
+
+    /**
+     * Register the counters of an actor, so that they can be read by name. Called by the actor when it starts.
+     *
+     * @param actorName the name of the actor.
+     * @param actorMetrics the counters of the actor.
+     */
+    public void registerMetrics(String actorName, ActorMetrics actorMetrics) {
+        if (actorName == null || actorMetrics == null)
+            throw new IllegalArgumentException("The actor name and metrics cannot be null.");
+        metrics.put(actorName, actorMetrics);
+    }
+
+    /**
+     * Unregister the counters of an actor. Called by the actor when it stops or aborts.
+     * The counters of the monitored actors are kept, to report their traffic.
+     *
+     * @param actorName the name of the actor.
+     */
+    public void unregisterMetrics(String actorName) {
+        if (actorName != null && !monitoredActors.contains(actorName))
+            metrics.remove(actorName);
+    }
+
+    /**
+     * Get a snapshot of the counters of the specified actor, in constant time.
+     *
+     * @param actorName the name of the actor.
+     * @return the snapshot of the counters, or null if the actor is neither running nor monitored.
+     */
+    public ActorMetrics.Snapshot getMetrics(String actorName) {
+        ActorMetrics actorMetrics = metrics.get(actorName);
+        return actorMetrics == null ? null : actorMetrics.snapshot();
+    }
+
+    /**
+     * Get the percentiles of the time the messages of the specified actor waited in its mailbox,
+     * from being sent to being processed.
+     *
+     * @param actorName the name of the actor.
+     * @return the snapshot of the histogram, or null if the actor is neither running nor monitored.
+     */
+    public LatencyHistogram.Snapshot getQueueWait(String actorName) {
+        ActorMetrics actorMetrics = metrics.get(actorName);
+        return actorMetrics == null ? null : actorMetrics.getQueueWait();
+    }
+
+    /**
+     * Get the percentiles of the time the specified actor took to process its messages.
+     *
+     * @param actorName the name of the actor.
+     * @return the snapshot of the histogram, or null if the actor is neither running nor monitored.
+     */
+    public LatencyHistogram.Snapshot getServiceTime(String actorName) {
+        ActorMetrics actorMetrics = metrics.get(actorName);
+        return actorMetrics == null ? null : actorMetrics.getServiceTime();
+    }
+
+    /**
+     * Clear the latency histograms of the specified actor.
+     *
+     * @param actorName the name of the actor.
+     */
+    public void resetLatencies(String actorName) {
+        ActorMetrics actorMetrics = metrics.get(actorName);
+        if (actorMetrics != null)
+            actorMetrics.resetLatencies();
+    }
+
+    /**
+     * Get a snapshot of the counters of all the running and monitored actors.
+     *
+     * @return the {@link Map} with the actor name as key and the snapshot of its counters as value.
+     */
+    public Map<String, ActorMetrics.Snapshot> getAllMetrics() {
+        Map<String, ActorMetrics.Snapshot> result = new HashMap<>();
+        metrics.forEach((actorName, actorMetrics) -> result.put(actorName, actorMetrics.snapshot()));
+        return result;
+    }
+
+    /**
+     * Returns the current monitoring level.
+     *
+     * @return the monitoring level.
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Sets the monitoring level. It can be changed at runtime and applies to the next events.
+     *
+     * @param level the new monitoring level.
+     */
+    public void setLevel(Level level) {
+        if (level == null)
+            throw new IllegalArgumentException("The level cannot be null.");
+        this.level = level;
+    }
+
     @Override
     public void notifyListeners(ActorEvent event) {
-        listeners.forEach(listener -> listener.onEvent(event));
+        if (!level.includes(event.getEventType()))
+            return;
+
+        listeners.dispatch(event);
+
+        // a single slot claim, whatever the number of subscriptions
+        if (subscribedListeners.isListening(event.getSource(), event.getEventType()))
+            eventBus.publish(event);
     }
 
     /**
@@ -103,55 +416,143 @@ public void monitorActor(String actorName) {
         if (actorName == null)
             throw new IllegalArgumentException("The actor name cannot be null.");
 
-        if (monitoredActors.contains(actorName))
+        if (!monitoredActors.add(actorName))
             return;
 
         // Attach a listener to collect the statistics.
-        attach(event -> {
-            if (!event.getSource().equals(actorName))
-                return;
-
-            // Log the event to the global event list
+        attach(actorName, null, event -> {
+            // Log the event to the global event store
             events.add(event);
 
-            // Log the event to the actor's event list
-            actorEvents.computeIfAbsent(event.getSource(), k -> new LinkedList<>()).add(event);
-
-            // Add the event to the event count map
-            if (event instanceof MessageEvent<?>)
-                messageCount.merge(event.getSource(), 1, Integer::sum);
+            // Log the event to the actor's event store
+            actorEvents.computeIfAbsent(event.getSource(), k -> new EventStore(maxActorEvents, maxActorBytes))
+                    .add(event);
 
-            // Log the event type to the event type map
-            eventTypesMap.computeIfAbsent(event.getEventType(), k -> new LinkedList<>()).add(event);
         });
+    }
+
+    /**
+     * Set the limits of the events kept for all the monitored actors. The oldest events are evicted first.
+     *
+     * @param maxEvents the maximum number of events.
+     * @param maxBytes  the maximum estimated size of the events, in bytes.
+     * @throws IllegalArgumentException if a limit is not positive.
+     */
+    public void setEventLimits(int maxEvents, long maxBytes) {
+        events.setLimits(maxEvents, maxBytes);
+    }
 
-        monitoredActors.add(actorName);
+    /**
+     * Set the limits of the events kept for each monitored actor. The oldest events are evicted first.
+     *
+     * @param maxEvents the maximum number of events.
+     * @param maxBytes  the maximum estimated size of the events, in bytes.
+     * @throws IllegalArgumentException if a limit is not positive.
+     */
+    public void setActorEventLimits(int maxEvents, long maxBytes) {
+        if (maxEvents < 1 || maxBytes < 1)
+            throw new IllegalArgumentException("The limits must be positive.");
+
+        maxActorEvents = maxEvents;
+        maxActorBytes = maxBytes;
+        actorEvents.values().forEach(store -> store.setLimits(maxEvents, maxBytes));
     }
 
     /**
      * Monitor all the actors in the system.
      */
     public void monitorAllActors() {
-        ActorContext.getNames().forEach(this::monitorActor);
+        actorNames.get().forEach(this::monitorActor);
     }
 
     /**
-     * Get the information about the message traffic of the monitored actors.
+     * Get the information about the message traffic of the monitored actors, over the traffic window.
      *
      * @return {@link Map} with the {@link TrafficDensity} as key and the list of actors as value.
+     * @see #setTrafficWindow(int)
+     * @see #setTrafficThresholds(long, long)
      */
     public Map<TrafficDensity, List<String>> getTraffic() {
-        Map<TrafficDensity, List<String>> traffic = new HashMap<>();
+        return getTraffic(trafficWindow);
+    }
 
-        messageCount.forEach(
-                (actorName, count) ->
-                        traffic.computeIfAbsent(TrafficDensity.getDensity(count), k -> new LinkedList<>())
-                                .add(actorName)
-        );
+    /**
+     * Get the information about the message traffic of the monitored actors, over the given window.
+     * The traffic is the number of messages sent or received by an actor in the window, ending at the
+     * last complete second. Only the buckets of the window are read, so that this method can be polled
+     * frequently, even with many monitored actors.
+     *
+     * @param windowSeconds the length of the window, in seconds.
+     * @return {@link Map} with the {@link TrafficDensity} as key and the list of actors as value.
+     * @throws IllegalArgumentException if the window is not between 1 and {@value RateCounter#MAX_WINDOW} seconds.
+     */
+    public Map<TrafficDensity, List<String>> getTraffic(int windowSeconds) {
+        RateCounter.checkWindow(windowSeconds);
+        long medium = mediumTrafficThreshold;
+        long high = highTrafficThreshold;
+        Map<TrafficDensity, List<String>> traffic = new EnumMap<>(TrafficDensity.class);
+
+        for (String actorName : monitoredActors) {
+            ActorMetrics actorMetrics = metrics.get(actorName);
+            if (actorMetrics == null)
+                continue;
+
+            long count = actorMetrics.getTraffic(windowSeconds);
+            traffic.computeIfAbsent(TrafficDensity.getDensity(count, medium, high), k -> new ArrayList<>()).add(actorName);
+        }
 
         return traffic;
     }
 
+    /**
+     * Get the average number of messages per second sent or received by the specified actor over the given window,
+     * ending at the last complete second.
+     *
+     * @param actorName     the name of the actor.
+     * @param windowSeconds the length of the window, in seconds.
+     * @return the rate, in messages per second, or 0 if the actor is neither running nor monitored.
+     * @throws IllegalArgumentException if the window is not between 1 and {@value RateCounter#MAX_WINDOW} seconds.
+     */
+    public double getRate(String actorName, int windowSeconds) {
+        RateCounter.checkWindow(windowSeconds);
+        ActorMetrics actorMetrics = metrics.get(actorName);
+        return actorMetrics == null ? 0 : (double) actorMetrics.getTraffic(windowSeconds) / windowSeconds;
+    }
+
+    /**
+     * Returns the window of the traffic.
+     *
+     * @return the length of the window, in seconds.
+     */
+    public int getTrafficWindow() {
+        return trafficWindow;
+    }
+
+    /**
+     * Sets the window of the traffic returned by {@link #getTraffic()}.
+     *
+     * @param windowSeconds the length of the window, in seconds.
+     * @throws IllegalArgumentException if the window is not between 1 and {@value RateCounter#MAX_WINDOW} seconds.
+     */
+    public void setTrafficWindow(int windowSeconds) {
+        RateCounter.checkWindow(windowSeconds);
+        this.trafficWindow = windowSeconds;
+    }
+
+    /**
+     * Sets the thresholds of the traffic density, as numbers of messages in the traffic window.
+     *
+     * @param medium the number of messages from which the traffic is {@link TrafficDensity#MEDIUM}.
+     * @param high   the number of messages from which the traffic is {@link TrafficDensity#HIGH}.
+     * @throws IllegalArgumentException if the thresholds are negative or not in order.
+     */
+    public void setTrafficThresholds(long medium, long high) {
+        if (medium < 0 || high < medium)
+            throw new IllegalArgumentException("The thresholds must be positive and in order.");
+        this.mediumTrafficThreshold = medium;
+        this.highTrafficThreshold = high;
+    }
+
     /**
      * Get the number of messages sent or received by the specified actor.
      *
@@ -160,7 +561,8 @@ public Map<TrafficDensity, List<String>> getTraffic() {
      * @apiNote This method returns 0 if the actor is not monitored.
      */
     public int getNumberOfMessages(String actorName) {
-        return messageCount.getOrDefault(actorName, 0);
+        ActorMetrics.Snapshot snapshot = monitoredActors.contains(actorName) ? getMetrics(actorName) : null;
+        return snapshot == null ? 0 : (int) (snapshot.sent() + snapshot.received());
     }
 
     /**
@@ -171,13 +573,15 @@ public int getNumberOfMessages(String actorName) {
      * @apiNote This method returns an empty list if the actor is not monitored.
      */
     public List<Message<?>> getMessages(String... actorNames) {
-        List<Message<?>> messages = new LinkedList<>();
-        getEvents(actorNames).forEach(
-                event -> {
+        List<Message<?>> messages = new ArrayList<>();
+        for (String actorName : actorNames) {
+            EventStore store = actorEvents.get(actorName);
+            if (store != null)
+                store.forEach(event -> {
                     if (event instanceof MessageEvent<?> messageEvent)
                         messages.add(messageEvent.getMessage());
-                }
-        );
+                });
+        }
         return messages;
     }
 
@@ -189,21 +593,22 @@ public List<Message<?>> getMessages(String... actorNames) {
      * @apiNote This method returns an empty list if the actor is not monitored.
      */
     public List<ActorEvent> getEvents(String... actorNames) {
-        List<ActorEvent> filteredEvents = new LinkedList<>();
-        Arrays.stream(actorNames).forEach(actorName -> {
-            if (actorEvents.containsKey(actorName))
-                filteredEvents.addAll(actorEvents.get(actorName));
-        });
+        List<ActorEvent> filteredEvents = new ArrayList<>();
+        for (String actorName : actorNames) {
+            EventStore store = actorEvents.get(actorName);
+            if (store != null)
+                store.addTo(filteredEvents);
+        }
         return filteredEvents;
     }
 
     /**
-     * Get the list of all events of the monitored actors.
+     * Get the list of the most recent events of the monitored actors.
      *
      * @return the list of events.
      */
     public List<ActorEvent> getAllEvents() {
-        return events.stream().toList();
+        return events.toList();
     }
 
     /**
@@ -232,11 +637,10 @@ public Map<String, List<Message<?>>> getReceivedMessages() {
      */
     private Map<String, List<Message<?>>> filterMessages(ActorEvent.EventType eventType) {
         Map<String, List<Message<?>>> result = new HashMap<>();
-        events.stream()
-                .filter(event -> event.getEventType() == eventType)
-                .map(event -> (MessageEvent<?>) event)
-                .forEach(event -> result.computeIfAbsent(event.getSource(), k -> new LinkedList<>())
-                        .add(event.getMessage()));
+        events.forEach(event -> {
+            if (event.getEventType() == eventType && event instanceof MessageEvent<?> messageEvent)
+                result.computeIfAbsent(event.getSource(), k -> new ArrayList<>()).add(messageEvent.getMessage());
+        });
         return result;
     }
 
@@ -246,7 +650,187 @@ private Map<String, List<Message<?>>> filterMessages(ActorEvent.EventType eventT
      * @return the {@link Map} with the event type as key and the list of events as value.
      */
     public Map<ActorEvent.EventType, List<ActorEvent>> getEvents() {
-        return eventTypesMap;
+        Map<ActorEvent.EventType, List<ActorEvent>> result = new EnumMap<>(ActorEvent.EventType.class);
+        events.forEach(event -> result.computeIfAbsent(event.getEventType(), k -> new ArrayList<>()).add(event));
+        return result;
+    }
+
+    /**
+     * The listeners, indexed by source and event type.
+     */
+    private static final class ListenerIndex {
+
+        /**
+         * The listeners of the events of any actor.
+         */
+        private final Listeners anySource = new Listeners();
+
+        /**
+         * The listeners of the events of a specific actor, by actor name. Must be thread-safe.
+         */
+        private final Map<String, Listeners> bySource = new ConcurrentHashMap<>();
+
+        /**
+         * Adds a listener.
+         *
+         * @param source    the name of the Actor, or null for any Actor.
+         * @param eventType the type of the events, or null for any type.
+         * @param listener  the listener to add.
+         */
+        void add(String source, ActorEvent.EventType eventType, ActorListener listener) {
+            Listeners target = source == null ? anySource : bySource.computeIfAbsent(source, k -> new Listeners());
+            target.add(eventType, listener);
+        }
+
+        /**
+         * Removes a listener, wherever it was added.
+         *
+         * @param listener the listener to remove.
+         */
+        void remove(ActorListener listener) {
+            anySource.remove(listener);
+            bySource.values().forEach(l -> l.remove(listener));
+        }
+
+        /**
+         * Returns whether a listener is interested in the events of the given source and type.
+         *
+         * @param source    the name of the Actor.
+         * @param eventType the type of the event.
+         * @return true if there is at least one listener for the source and type, false otherwise.
+         */
+        boolean isListening(String source, ActorEvent.EventType eventType) {
+            if (anySource.isListening(eventType))
+                return true;
+            if (source == null)
+                return false;
+
+            Listeners listeners = bySource.get(source);
+            return listeners != null && listeners.isListening(eventType);
+        }
+
+        /**
+         * Notifies the listeners of the given event.
+         *
+         * @param event the event.
+         */
+        void dispatch(ActorEvent event) {
+            anySource.dispatch(event);
+
+            if (event.getSource() != null) {
+                Listeners listeners = bySource.get(event.getSource());
+                if (listeners != null)
+                    listeners.dispatch(event);
+            }
+        }
+    }
+
+    /**
+     * The listeners attached to a source, indexed by event type.
+     * <p>
+     * Listeners are added and removed rarely compared to how often events are emitted,
+     * so copy-on-write lists are used to notify them without locking.
+     */
+    private static final class Listeners {
+
+        /**
+         * The listeners of any event type.
+         */
+        private final List<ActorListener> anyType = new CopyOnWriteArrayList<>();
+
+        /**
+         * The listeners of a specific event type. The map itself is never modified after construction.
+         */
+        private final Map<ActorEvent.EventType, List<ActorListener>> byType = new EnumMap<>(ActorEvent.EventType.class);
+
+        /**
+         * Creates the lists of listeners for every event type.
+         */
+        Listeners() {
+            for (ActorEvent.EventType eventType : ActorEvent.EventType.values())
+                byType.put(eventType, new CopyOnWriteArrayList<>());
+        }
+
+        /**
+         * Adds a listener.
+         *
+         * @param eventType the type of the events, or null for any type.
+         * @param listener  the listener to add.
+         */
+        void add(ActorEvent.EventType eventType, ActorListener listener) {
+            (eventType == null ? anyType : byType.get(eventType)).add(listener);
+        }
+
+        /**
+         * Removes a listener, whatever the event type it was added for.
+         *
+         * @param listener the listener to remove.
+         */
+        void remove(ActorListener listener) {
+            anyType.remove(listener);
+            byType.values().forEach(l -> l.remove(listener));
+        }
+
+        /**
+         * Returns whether a listener is interested in the given event type.
+         *
+         * @param eventType the type of the event.
+         * @return true if there is at least one listener for the type, false otherwise.
+         */
+        boolean isListening(ActorEvent.EventType eventType) {
+            return !anyType.isEmpty() || !byType.get(eventType).isEmpty();
+        }
+
+        /**
+         * Notifies the listeners of the given event.
+         *
+         * @param event the event.
+         */
+        void dispatch(ActorEvent event) {
+            for (ActorListener listener : anyType)
+                listener.onEvent(event);
+            if (event.getEventType() != null)
+                for (ActorListener listener : byType.get(event.getEventType()))
+                    listener.onEvent(event);
+        }
+    }
+
+    /**
+     * This enum represents which events are emitted by the actors.
+     */
+    public enum Level {
+        /**
+         * No events are emitted.
+         */
+        OFF,
+        /**
+         * Only the lifecycle events are emitted: {@link ActorEvent.EventType#CREATED},
+         * {@link ActorEvent.EventType#STOPPED} and {@link ActorEvent.EventType#ABORTED}.
+         */
+        LIFECYCLE,
+        /**
+         * The lifecycle events and {@link ActorEvent.EventType#MESSAGE_PROCESSED}, which is enough
+         * to count messages without carrying them.
+         */
+        COUNTERS,
+        /**
+         * All the events, including the sent and received messages.
+         */
+        FULL;
+
+        /**
+         * Returns whether the given event type is emitted at this level.
+         *
+         * @param eventType the type of the event.
+         * @return true if the event type is emitted, false otherwise.
+         */
+        public boolean includes(ActorEvent.EventType eventType) {
+            return switch (eventType) {
+                case CREATED, STOPPED, ABORTED -> compareTo(LIFECYCLE) >= 0;
+                case MESSAGE_PROCESSED -> compareTo(COUNTERS) >= 0;
+                case MESSAGE_SENT, MESSAGE_RECEIVED -> this == FULL;
+            };
+        }
     }
 
     /**
@@ -254,28 +838,50 @@ public Map<ActorEvent.EventType, List<ActorEvent>> getEvents() {
      */
     public enum TrafficDensity {
         /**
-         * Low traffic density. (0 - 5 messages)
+         * Low traffic density. (0 - 4 messages by default)
          */
         LOW,
         /**
-         * Medium traffic density. (6 - 15 messages)
+         * Medium traffic density. (5 - 14 messages by default)
          */
         MEDIUM,
         /**
-         * High traffic density. (16+ messages)
+         * High traffic density. (15+ messages by default)
          */
         HIGH;
 
         /**
-         * Get the traffic density for the specified number of messages.
+         * The default number of messages from which the traffic is {@link #MEDIUM}.
+         */
+        public static final long DEFAULT_MEDIUM_THRESHOLD = 5;
+
+        /**
+         * The default number of messages from which the traffic is {@link #HIGH}.
+         */
+        public static final long DEFAULT_HIGH_THRESHOLD = 15;
+
+        /**
+         * Get the traffic density for the specified number of messages, with the default thresholds.
          *
          * @param messageCount the number of messages.
          * @return the traffic density.
          */
         public static TrafficDensity getDensity(int messageCount) {
-            if (messageCount < 5)
+            return getDensity(messageCount, DEFAULT_MEDIUM_THRESHOLD, DEFAULT_HIGH_THRESHOLD);
+        }
+
+        /**
+         * Get the traffic density for the specified number of messages.
+         *
+         * @param messageCount the number of messages.
+         * @param medium       the number of messages from which the traffic is {@link #MEDIUM}.
+         * @param high         the number of messages from which the traffic is {@link #HIGH}.
+         * @return the traffic density.
+         */
+        public static TrafficDensity getDensity(long messageCount, long medium, long high) {
+            if (messageCount < medium)
                 return LOW;
-            else if (messageCount < 15)
+            else if (messageCount < high)
                 return MEDIUM;
             else
                 return HIGH;
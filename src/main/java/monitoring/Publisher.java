@@ -17,7 +17,16 @@ public interface Publisher {
     void attach(ActorListener listener);
 
     /**
-     * Removes a listener from the publisher.
+     * Adds a listener to the publisher that is only notified of the events of the given source and type.
+     *
+     * @param source    the name of the Actor, or null for any Actor.
+     * @param eventType the type of the events, or null for any type.
+     * @param listener  the listener to add.
+     */
+    void attach(String source, ActorEvent.EventType eventType, ActorListener listener);
+
+    /**
+     * Removes a listener from the publisher, wherever it was attached.
      *
      * @param listener the listener to remove.
      */
@@ -0,0 +1,151 @@
+package monitoring;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts events per second over the last {@value #MAX_WINDOW} seconds, to compute rates over sliding windows.
+ * <p>
+ * Each second has a bucket in a small ring, holding the second it counts and a {@link LongAdder} of its events,
+ * so that a bucket left from a previous lap is reset by the first event of its new second, without a background
+ * thread. Recording an event is then a single striped add, which does not contend when several threads send
+ * to the same actor; reading a window only reads its buckets.
+ *
+ * @see ActorMetrics#getTraffic(int)
+ */
+public class RateCounter {
+
+    /**
+     * The longest window, in seconds.
+     */
+    public static final int MAX_WINDOW = 60;
+
+    /**
+     * The number of buckets, more than the longest window plus the current second. A power of two.
+     */
+    private static final int BUCKETS = 64;
+
+    /**
+     * The second of a bucket while the first event of its new second resets it.
+     */
+    private static final long RESETTING = Long.MIN_VALUE;
+
+    /**
+     * The second of a bucket that has never counted any event. It is older than any second of the monotonic
+     * clock, which can be negative, so that the first event of a bucket always resets it.
+     */
+    private static final long UNUSED = Long.MIN_VALUE + 1;
+
+    /**
+     * The second counted by each bucket.
+     */
+    private final AtomicLongArray seconds = new AtomicLongArray(BUCKETS);
+
+    /**
+     * The number of events of each bucket.
+     */
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+
+    /**
+     * Creates a new RateCounter.
+     */
+    public RateCounter() {
+        for (int i = 0; i < BUCKETS; i++) {
+            seconds.set(i, UNUSED);
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records an event at the current time.
+     */
+    public void record() {
+        record(currentSecond());
+    }
+
+    /**
+     * Records an event at the given second. An event older than the second of its bucket is ignored,
+     * since it is out of every window.
+     *
+     * @param second the second of the event.
+     */
+    void record(long second) {
+        int index = (int) (second & (BUCKETS - 1));
+        long current;
+        while ((current = seconds.get(index)) != second) {
+            if (current != RESETTING && current > second)
+                return;
+            // the first event of the second resets the bucket, the others wait for it
+            if (current != RESETTING && seconds.compareAndSet(index, current, RESETTING)) {
+                counts[index].reset();
+                seconds.set(index, second);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        counts[index].increment();
+    }
+
+    /**
+     * Returns the number of events in the given window, ending at the last complete second.
+     *
+     * @param windowSeconds the length of the window, in seconds.
+     * @return the number of events.
+     * @throws IllegalArgumentException if the window is not between 1 and {@value #MAX_WINDOW} seconds.
+     */
+    public long count(int windowSeconds) {
+        return count(windowSeconds, currentSecond());
+    }
+
+    /**
+     * Returns the number of events in the given window, ending at the second before the given one.
+     *
+     * @param windowSeconds the length of the window, in seconds.
+     * @param now           the current second, excluded from the window.
+     * @return the number of events.
+     * @throws IllegalArgumentException if the window is not between 1 and {@value #MAX_WINDOW} seconds.
+     */
+    long count(int windowSeconds, long now) {
+        checkWindow(windowSeconds);
+
+        long count = 0;
+        for (long second = now - windowSeconds; second < now; second++) {
+            int index = (int) (second & (BUCKETS - 1));
+            if (seconds.get(index) == second)
+                count += counts[index].sum();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the average number of events per second in the given window, ending at the last complete second.
+     *
+     * @param windowSeconds the length of the window, in seconds.
+     * @return the rate, in events per second.
+     * @throws IllegalArgumentException if the window is not between 1 and {@value #MAX_WINDOW} seconds.
+     */
+    public double rate(int windowSeconds) {
+        return (double) count(windowSeconds) / windowSeconds;
+    }
+
+    /**
+     * Checks that a window is supported.
+     *
+     * @param windowSeconds the length of the window, in seconds.
+     * @throws IllegalArgumentException if the window is not between 1 and {@value #MAX_WINDOW} seconds.
+     */
+    static void checkWindow(int windowSeconds) {
+        if (windowSeconds < 1 || windowSeconds > MAX_WINDOW)
+            throw new IllegalArgumentException("The window must be between 1 and " + MAX_WINDOW + " seconds.");
+    }
+
+    /**
+     * Returns the current second, from the monotonic clock.
+     *
+     * @return the current second, which can be negative.
+     */
+    private static long currentSecond() {
+        return Math.floorDiv(System.nanoTime(), TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,162 @@
+package monitoring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+
+/**
+ * This class represents an asynchronous subscription to the events of the {@link MonitorService}.
+ * <p>
+ * The listener of a subscription is called on a consumer thread of the event bus, never on the
+ * thread of the actor emitting the event. Each subscription reads the events at its own pace;
+ * if it falls too far behind, the oldest events are dropped for this subscription only.
+ *
+ * @see MonitorService#subscribe(Set, Set, ActorListener)
+ * @see MonitorService#unsubscribe(Subscription)
+ */
+public class Subscription {
+
+    /**
+     * The logger for the Subscription.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(Subscription.class);
+
+    /**
+     * The bus delivering the events.
+     */
+    private final EventBus bus;
+
+    /**
+     * The names of the actors of interest, or an empty set for any actor.
+     */
+    private final Set<String> sources;
+
+    /**
+     * The types of the events of interest, or an empty set for any type.
+     */
+    private final Set<ActorEvent.EventType> eventTypes;
+
+    /**
+     * The listener to call for each event.
+     */
+    private final ActorListener listener;
+
+    /**
+     * The sequence of the next event to read. Only written by the consumer thread, once subscribed.
+     */
+    volatile long cursor;
+
+    /**
+     * The number of events of the ring skipped because the subscription fell behind, whether they matched
+     * the subscription or not. Only written by the consumer thread.
+     */
+    volatile long dropped;
+
+    /**
+     * The number of events delivered to the listener. Only written by the consumer thread.
+     */
+    private volatile long delivered;
+
+    /**
+     * Creates a new Subscription.
+     *
+     * @param bus        the bus delivering the events.
+     * @param sources    the names of the actors of interest, or an empty set for any actor.
+     * @param eventTypes the types of the events of interest, or an empty set for any type.
+     * @param listener   the listener to call for each event.
+     */
+    Subscription(EventBus bus, Set<String> sources, Set<ActorEvent.EventType> eventTypes, ActorListener listener) {
+        this.bus = bus;
+        this.sources = Set.copyOf(sources);
+        this.eventTypes = Set.copyOf(eventTypes);
+        this.listener = listener;
+    }
+
+    /**
+     * Calls the listener if the event is of interest. A failing listener does not stop the consumer thread.
+     *
+     * @param event the event.
+     */
+    void deliver(ActorEvent event) {
+        if (!matches(event))
+            return;
+
+        try {
+            listener.onEvent(event);
+            delivered++;
+        } catch (RuntimeException e) {
+            logger.error("Uncaught exception in subscription listener", e);
+        }
+    }
+
+    /**
+     * Returns whether the subscription is interested in the given event.
+     *
+     * @param event the event.
+     * @return true if the source and type of the event are of interest, false otherwise.
+     */
+    boolean matches(ActorEvent event) {
+        return (sources.isEmpty() || sources.contains(event.getSource())) &&
+                (eventTypes.isEmpty() || eventTypes.contains(event.getEventType()));
+    }
+
+    /**
+     * Getter for the names of the actors of interest.
+     *
+     * @return the names of the actors, or an empty set for any actor.
+     */
+    public Set<String> getSources() {
+        return sources;
+    }
+
+    /**
+     * Getter for the types of the events of interest.
+     *
+     * @return the types of the events, or an empty set for any type.
+     */
+    public Set<ActorEvent.EventType> getEventTypes() {
+        return eventTypes;
+    }
+
+    /**
+     * Getter for the listener of the subscription.
+     *
+     * @return the listener.
+     */
+    public ActorListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Returns the number of events published but not yet read by the subscription.
+     *
+     * @return the lag of the subscription.
+     */
+    public long getLag() {
+        return bus.lag(this);
+    }
+
+    /**
+     * Returns the number of events skipped because the subscription fell more than a whole ring behind.
+     * <p>
+     * The ring is shared by all the subscriptions and an overwritten event cannot be read anymore, so the count
+     * includes all the skipped events of the ring, like {@link #getLag()}, including the ones that the subscription
+     * would have filtered out. It tells how far the subscription fell behind rather than how many of its events
+     * were lost.
+     *
+     * @return the number of dropped events, whatever their source and type.
+     */
+    public long getDroppedCount() {
+        return dropped;
+    }
+
+    /**
+     * Returns the number of events delivered to the listener.
+     *
+     * @return the number of delivered events.
+     */
+    public long getDeliveredCount() {
+        return delivered;
+    }
+}
@@ -5,10 +5,12 @@
 import actors.ActorProxy;
 import actors.ActorRef;
 import com.googlecode.jsonrpc4j.JsonRpcMethod;
+import messages.DeadLetterMessage;
 import messages.Message;
 import monitoring.ActorEvent;
 import monitoring.ActorListener;
 import monitoring.MonitorService;
+import monitoring.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,7 +33,7 @@ public class RpcApiController {
     /**
      * The map with the subscriptions to the events of the actors.
      */
-    private static final Map<Integer, ActorListener> subscriptions = new HashMap<>();
+    private static final Map<Integer, Subscription> subscriptions = new HashMap<>();
 
     /**
      * The instance of the WebSocket server that sends the events to the clients.
@@ -89,6 +91,23 @@ public static Map<String, Object> error(Object message) {
         );
     }
 
+    /**
+     * Returns an error response for a missing actor, sending the message meant for it to the dead letters.
+     *
+     * @param method    the name of the method, for the log.
+     * @param actorName the name of the actor.
+     * @param msg       the message meant for the actor, or null.
+     * @return an error response.
+     */
+    private static Map<String, Object> notFound(String method, String actorName, Message<?> msg) {
+        logger.error("{}: Actor not found: {}", method, actorName);
+        if (msg != null)
+            ActorContext.deadLetters().send(
+                    new DeadLetterMessage(actorName, DeadLetterMessage.Reason.UNDELIVERABLE, msg)
+            );
+        return error("Actor not found: " + actorName);
+    }
+
     /**
      * Echo the specified message. For testing purposes only.
      *
@@ -163,12 +182,11 @@ public Map<String, Object> getNames() {
     @JsonRpcMethod("api.send")
     public Map<String, Object> send(String actorName, String messageBody) {
         logger.info("send(): actorName = {}, messageBody = {}", actorName, messageBody);
+        Message<String> msg = new Message<>(messageBody);
         ActorRef actorRef = ActorContext.lookupProxy(actorName);
-        if (actorRef == null) {
-            logger.error("send(): Actor not found: {}", actorName);
-            return error("Actor not found: " + actorName);
-        }
-        actorRef.send(new Message<>(messageBody));
+        if (actorRef == null)
+            return notFound("send()", actorName, msg);
+        actorRef.send(msg);
         logger.info("send(): Message sent");
         return ok();
     }
@@ -228,8 +246,11 @@ public Map<String, Object> send(String actorName, String messageClass, Object[]
                 })
                 .toArray(Class<?>[]::new);
         Constructor<?> constructor = clazz.getConstructor(types);
-        Object msg = constructor.newInstance(messageArgs);
-        ActorContext.lookupProxy(actorName).send((Message<?>) msg);
+        Message<?> msg = (Message<?>) constructor.newInstance(messageArgs);
+        ActorRef actorRef = ActorContext.lookupProxy(actorName);
+        if (actorRef == null)
+            return notFound("send()", actorName, msg);
+        actorRef.send(msg);
         logger.info("send(): Message sent");
         return ok();
     }
@@ -243,7 +264,10 @@ public Map<String, Object> send(String actorName, String messageClass, Object[]
     @JsonRpcMethod("api.receive")
     public Map<String, Object> receive(String name) {
         logger.info("receive: name = {}", name);
-        return ok(ActorContext.lookupProxy(name).receive().getBody());
+        ActorProxy proxy = ActorContext.lookupProxy(name);
+        if (proxy == null)
+            return notFound("receive()", name, null);
+        return ok(proxy.receive().getBody());
     }
 
     /**
@@ -258,16 +282,19 @@ public Map<String, Object> receive(String name) {
     @JsonRpcMethod("api.receive")
     public Map<String, Object> receive(String name, long timeout) throws TimeoutException {
         logger.info("receive: name = {}, timeout = {}", name, timeout);
-        return ok(ActorContext.lookupProxy(name).receive(timeout).getBody());
+        ActorProxy proxy = ActorContext.lookupProxy(name);
+        if (proxy == null)
+            return notFound("receive()", name, null);
+        return ok(proxy.receive(timeout).getBody());
     }
 
     /**
      * Subscribe to the specified events and actors.
      *
-     * @param eventTypes the list of the event types.
+     * @param eventTypes the list of the event types, which cannot be empty.
      * @param actorNames the list of the actor names, if the list is empty, subscribe to all actors.
      * @return a success response if the subscription was successful with the subscription id and the
-     * websocket url, an error response otherwise.
+     * websocket url, an error response otherwise, for example if there is no event type.
      */
     @JsonRpcMethod("api.subscribe")
     public Map<String, Object> subscribe(List<String> eventTypes, List<String> actorNames) {
@@ -277,6 +304,10 @@ public Map<String, Object> subscribe(List<String> eventTypes, List<String> actor
                 actorNames.stream().reduce((a, b) -> a + ", " + b).orElse("")
         );
 
+        // an empty list of event types used to forward no event, while the event bus reads it as all the types
+        if (eventTypes.isEmpty())
+            return error("At least one event type is required");
+
         List<ActorEvent.EventType> eventTypesEnum = eventTypes.stream()
                 .map(ActorEvent.EventType::valueOf)
                 .toList();
@@ -292,9 +323,13 @@ public Map<String, Object> subscribe(List<String> eventTypes, List<String> actor
 
         EventWebSocketServer.subscribe(subscriptionId);
 
-        ActorListener listener = new ActorListenerImpl(subscriptionId, eventTypesEnum, actorNames);
-        subscriptions.put(subscriptionId, listener);
-        MonitorService.getInstance().attach(listener);
+        // the events are sent from the event bus threads, so a slow client does not delay the actors
+        Subscription subscription = MonitorService.getInstance().subscribe(
+                Set.copyOf(actorNames),
+                Set.copyOf(eventTypesEnum),
+                new ActorListenerImpl(subscriptionId)
+        );
+        subscriptions.put(subscriptionId, subscription);
 
         Map<String, Object> result = Map.of(
                 "subscriptionId", subscriptionId,
@@ -315,28 +350,24 @@ public Map<String, Object> subscribe(List<String> eventTypes, List<String> actor
     @JsonRpcMethod("api.unsubscribe")
     public Map<String, Object> unsubscribe(int subscriptionId) {
         logger.info("unsubscribe: subscriptionId = {}", subscriptionId);
-        MonitorService.getInstance().detach(subscriptions.get(subscriptionId));
+        Subscription subscription = subscriptions.remove(subscriptionId);
+        if (subscription == null)
+            return error("Subscription not found: " + subscriptionId);
+        MonitorService.getInstance().unsubscribe(subscription);
         EventWebSocketServer.unsubscribe(subscriptionId);
         return ok();
     }
 
     /**
-     * Actor listener implementation to store the subscription id, the event types and the actor names.
+     * Actor listener implementation to send the events of a subscription to its websocket.
+     * The events are already filtered by the {@link Subscription}.
      *
      * @param subscriptionId the subscription id.
-     * @param eventTypes     the list of the event types.
-     * @param actorNames     the list of the actor names.
      */
-    private record ActorListenerImpl(
-            int subscriptionId,
-            List<ActorEvent.EventType> eventTypes,
-            List<String> actorNames
-    ) implements ActorListener {
+    private record ActorListenerImpl(int subscriptionId) implements ActorListener {
         @Override
         public void onEvent(ActorEvent event) {
-            if (eventTypes.contains(event.getEventType()) &&
-                    (actorNames.isEmpty() || actorNames.contains(event.getSource())))
-                EventWebSocketServer.sendEvent(subscriptionId, event);
+            EventWebSocketServer.sendEvent(subscriptionId, event);
         }
     }
 }
@@ -0,0 +1,419 @@
+package util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A timer running many short tasks after a delay, on a single thread.
+ * <p>
+ * The pending timeouts are kept in a wheel of buckets, each bucket holding a doubly linked list of the
+ * timeouts expiring on its ticks. Adding or cancelling a timeout is O(1): the caller only appends it to a
+ * queue, and the timer thread links it into, or unlinks it from, its bucket on the next tick. On each tick,
+ * the timer thread only walks the bucket of the tick, so millions of pending timeouts cost nothing until
+ * they are due.
+ * <p>
+ * The timeouts expire with the precision of a tick, never before their delay. The tasks run on the timer
+ * thread, so they must be short, typically handing the actual work to another thread.
+ */
+public class HashedWheelTimer {
+
+    /**
+     * The default duration of a tick, in milliseconds.
+     */
+    public static final long DEFAULT_TICK_MILLIS = 10;
+
+    /**
+     * The default number of buckets of the wheel.
+     */
+    public static final int DEFAULT_TICKS_PER_WHEEL = 512;
+
+    /**
+     * The logger for the HashedWheelTimer.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    /**
+     * The number of timers created, to name their threads.
+     */
+    private static final AtomicInteger instances = new AtomicInteger();
+
+    /**
+     * The duration of a tick, in nanoseconds.
+     */
+    private final long tickNanos;
+
+    /**
+     * The buckets of the wheel. Only used by the timer thread.
+     */
+    private final Bucket[] wheel;
+
+    /**
+     * The mask to get the bucket of a tick.
+     */
+    private final int mask;
+
+    /**
+     * The time the timer started, from which the deadlines are measured, in nanoseconds.
+     */
+    private final long startTime;
+
+    /**
+     * The timeouts added since the last tick.
+     */
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The timeouts cancelled since the last tick.
+     */
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The number of timeouts neither expired nor cancelled.
+     */
+    private final AtomicLong pending = new AtomicLong();
+
+    /**
+     * The timer thread.
+     */
+    private final Thread worker;
+
+    /**
+     * Indicates whether the timer was stopped.
+     */
+    private volatile boolean stopped = false;
+
+    /**
+     * Creates a new HashedWheelTimer with the default tick duration and wheel size, and starts its thread.
+     */
+    public HashedWheelTimer() {
+        this(DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_TICKS_PER_WHEEL);
+    }
+
+    /**
+     * Creates a new HashedWheelTimer and starts its thread.
+     *
+     * @param tickDuration  the duration of a tick, which is the precision of the timer.
+     * @param unit          the unit of the tick duration.
+     * @param ticksPerWheel the minimum number of buckets of the wheel, rounded up to a power of two.
+     * @throws IllegalArgumentException if the tick duration or the number of buckets is not positive.
+     */
+    public HashedWheelTimer(long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        if (unit == null)
+            throw new IllegalArgumentException("Unit cannot be null!");
+        if (tickDuration <= 0)
+            throw new IllegalArgumentException("Tick duration must be positive!");
+        if (ticksPerWheel < 1 || ticksPerWheel > 1 << 30)
+            throw new IllegalArgumentException("Ticks per wheel must be positive and at most 2^30!");
+
+        int size = Integer.highestOneBit(ticksPerWheel);
+        size = size < ticksPerWheel ? size << 1 : size;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++)
+            wheel[i] = new Bucket();
+        this.mask = size - 1;
+        this.tickNanos = Math.max(1, unit.toNanos(tickDuration));
+        this.startTime = System.nanoTime();
+
+        this.worker = Thread.ofPlatform()
+                .daemon()
+                .name("hashed-wheel-timer-" + instances.getAndIncrement())
+                .start(this::run);
+    }
+
+    /**
+     * Schedules a task to run once after the given delay.
+     *
+     * @param task  the task to run on the timer thread.
+     * @param delay the delay, rounded up to the next tick. A delay that is not positive expires on the next tick.
+     * @param unit  the unit of the delay.
+     * @return the timeout, which can be cancelled.
+     * @throws IllegalArgumentException if the task or the unit is null.
+     * @throws IllegalStateException    if the timer was stopped.
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        if (task == null)
+            throw new IllegalArgumentException("Task cannot be null!");
+        if (unit == null)
+            throw new IllegalArgumentException("Unit cannot be null!");
+        if (stopped)
+            throw new IllegalStateException("Timer has been stopped!");
+
+        long deadline = System.nanoTime() - startTime + Math.max(0, unit.toNanos(delay));
+        // guard against overflow
+        if (deadline < 0)
+            deadline = Long.MAX_VALUE;
+
+        Timeout timeout = new Timeout(task, deadline);
+        pending.incrementAndGet();
+        added.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Returns the number of timeouts neither expired nor cancelled.
+     *
+     * @return the number of pending timeouts.
+     */
+    public long pendingTimeouts() {
+        return pending.get();
+    }
+
+    /**
+     * Stops the timer thread. The pending timeouts never expire.
+     */
+    public void stop() {
+        stopped = true;
+        LockSupport.unpark(worker);
+    }
+
+    /**
+     * The loop of the timer thread: waits for each tick and expires the timeouts of its bucket.
+     */
+    private void run() {
+        long tick = 0;
+        while (!stopped) {
+            long now = waitForTick(tick);
+            if (stopped)
+                break;
+
+            removeCancelled();
+            transferAdded(tick);
+            wheel[(int) (tick & mask)].expire(now);
+            tick++;
+        }
+    }
+
+    /**
+     * Waits until the end of the given tick.
+     *
+     * @param tick the tick.
+     * @return the time elapsed since the start of the timer, in nanoseconds.
+     */
+    private long waitForTick(long tick) {
+        long deadline = tickNanos * (tick + 1);
+        while (true) {
+            long now = System.nanoTime() - startTime;
+            if (now >= deadline || stopped)
+                return now;
+            LockSupport.parkNanos(this, deadline - now);
+        }
+    }
+
+    /**
+     * Unlinks the cancelled timeouts from their buckets.
+     */
+    private void removeCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null)
+            if (timeout.bucket != null)
+                timeout.bucket.remove(timeout);
+    }
+
+    /**
+     * Links the added timeouts into the buckets of their deadlines.
+     *
+     * @param tick the current tick.
+     */
+    private void transferAdded(long tick) {
+        Timeout timeout;
+        while ((timeout = added.poll()) != null) {
+            if (timeout.state.get() != Timeout.PENDING)
+                continue;
+
+            long expiryTick = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (expiryTick - tick) / wheel.length;
+            // a timeout already due expires on the current tick
+            wheel[(int) (Math.max(expiryTick, tick) & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * A task scheduled on the timer, which can be cancelled until it expires.
+     */
+    public final class Timeout {
+
+        /**
+         * The state of a timeout neither expired nor cancelled.
+         */
+        private static final int PENDING = 0;
+
+        /**
+         * The state of a cancelled timeout.
+         */
+        private static final int CANCELLED = 1;
+
+        /**
+         * The state of an expired timeout.
+         */
+        private static final int EXPIRED = 2;
+
+        /**
+         * The task to run.
+         */
+        private final Runnable task;
+
+        /**
+         * The time the timeout expires, since the start of the timer, in nanoseconds.
+         */
+        private final long deadline;
+
+        /**
+         * The state of the timeout.
+         */
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        /**
+         * The number of turns of the wheel before the timeout expires. Only used by the timer thread.
+         */
+        private long remainingRounds;
+
+        /**
+         * The bucket holding the timeout, or null if not linked. Only used by the timer thread.
+         */
+        private Bucket bucket;
+
+        /**
+         * The previous timeout in the bucket. Only used by the timer thread.
+         */
+        private Timeout prev;
+
+        /**
+         * The next timeout in the bucket. Only used by the timer thread.
+         */
+        private Timeout next;
+
+        /**
+         * Creates a new Timeout.
+         *
+         * @param task     the task to run.
+         * @param deadline the time the timeout expires, since the start of the timer, in nanoseconds.
+         */
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the timeout, so that its task never runs.
+         *
+         * @return true if the timeout was cancelled, false if it had already expired or been cancelled.
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED))
+                return false;
+            pending.decrementAndGet();
+            cancelled.add(this);
+            return true;
+        }
+
+        /**
+         * Returns whether the timeout was cancelled.
+         *
+         * @return true if the timeout was cancelled, false otherwise.
+         */
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        /**
+         * Returns whether the timeout expired, that is, whether its task ran or is running.
+         *
+         * @return true if the timeout expired, false otherwise.
+         */
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        /**
+         * Runs the task, unless the timeout was cancelled. A failing task does not stop the timer thread.
+         */
+        private void expire() {
+            if (!state.compareAndSet(PENDING, EXPIRED))
+                return;
+            pending.decrementAndGet();
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.error("Uncaught exception in timer task", e);
+            }
+        }
+    }
+
+    /**
+     * A bucket of the wheel: a doubly linked list of timeouts. Only used by the timer thread.
+     */
+    private static final class Bucket {
+
+        /**
+         * The first timeout of the bucket.
+         */
+        private Timeout head;
+
+        /**
+         * The last timeout of the bucket.
+         */
+        private Timeout tail;
+
+        /**
+         * Appends a timeout to the bucket.
+         *
+         * @param timeout the timeout to append.
+         */
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        /**
+         * Unlinks a timeout from the bucket.
+         *
+         * @param timeout the timeout to unlink.
+         */
+        private void remove(Timeout timeout) {
+            if (timeout.prev != null)
+                timeout.prev.next = timeout.next;
+            else
+                head = timeout.next;
+            if (timeout.next != null)
+                timeout.next.prev = timeout.prev;
+            else
+                tail = timeout.prev;
+            timeout.prev = timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        /**
+         * Expires the timeouts of the bucket that are due in the current round.
+         *
+         * @param now the time elapsed since the start of the timer, in nanoseconds.
+         */
+        private void expire(long now) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0 && timeout.deadline <= now) {
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+    }
+}
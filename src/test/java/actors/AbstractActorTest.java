@@ -5,10 +5,15 @@
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeoutException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @DisplayName("AbstractActor tests")
@@ -119,14 +124,131 @@ public void testModifiers() {
     }
 
     @Test
-    @DisplayName("Actor should sleep for the given amount of time when receiving a SleepMessage")
+    @DisplayName("Actor should delay a SleepMessage by the given amount of time while processing other messages")
     public void testSleepMessage() {
         ActorProxy proxy = ActorContext.spawnActor(name, new EchoActor());
+        long start = System.currentTimeMillis();
         proxy.send(new SleepMessage(5000));
         proxy.send(new Message<>("Hello World!"));
+
+        assertEquals("Hello World!", proxy.receive().getBody());
+        assertEquals(0, System.currentTimeMillis() - start, 100);
+
+        assertEquals(5000, proxy.receive().getBody());
+        assertEquals(5000, System.currentTimeMillis() - start, 100);
+    }
+
+    @Test
+    @DisplayName("Actor should delay a SleepMessage when running on its own thread")
+    public void testSleepMessageOwnThread() {
+        ActorProxy proxy = ActorContext.spawnActor(name, new EchoActor(), Thread.ofVirtual().factory());
         long start = System.currentTimeMillis();
-        proxy.receive();
-        long end = System.currentTimeMillis();
-        assertEquals(5000, end - start, 100);
+        proxy.send(new SleepMessage(1000));
+        proxy.send(new Message<>("Hello World!"));
+
+        assertEquals("Hello World!", proxy.receive().getBody());
+        assertEquals(1000, proxy.receive().getBody());
+        assertEquals(1000, System.currentTimeMillis() - start, 100);
+    }
+
+    @Test
+    @DisplayName("Actor should process the queued messages in batches")
+    public void testProcessBatch() throws InterruptedException {
+        CountDownLatch gate = new CountDownLatch(1);
+        List<List<Object>> batches = new CopyOnWriteArrayList<>();
+        ActorProxy proxy = ActorContext.spawnActor(name, new AbstractActor(8) {
+            @Override
+            protected void processBatch(List<Message<?>> batch) {
+                batches.add(batch.stream().<Object>map(Message::getBody).toList());
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+                super.processBatch(batch);
+            }
+
+            @Override
+            protected void process(Message<?> msg) {
+                msg.getSender().send(msg.reply(msg.getBody()));
+            }
+        }, Thread.ofVirtual().factory());
+
+        // the first message is processed alone while the others queue up
+        // (on its own thread, so that the batches are not cut by the throughput of a Dispatcher)
+        proxy.send(new Message<>(0));
+        while (batches.isEmpty())
+            Thread.onSpinWait();
+        for (int i = 1; i <= 20; i++)
+            proxy.send(new Message<>(i));
+        gate.countDown();
+
+        for (int i = 0; i <= 20; i++)
+            assertEquals(i, proxy.receive().getBody());
+        assertEquals(List.of(List.of(0), List.of(1, 2, 3, 4, 5, 6, 7, 8), List.of(9, 10, 11, 12, 13, 14, 15, 16),
+                List.of(17, 18, 19, 20)), batches);
+    }
+
+    @Test
+    @DisplayName("QuitMessage should overtake the queued messages")
+    public void testQuitMessageFirst() throws InterruptedException {
+        CountDownLatch gate = new CountDownLatch(1);
+        List<Object> processed = new CopyOnWriteArrayList<>();
+        ActorContext.spawnActor(name, new AbstractActor() {
+            @Override
+            protected void process(Message<?> msg) {
+                processed.add(msg.getBody());
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+
+        ActorRef actor = ActorContext.lookupActorRef(name);
+        actor.send(new Message<>(0));
+        while (processed.isEmpty())
+            Thread.onSpinWait();
+        for (int i = 1; i <= 1000; i++)
+            actor.send(new Message<>(i));
+        actor.send(new QuitMessage("quit"));
+        gate.countDown();
+
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        assertEquals(List.of(0, "quit"), processed);
+        assertNull(ActorContext.lookupActor(name));
+    }
+
+    @Test
+    @DisplayName("Actor should drop the messages whose deadline has passed")
+    public void testExpiredMessage() throws TimeoutException {
+        ActorProxy proxy = ActorContext.spawnActor(name, new AbstractActor() {
+            @Override
+            protected void process(Message<?> msg) {
+                msg.getSender().send(msg.reply(msg.getBody()));
+            }
+        });
+
+        Message<String> expired = new Message<>("expired");
+        expired.setDeadline(System.currentTimeMillis() - 1);
+        Message<String> alive = new Message<>("alive");
+        alive.setTimeToLive(Duration.ofMinutes(1));
+
+        proxy.send(expired);
+        proxy.send(alive);
+        proxy.send(new Message<>("forever"));
+
+        assertEquals("alive", proxy.receive(1000).getBody());
+        assertEquals("forever", proxy.receive(1000).getBody());
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> alive.setTimeToLive(Duration.ofSeconds(-1))
+        );
     }
 }
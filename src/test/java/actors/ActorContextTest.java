@@ -6,7 +6,11 @@
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -128,4 +132,50 @@ public void testStop() {
         assertNull(ActorContext.lookupActorRef(name));
         assertNull(ActorContext.lookupProxy(name));
     }
+
+    @Test
+    @DisplayName("Concurrent spawns with the same name should register a single actor")
+    public void testConcurrentSpawn() throws InterruptedException {
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Actor> spawned = new CopyOnWriteArrayList<>();
+        List<Thread> spawners = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Actor candidate = new HelloWorldActor();
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                    ActorContext.spawnActor(name, candidate);
+                    spawned.add(candidate);
+                } catch (IllegalArgumentException | InterruptedException e) {
+                    // the name was taken by another thread
+                }
+            });
+            t.start();
+            spawners.add(t);
+        }
+        start.countDown();
+        for (Thread t : spawners)
+            t.join();
+
+        assertEquals(1, spawned.size());
+        assertSame(spawned.get(0), ActorContext.lookupActor(name));
+    }
+
+    @Test
+    @DisplayName("getNames should be a read-only view that can be iterated while actors are spawned")
+    public void testGetNamesView() {
+        assertThrows(
+                UnsupportedOperationException.class,
+                () -> ActorContext.getNames().add(name)
+        );
+        ActorContext.spawnActor(name, actor);
+        assertDoesNotThrow(() -> {
+            int spawned = 0;
+            for (String ignored : ActorContext.getNames())
+                if (spawned++ < 10)
+                    ActorContext.spawnActor(UUID.randomUUID().toString(), new HelloWorldActor());
+        });
+        assertTrue(ActorContext.getNames().size() > 1);
+    }
 }
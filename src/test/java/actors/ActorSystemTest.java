@@ -0,0 +1,215 @@
+package actors;
+
+import messages.Message;
+import messages.QuitMessage;
+import monitoring.MonitorService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ActorSystem tests")
+public class ActorSystemTest {
+
+    String name;
+    ActorSystem system;
+
+    @BeforeEach
+    public void setUp() {
+        name = UUID.randomUUID().toString();
+        system = new ActorSystem("test");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        system.shutdown();
+    }
+
+    @Test
+    @DisplayName("ActorContext should be a facade over the default system")
+    public void testDefault() {
+        assertSame(ActorSystem.getDefault(), ActorSystem.getDefault());
+        assertEquals(ActorSystem.DEFAULT_NAME, ActorSystem.getDefault().getName());
+        assertSame(MonitorService.getInstance(), ActorSystem.getDefault().getMonitor());
+
+        Actor actor = new EchoActor();
+        ActorContext.spawnActor(name, actor);
+        assertSame(actor, ActorSystem.getDefault().lookupActor(name));
+        assertThrows(
+                IllegalStateException.class,
+                () -> ActorSystem.getDefault().shutdown()
+        );
+    }
+
+    @Test
+    @DisplayName("Systems should have their own registry")
+    public void testIsolatedRegistries() throws TimeoutException {
+        ActorSystem other = new ActorSystem("other");
+        try {
+            ActorProxy proxy = system.spawnActor(name, new EchoActor());
+            ActorProxy otherProxy = other.spawnActor(name, new EchoActor());
+
+            assertNotSame(system.lookupActor(name), other.lookupActor(name));
+            assertNull(ActorContext.lookupActor(name));
+            assertTrue(system.getNames().contains(name));
+
+            proxy.send(new Message<>("system"));
+            otherProxy.send(new Message<>("other"));
+            assertEquals("system", proxy.receive(1000).getBody());
+            assertEquals("other", otherProxy.receive(1000).getBody());
+        } finally {
+            other.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Systems should have their own monitor")
+    public void testIsolatedMonitors() throws TimeoutException {
+        ActorProxy proxy = system.spawnActor(name, new EchoActor());
+        proxy.send(new Message<>("hello"));
+        proxy.receive(1000);
+
+        assertNotSame(MonitorService.getInstance(), system.getMonitor());
+        assertNotNull(system.getMonitor().getMetrics(name));
+        assertNull(MonitorService.getInstance().getMetrics(name));
+
+        system.getMonitor().monitorAllActors();
+        assertTrue(system.getMonitor().getNumberOfMessages(name) > 0);
+    }
+
+    @Test
+    @DisplayName("Systems should schedule messages on their own timer")
+    public void testSchedule() throws TimeoutException {
+        ActorProxy proxy = system.spawnActor(name, new EchoActor());
+        system.scheduleOnce(Duration.ofMillis(50), proxy, new Message<>("scheduled"));
+        assertEquals("scheduled", proxy.receive(1000).getBody());
+    }
+
+    @Test
+    @DisplayName("shutdown should stop the actors of the system only")
+    public void testShutdown() {
+        system.spawnActor(name, new EchoActor());
+        ActorContext.spawnActor(name, new EchoActor());
+        system.shutdown();
+
+        try {
+            Thread.sleep(500);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        assertTrue(system.isShutdown());
+        assertNull(system.lookupActor(name));
+        assertNotNull(ActorContext.lookupActor(name));
+        assertThrows(
+                IllegalStateException.class,
+                () -> system.spawnActor(UUID.randomUUID().toString(), new EchoActor())
+        );
+        ActorContext.lookupActorRef(name).send(new QuitMessage());
+    }
+
+    @Test
+    @DisplayName("shutdown should wait for the actors and their dead letters to stop")
+    public void testShutdownWaits() {
+        system.spawnActor(name, new AbstractActor() {
+            @Override
+            protected void process(Message<?> msg) {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+        for (int i = 0; i < 20; i++)
+            system.lookupActorRef(name).send(new Message<>(i));
+        system.shutdown();
+
+        assertNull(system.lookupActor(name));
+        assertTrue(system.deadLetters().hasTerminated());
+        assertTrue(system.deadLetters().getCount(name) > 0);
+        assertThrows(
+                IllegalStateException.class,
+                () -> system.getMonitor().subscribe(event -> {
+                })
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> system.shutdown(null)
+        );
+    }
+
+    @Test
+    @DisplayName("An actor should only unregister itself")
+    public void testUnregisterOwnName() {
+        // the dead letters are never registered, so their name is free
+        Actor actor = new EchoActor();
+        system.spawnActor(DeadLetters.NAME, actor);
+        system.deadLetters().send(new QuitMessage());
+
+        try {
+            Thread.sleep(500);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        assertSame(actor, system.lookupActor(DeadLetters.NAME));
+    }
+
+    @Test
+    @DisplayName("Spawning under a taken name should leave the actor untouched")
+    public void testTakenName() {
+        system.spawnActor(name, new EchoActor());
+        Actor actor = new EchoActor();
+        actor.setName("untouched");
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> system.spawnActor(name, actor)
+        );
+        assertEquals("untouched", actor.getName());
+
+        // the actor can still be spawned under another name
+        system.spawnActor("untouched", actor);
+        assertSame(actor, system.lookupActor("untouched"));
+    }
+
+    @Test
+    @DisplayName("ActorSystem should not allow a null or blank name")
+    public void testNullEmptyName() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new ActorSystem(null)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new ActorSystem(" ", new ForkJoinDispatcher())
+        );
+    }
+
+    @Test
+    @DisplayName("The names reserved for actors being set up should not be listed")
+    public void testReservedNames() {
+        ActorRegistry registry = new ActorRegistry();
+        assertTrue(registry.reserve(name));
+        assertFalse(registry.names().contains(name));
+        assertTrue(registry.names().isEmpty());
+        assertEquals(0, registry.names().size());
+        assertFalse(registry.names().iterator().hasNext());
+
+        Actor actor = new EchoActor();
+        registry.register(name, actor, new ActorProxy(actor));
+        assertTrue(registry.names().contains(name));
+        assertEquals(1, registry.names().size());
+        assertEquals(name, registry.names().iterator().next());
+        assertThrows(
+                UnsupportedOperationException.class,
+                () -> registry.names().remove(name)
+        );
+    }
+}
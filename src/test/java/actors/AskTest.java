@@ -0,0 +1,118 @@
+package actors;
+
+import messages.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Ask tests")
+public class AskTest {
+
+    String name;
+
+    @BeforeEach
+    public void setUp() {
+        name = UUID.randomUUID().toString();
+    }
+
+    @Test
+    @DisplayName("Ask should complete with the reply of the actor")
+    public void testAsk() throws Exception {
+        ActorProxy proxy = ActorContext.spawnActor(name, new EchoActor());
+        CompletableFuture<Message<String>> future = proxy.ask(new Message<>("Hello World!"), Duration.ofSeconds(1));
+
+        Message<String> reply = future.get(1, TimeUnit.SECONDS);
+        assertEquals("Hello World!", reply.getBody());
+        assertNotEquals(0, reply.getCorrelationId());
+    }
+
+    @Test
+    @DisplayName("Concurrent asks should each complete with their own reply")
+    public void testConcurrentAsks() throws Exception {
+        ActorRef actor = new AbstractActor() {
+            @Override
+            protected void process(Message<?> msg) {
+                msg.getSender().send(msg.reply((Integer) msg.getBody() * 2));
+            }
+        };
+        ActorContext.spawnActor(name, (Actor) actor);
+
+        List<CompletableFuture<Message<Integer>>> futures = new CopyOnWriteArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int first = t * 10_000;
+            threads.add(Thread.ofVirtual().start(() -> {
+                for (int i = first; i < first + 10_000; i++) {
+                    int expected = i * 2;
+                    futures.add(actor.<Integer>ask(new Message<>(i), Duration.ofSeconds(10))
+                            .thenApply(reply -> {
+                                assertEquals(Integer.valueOf(expected), reply.getBody());
+                                return reply;
+                            }));
+                }
+            }));
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Ask should complete exceptionally when there is no reply in time")
+    public void testAskTimeout() {
+        ActorRef actor = ActorContext.spawnActor(name, new AbstractActor() {
+            @Override
+            protected void process(Message<?> msg) {
+            }
+        });
+        CompletableFuture<Message<String>> future = actor.ask(new Message<>("Hello World!"), Duration.ofMillis(100));
+
+        ExecutionException e = assertThrows(
+                ExecutionException.class,
+                () -> future.get(1, TimeUnit.SECONDS)
+        );
+        assertInstanceOf(TimeoutException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("Ask should time out on the timer of the system of the actor")
+    public void testAskTimerOfSystem() {
+        ActorSystem system = new ActorSystem("ask");
+        try {
+            ActorProxy proxy = system.spawnActor(name, new EchoActor());
+            assertSame(system.timer(), PromiseRef.timerOf(proxy));
+            assertSame(system.timer(), PromiseRef.timerOf(proxy.getTarget()));
+            assertSame(ActorContext.timer(), PromiseRef.timerOf(msg -> { }));
+            assertNotSame(ActorContext.timer(), system.timer());
+        } finally {
+            system.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Ask should reject invalid arguments")
+    public void testAskInvalidArguments() {
+        ActorProxy proxy = ActorContext.spawnActor(name, new EchoActor());
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> proxy.ask(null, Duration.ofSeconds(1))
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> proxy.ask(new Message<>(), Duration.ZERO)
+        );
+    }
+}
@@ -0,0 +1,143 @@
+package actors;
+
+import messages.Message;
+import messages.PingMessage;
+import messages.PongMessage;
+import messages.QuitMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Behavior tests")
+public class BehaviorTest {
+
+    String name;
+
+    @BeforeEach
+    public void setUp() {
+        name = UUID.randomUUID().toString();
+    }
+
+    @Test
+    @DisplayName("Behavior should handle a message with the first matching case")
+    public void testMatch() {
+        List<String> handled = new ArrayList<>();
+        Behavior behavior = Behavior.builder()
+                .match(PingMessage.class, m -> handled.add("ping " + m.getBody()))
+                .match(Message.class, m -> handled.add("message " + m.getBody()))
+                .match(PongMessage.class, m -> handled.add("pong " + m.getBody()))
+                .build();
+
+        assertTrue(behavior.apply(new PingMessage(null, null, "a")));
+        assertTrue(behavior.apply(new PongMessage(null, null, "b")));
+        assertTrue(behavior.apply(new Message<>("c")));
+        assertFalse(behavior.apply(null));
+        assertIterableEquals(List.of("ping a", "message b", "message c"), handled);
+    }
+
+    @Test
+    @DisplayName("Behavior should only handle the matched messages, unless it has a fallback")
+    public void testMatchAny() {
+        List<String> handled = new ArrayList<>();
+        Behavior.Builder builder = Behavior.builder()
+                .match(PingMessage.class, m -> handled.add("ping"));
+
+        Behavior behavior = builder.build();
+        assertTrue(behavior.isHandled(PingMessage.class));
+        assertFalse(behavior.isHandled(QuitMessage.class));
+        assertFalse(behavior.apply(new QuitMessage()));
+
+        behavior = builder.matchAny(m -> handled.add("any")).build();
+        assertTrue(behavior.isHandled(QuitMessage.class));
+        assertTrue(behavior.apply(new QuitMessage()));
+        assertIterableEquals(List.of("any"), handled);
+    }
+
+    @Test
+    @DisplayName("become and unbecome should swap the behavior of the actor")
+    public void testBecome() throws Exception {
+        ActorProxy proxy = ActorContext.spawnActor(name, new SwitchActor());
+
+        assertEquals("processed", ask(proxy, "hello"));
+        assertEquals("processed", ask(proxy, "on"));
+        assertEquals("on", ask(proxy, "hello"));
+        assertEquals("on", ask(proxy, "push"));
+        assertEquals("pushed", ask(proxy, "hello"));
+        assertEquals("pushed", ask(proxy, "pop"));
+        assertEquals("on", ask(proxy, "hello"));
+        assertEquals("on", ask(proxy, "pop"));
+        assertEquals("processed", ask(proxy, "hello"));
+    }
+
+    /**
+     * Asks a message to an actor and returns the body of its reply.
+     *
+     * @param actor the actor.
+     * @param body  the body of the message.
+     * @return the body of the reply.
+     * @throws Exception if there is no reply in time.
+     */
+    private static String ask(ActorRef actor, String body) throws Exception {
+        return actor.<String>ask(new Message<>(body), Duration.ofSeconds(1)).get(1, TimeUnit.SECONDS).getBody();
+    }
+
+    /**
+     * Actor replying with the name of its current behavior, which it changes on "on", "push" and "pop",
+     * and processing the messages itself without any behavior.
+     */
+    private static class SwitchActor extends AbstractActor {
+
+        /**
+         * The behavior set by "on".
+         */
+        private final Behavior on = Behavior.builder()
+                .match(Message.class, m -> {
+                    reply(m, "on");
+                    if ("push".equals(m.getBody()))
+                        become(pushed(), false);
+                    else if ("pop".equals(m.getBody()))
+                        unbecome();
+                })
+                .build();
+
+        /**
+         * Creates the behavior pushed by "push".
+         *
+         * @return the behavior.
+         */
+        private Behavior pushed() {
+            return Behavior.builder()
+                    .match(Message.class, m -> {
+                        reply(m, "pushed");
+                        if ("pop".equals(m.getBody()))
+                            unbecome();
+                    })
+                    .build();
+        }
+
+        @Override
+        protected void process(Message<?> msg) {
+            reply(msg, "processed");
+            if ("on".equals(msg.getBody()))
+                become(on);
+        }
+
+        /**
+         * Replies to a message.
+         *
+         * @param msg  the message.
+         * @param body the body of the reply.
+         */
+        private void reply(Message<?> msg, String body) {
+            msg.getSender().send(msg.reply(body));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package actors;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Calculator service used to test the proxy and the dispatcher generated by the annotation processor,
+ * with overloaded methods, primitive parameters and asynchronous results.
+ */
+public interface Calculator extends Service {
+
+    /**
+     * Describes an integer.
+     *
+     * @param i the integer.
+     * @return the description of the integer.
+     */
+    String describe(int i);
+
+    /**
+     * Describes a character sequence.
+     *
+     * @param s the character sequence.
+     * @return the description of the character sequence.
+     */
+    String describe(CharSequence s);
+
+    /**
+     * Describes any object.
+     *
+     * @param o the object.
+     * @return the description of the object.
+     */
+    String describe(Object o);
+
+    /**
+     * Adds an integer to a long.
+     *
+     * @param a the long.
+     * @param b the integer.
+     * @return the sum.
+     */
+    long add(long a, int b);
+
+    /**
+     * Adds two doubles.
+     *
+     * @param a the first double.
+     * @param b the second double.
+     * @return the sum.
+     */
+    double add(double a, double b);
+
+    /**
+     * Returns whether a number is even.
+     *
+     * @param n the number.
+     * @return true if the number is even.
+     */
+    boolean isEven(long n);
+
+    /**
+     * Divides two numbers, waiting for the result.
+     *
+     * @param a the dividend.
+     * @param b the divisor.
+     * @return the quotient.
+     */
+    int quotient(int a, int b);
+
+    /**
+     * Returns the square of a number.
+     *
+     * @param n the number.
+     * @return the future square of the number.
+     */
+    CompletableFuture<Integer> square(int n);
+
+    /**
+     * Returns the half of a number.
+     *
+     * @param n the number.
+     * @return the future half of the number, an integer if the number is even, a double otherwise.
+     */
+    CompletionStage<? extends Number> half(int n);
+}
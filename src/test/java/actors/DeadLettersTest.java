@@ -0,0 +1,243 @@
+package actors;
+
+import messages.DeadLetterMessage;
+import messages.Message;
+import messages.QuitMessage;
+import messages.SleepMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DeadLetters tests")
+public class DeadLettersTest {
+
+    String name;
+
+    @BeforeEach
+    public void setUp() {
+        name = UUID.randomUUID().toString();
+    }
+
+    @Test
+    @DisplayName("DeadLetters should keep the last dead letters and count them")
+    public void testRing() {
+        DeadLetters deadLetters = new DeadLetters(4);
+        ActorProxy proxy = ActorContext.spawnActor(name, deadLetters);
+
+        for (int i = 0; i < 10; i++)
+            proxy.send(new DeadLetterMessage("a", DeadLetterMessage.Reason.OVERFLOW, new Message<>(i)));
+        proxy.send(new DeadLetterMessage("b", DeadLetterMessage.Reason.EXPIRED, new Message<>(10)));
+        proxy.send(new Message<>(11));
+        waitFor(deadLetters, 12);
+
+        assertEquals(12, deadLetters.getTotal());
+        assertEquals(10, deadLetters.getCount(DeadLetterMessage.Reason.OVERFLOW));
+        assertEquals(1, deadLetters.getCount(DeadLetterMessage.Reason.EXPIRED));
+        assertEquals(1, deadLetters.getCount(DeadLetterMessage.Reason.UNDELIVERABLE));
+        assertEquals(10, deadLetters.getCount("a"));
+        assertEquals(1, deadLetters.getCount("b"));
+        assertEquals(0, deadLetters.getCount("c"));
+        assertEquals(List.of(8, 9, 10, 11), deadLetters.getRecent().stream().<Object>map(d -> d.getBody().getBody()).toList());
+    }
+
+    @Test
+    @DisplayName("DeadLetters should collect the messages left by a stopped actor and sent to it")
+    public void testStopped() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch gate = new CountDownLatch(1);
+        ActorProxy proxy = ActorContext.spawnActor(name, new AbstractActor() {
+            @Override
+            protected void process(Message<?> msg) {
+                started.countDown();
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+        DeadLetters deadLetters = ActorContext.deadLetters();
+
+        // 1 message processed, 4 left in the mailbox by the QuitMessage
+        for (int i = 0; i < 5; i++)
+            proxy.send(new Message<>(i));
+        started.await();
+        proxy.send(new QuitMessage());
+        gate.countDown();
+
+        try {
+            Thread.sleep(500);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        proxy.send(new Message<>("late"));
+        waitFor(name, 5);
+
+        assertEquals(5, deadLetters.getCount(name));
+        assertTrue(deadLetters.getRecent().stream()
+                .anyMatch(d -> name.equals(d.getRecipient()) && d.getReason() == DeadLetterMessage.Reason.STOPPED));
+    }
+
+    @Test
+    @DisplayName("DeadLetters should collect the messages left by an actor aborted on its own thread")
+    public void testAborted() {
+        CountDownLatch gate = new CountDownLatch(1);
+        ActorProxy proxy = ActorContext.spawnActor(name, new AbstractActor() {
+            @Override
+            protected void process(Message<?> msg) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+                throw new RuntimeException("Test");
+            }
+        }, Thread.ofVirtual().factory());
+
+        // 1 message aborting the actor, 4 left in the mailbox
+        for (int i = 0; i < 5; i++)
+            proxy.send(new Message<>(i));
+        gate.countDown();
+        waitFor(name, 4);
+
+        assertEquals(4, ActorContext.deadLetters().getCount(name));
+        assertNull(ActorContext.lookupActor(name));
+    }
+
+    @Test
+    @DisplayName("DeadLetters should collect every message sent while an actor stops")
+    public void testStoppingRace() throws InterruptedException {
+        AtomicInteger processed = new AtomicInteger();
+        ActorProxy proxy = ActorContext.spawnActor(name, new AbstractActor() {
+            @Override
+            protected void process(Message<?> msg) {
+                // the QuitMessage is processed too
+                if (!(msg instanceof QuitMessage))
+                    processed.incrementAndGet();
+            }
+        }, new ForkJoinDispatcher());
+        DeadLetters deadLetters = ActorContext.deadLetters();
+        long droppedBefore = deadLetters.getDroppedCount();
+
+        int senders = 4;
+        int messages = 10_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < senders; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < messages; i++)
+                    proxy.send(new Message<>(i));
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        proxy.send(new QuitMessage());
+        for (Thread thread : threads)
+            thread.join();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (processed.get() + deadLetters.getCount(name) + deadLetters.getDroppedCount() - droppedBefore
+                < senders * messages && System.currentTimeMillis() < deadline)
+            Thread.onSpinWait();
+
+        // each message is either processed or sent to the dead letters, which may drop some of them under the flood
+        assertEquals(senders * messages,
+                processed.get() + deadLetters.getCount(name) + deadLetters.getDroppedCount() - droppedBefore);
+    }
+
+    @Test
+    @DisplayName("DeadLetters should collect the delayed messages coming due after their actor stopped")
+    public void testDelayedAfterStop() {
+        ActorProxy proxy = ActorContext.spawnActor(name, new EchoActor());
+        SleepMessage delayed = new SleepMessage(300);
+        proxy.send(delayed);
+
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        proxy.send(new QuitMessage());
+        waitFor(name, 1);
+
+        try {
+            Thread.sleep(500);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        assertTrue(ActorContext.deadLetters().getRecent().stream()
+                .anyMatch(d -> d.getBody() == delayed && d.getReason() == DeadLetterMessage.Reason.STOPPED));
+    }
+
+    @Test
+    @DisplayName("DeadLetters should collect the expired messages")
+    public void testExpired() {
+        ActorProxy proxy = ActorContext.spawnActor(name, new EchoActor());
+        Message<String> msg = new Message<>("expired");
+        msg.setDeadline(System.currentTimeMillis() - 1);
+        proxy.send(msg);
+        waitFor(name, 1);
+
+        assertTrue(ActorContext.deadLetters().getRecent().stream()
+                .anyMatch(d -> d.getBody() == msg && d.getReason() == DeadLetterMessage.Reason.EXPIRED));
+    }
+
+    @Test
+    @DisplayName("DeadLetters should not allow a capacity that is not positive")
+    public void testCapacity() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new DeadLetters(0)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new DeadLetters(1, 0)
+        );
+    }
+
+    @Test
+    @DisplayName("DeadLetters should drop the oldest dead letters when its mailbox is full")
+    public void testMailboxCapacity() {
+        DeadLetters deadLetters = new DeadLetters(16, 4);
+        for (int i = 0; i < 10; i++)
+            deadLetters.send(new Message<>(i));
+        assertEquals(6, deadLetters.getDroppedCount());
+
+        ActorContext.spawnActor(name, deadLetters);
+        waitFor(deadLetters, 4);
+        assertEquals(4, deadLetters.getTotal());
+        assertEquals(List.of(6, 7, 8, 9), deadLetters.getRecent().stream().<Object>map(d -> d.getBody().getBody()).toList());
+    }
+
+    /**
+     * Waits until the given dead letters have received the given number of dead letters, for at most a second.
+     *
+     * @param deadLetters the dead letters.
+     * @param total       the number of dead letters.
+     */
+    private static void waitFor(DeadLetters deadLetters, long total) {
+        long deadline = System.currentTimeMillis() + 1000;
+        while (deadLetters.getTotal() < total && System.currentTimeMillis() < deadline)
+            Thread.onSpinWait();
+    }
+
+    /**
+     * Waits until the dead letters of the system have received the given number of dead letters for a recipient,
+     * for at most a second.
+     *
+     * @param recipient the name of the recipient.
+     * @param count     the number of dead letters.
+     */
+    private static void waitFor(String recipient, long count) {
+        long deadline = System.currentTimeMillis() + 1000;
+        while (ActorContext.deadLetters().getCount(recipient) < count && System.currentTimeMillis() < deadline)
+            Thread.onSpinWait();
+    }
+}
@@ -0,0 +1,115 @@
+package actors;
+
+import messages.Message;
+import messages.PingMessage;
+import messages.PongMessage;
+import messages.QuitMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Dispatcher tests")
+public class DispatcherTest {
+
+    String name;
+    Dispatcher dispatcher;
+
+    @BeforeEach
+    public void setUp() {
+        name = UUID.randomUUID().toString();
+        dispatcher = new ForkJoinDispatcher(2, 3);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("ForkJoinDispatcher should not allow non-positive parallelism or throughput")
+    public void testInvalidArguments() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new ForkJoinDispatcher(0, 1)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new ForkJoinDispatcher(1, 0)
+        );
+    }
+
+    @Test
+    @DisplayName("Many actors should share the threads of a Dispatcher")
+    public void testManyActors() throws TimeoutException {
+        List<ActorProxy> proxies = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+            proxies.add(ActorContext.spawnActor(name + i, new PingActor(), dispatcher));
+
+        for (ActorProxy proxy : proxies)
+            proxy.send(new PingMessage());
+
+        for (ActorProxy proxy : proxies)
+            assertEquals(PongMessage.class, proxy.receive(1000).getClass());
+    }
+
+    @Test
+    @DisplayName("Actors on a Dispatcher should process messages in order, beyond the throughput")
+    public void testOrder() throws TimeoutException {
+        ActorProxy proxy = ActorContext.spawnActor(name, new EchoActor(), dispatcher);
+        for (int i = 0; i < 100; i++)
+            proxy.send(new Message<>(i));
+
+        for (int i = 0; i < 100; i++)
+            assertEquals(i, proxy.receive(1000).getBody());
+    }
+
+    @Test
+    @DisplayName("Actors on a Dispatcher should stop when receiving a QuitMessage")
+    public void testQuitMessage() {
+        ActorProxy proxy = ActorContext.spawnActor(name, new PingActor(), dispatcher);
+        proxy.send(new QuitMessage());
+        proxy.send(new PingMessage());
+        assertThrows(
+                TimeoutException.class,
+                () -> proxy.receive(100)
+        );
+    }
+
+    @Test
+    @DisplayName("Uncaught exceptions should remove the actor from the system")
+    public void testUncaughtException() {
+        ActorContext.spawnActor(name, new AbstractActor() {
+            @Override
+            protected void process(Message<?> msg) {
+                throw new RuntimeException("test");
+            }
+        }, dispatcher);
+
+        ActorContext.lookupProxy(name).send(new Message<>("test"));
+
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        assertNull(ActorContext.lookupActor(name));
+        assertNull(ActorContext.lookupProxy(name));
+    }
+
+    @Test
+    @DisplayName("spawnActor should still allow a dedicated thread per actor")
+    public void testThreadFactory() throws TimeoutException {
+        ActorProxy proxy = ActorContext.spawnActor(name, new PingActor(), Thread.ofVirtual().factory());
+        proxy.send(new PingMessage());
+        assertEquals(PongMessage.class, proxy.receive(1000).getClass());
+    }
+}
@@ -1,12 +1,20 @@
 package actors;
 
 import messages.GetInsultMessage;
+import messages.Message;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.UndeclaredThrowableException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -44,6 +52,19 @@ public void testDynamicProxy() {
         assertIterableEquals(insults, service.getAllInsults());
     }
 
+    @Test
+    @DisplayName("DynamicProxy should return the generated proxy of a Service interface")
+    public void testGeneratedProxy() {
+        ActorProxy proxy = ActorContext.spawnActor(name, new ReflectiveActor(new InsultServiceImpl()));
+        InsultService service = (InsultService) DynamicProxy.intercept(InsultService.class, proxy);
+        assertInstanceOf(InsultServiceProxy.class, service);
+        assertInstanceOf(InsultServiceDispatcher.class, MethodDispatcher.generated(InsultServiceImpl.class)[0]);
+
+        service.addInsult("You smell like a wet dog!");
+        assertEquals("You smell like a wet dog!", service.getInsult());
+        assertIterableEquals(List.of("You smell like a wet dog!"), service.getAllInsults());
+    }
+
     @Test
     @DisplayName("end() should stop the actor")
     public void testEnd() {
@@ -57,4 +78,135 @@ public void testEnd() {
                 () -> proxy.receive(1000)
         );
     }
+
+    @Test
+    @DisplayName("DynamicProxy should return futures for asynchronous methods")
+    public void testAsyncDynamicProxy() throws Exception {
+        ActorContext.spawnActor(name, new ReflectiveActor(new AsyncCalculatorImpl()));
+        AsyncCalculator calculator = (AsyncCalculator) DynamicProxy.intercept(
+                AsyncCalculator.class, ActorContext.lookupActorRef(name)
+        );
+
+        // pipeline the calls without waiting for each reply
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+            futures.add(calculator.square(i));
+        for (int i = 0; i < 1000; i++)
+            assertEquals(i * i, futures.get(i).get(1, TimeUnit.SECONDS));
+
+        assertEquals(2, calculator.divide(6, 3).toCompletableFuture().get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("DynamicProxy should fail the future when the method fails")
+    public void testAsyncDynamicProxyFailure() {
+        ActorContext.spawnActor(name, new ReflectiveActor(new AsyncCalculatorImpl()));
+        AsyncCalculator calculator = (AsyncCalculator) DynamicProxy.intercept(
+                AsyncCalculator.class, ActorContext.lookupActorRef(name)
+        );
+
+        ExecutionException e = assertThrows(
+                ExecutionException.class,
+                () -> calculator.divide(1, 0).toCompletableFuture().get(1, TimeUnit.SECONDS)
+        );
+        assertInstanceOf(ArithmeticException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("A failed synchronous call should throw the exception of the method")
+    public void testSyncFailure() {
+        ActorContext.spawnActor(name, new ReflectiveActor(new AsyncCalculatorImpl()));
+        AsyncCalculator calculator = (AsyncCalculator) DynamicProxy.intercept(
+                AsyncCalculator.class, ActorContext.lookupActorRef(name)
+        );
+
+        assertEquals(3, calculator.quotient(7, 2));
+        assertThrows(
+                ArithmeticException.class,
+                () -> calculator.quotient(1, 0)
+        );
+    }
+
+    @Test
+    @DisplayName("A synchronous call without reply should fail with the timeout, whatever the proxy")
+    public void testSyncTimeout() {
+        ActorRef silent = ActorContext.spawnActor(name, new AbstractActor() {
+            @Override
+            protected void process(Message<?> msg) {
+            }
+        });
+        AsyncCalculator calculator = (AsyncCalculator) DynamicProxy.intercept(
+                AsyncCalculator.class, silent, Duration.ofMillis(100)
+        );
+        UndeclaredThrowableException e = assertThrows(
+                UndeclaredThrowableException.class,
+                () -> calculator.quotient(7, 2)
+        );
+        assertInstanceOf(TimeoutException.class, e.getCause());
+
+        ServiceProxy generated = new ServiceProxy(silent, Duration.ofMillis(100)) {
+        };
+        e = assertThrows(
+                UndeclaredThrowableException.class,
+                () -> generated.call(new Message<>("Hello World!"))
+        );
+        assertInstanceOf(TimeoutException.class, e.getCause());
+    }
+
+    /**
+     * Asynchronous service used to test the {@link DynamicProxy}.
+     */
+    public interface AsyncCalculator extends Service {
+
+        /**
+         * Returns the square of a number.
+         *
+         * @param n the number.
+         * @return the future square of the number.
+         */
+        CompletableFuture<Integer> square(Integer n);
+
+        /**
+         * Divides two numbers.
+         *
+         * @param a the dividend.
+         * @param b the divisor.
+         * @return the future quotient.
+         */
+        CompletionStage<Integer> divide(Integer a, Integer b);
+
+        /**
+         * Divides two numbers, waiting for the result.
+         *
+         * @param a the dividend.
+         * @param b the divisor.
+         * @return the quotient.
+         */
+        int quotient(int a, int b);
+    }
+
+    /**
+     * Implementation of the {@link AsyncCalculator}, completing some results on another thread.
+     */
+    public static class AsyncCalculatorImpl implements AsyncCalculator {
+
+        @Override
+        public CompletableFuture<Integer> square(Integer n) {
+            return CompletableFuture.completedFuture(n * n);
+        }
+
+        @Override
+        public CompletionStage<Integer> divide(Integer a, Integer b) {
+            return CompletableFuture.supplyAsync(() -> a / b);
+        }
+
+        @Override
+        public int quotient(int a, int b) {
+            return a / b;
+        }
+
+        @Override
+        public void quit() {
+        }
+    }
 }
@@ -0,0 +1,203 @@
+package actors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Generated proxy tests")
+public class GeneratedProxyTest {
+
+    String name;
+
+    @BeforeEach
+    public void setUp() {
+        name = UUID.randomUUID().toString();
+    }
+
+    @Test
+    @DisplayName("The generated classes should be used for a Service interface")
+    public void testGeneratedClasses() {
+        ActorProxy proxy = ActorContext.spawnActor(name, new ReflectiveActor(new CalculatorImpl()));
+        assertInstanceOf(CalculatorProxy.class, DynamicProxy.intercept(Calculator.class, proxy));
+        assertInstanceOf(CalculatorDispatcher.class, MethodDispatcher.generated(CalculatorImpl.class)[0]);
+    }
+
+    @Test
+    @DisplayName("The generated classes should select the most specific overload")
+    public void testOverloads() {
+        Calculator calculator = spawnCalculator();
+
+        assertEquals("int 1", calculator.describe(1));
+        assertEquals("chars a", calculator.describe("a"));
+        assertEquals("chars null", calculator.describe((CharSequence) null));
+        assertEquals("object []", calculator.describe(List.of()));
+        assertEquals(5L, calculator.add(2L, 3));
+        assertEquals(4.0, calculator.add(1.5, 2.5));
+    }
+
+    @Test
+    @DisplayName("The generated classes should box and unbox the primitive parameters and results")
+    public void testPrimitives() {
+        Calculator calculator = spawnCalculator();
+
+        assertTrue(calculator.isEven(4L));
+        assertFalse(calculator.isEven(Long.MAX_VALUE));
+        assertEquals(3, calculator.quotient(7, 2));
+        assertThrows(
+                ArithmeticException.class,
+                () -> calculator.quotient(1, 0)
+        );
+    }
+
+    @Test
+    @DisplayName("The generated proxy should return futures for asynchronous methods")
+    public void testAsync() throws Exception {
+        Calculator calculator = spawnCalculator();
+
+        // pipeline the calls without waiting for each reply
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+            futures.add(calculator.square(i));
+        for (int i = 0; i < 1000; i++)
+            assertEquals(i * i, futures.get(i).get(1, TimeUnit.SECONDS));
+
+        assertEquals(2, calculator.half(4).toCompletableFuture().get(1, TimeUnit.SECONDS));
+        assertEquals(1.5, calculator.half(3).toCompletableFuture().get(1, TimeUnit.SECONDS));
+
+        ExecutionException e = assertThrows(
+                ExecutionException.class,
+                () -> calculator.half(-1).toCompletableFuture().get(1, TimeUnit.SECONDS)
+        );
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("The generated classes should work for a generic Service interface")
+    public void testGenericInterface() throws Exception {
+        ActorProxy proxy = ActorContext.spawnActor(name, new ReflectiveActor(new StoreImpl<String>()));
+        @SuppressWarnings("unchecked") // the proxy of a generic interface is created from its raw class
+        Store<String> store = (Store<String>) DynamicProxy.intercept(Store.class, proxy);
+        assertInstanceOf(StoreProxy.class, store);
+        assertInstanceOf(StoreDispatcher.class, MethodDispatcher.generated(StoreImpl.class)[0]);
+
+        store.put("a");
+        store.put("b");
+        assertEquals("b", store.last());
+        assertIterableEquals(List.of("a", "b"), store.all());
+        assertEquals("a", store.first().toCompletableFuture().get(1, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Spawns a {@link CalculatorImpl} and returns its generated proxy.
+     *
+     * @return the proxy of the calculator.
+     */
+    private Calculator spawnCalculator() {
+        ActorProxy proxy = ActorContext.spawnActor(name, new ReflectiveActor(new CalculatorImpl()));
+        return (Calculator) DynamicProxy.intercept(Calculator.class, proxy);
+    }
+
+    /**
+     * Implementation of the {@link Calculator}, completing some results on another thread.
+     */
+    public static class CalculatorImpl implements Calculator {
+
+        @Override
+        public String describe(int i) {
+            return "int " + i;
+        }
+
+        @Override
+        public String describe(CharSequence s) {
+            return "chars " + s;
+        }
+
+        @Override
+        public String describe(Object o) {
+            return "object " + o;
+        }
+
+        @Override
+        public long add(long a, int b) {
+            return a + b;
+        }
+
+        @Override
+        public double add(double a, double b) {
+            return a + b;
+        }
+
+        @Override
+        public boolean isEven(long n) {
+            return n % 2 == 0;
+        }
+
+        @Override
+        public int quotient(int a, int b) {
+            return a / b;
+        }
+
+        @Override
+        public CompletableFuture<Integer> square(int n) {
+            return CompletableFuture.completedFuture(n * n);
+        }
+
+        @Override
+        public CompletionStage<? extends Number> half(int n) {
+            if (n < 0)
+                return CompletableFuture.failedFuture(new IllegalArgumentException("Number cannot be negative!"));
+            return CompletableFuture.supplyAsync(() -> n % 2 == 0 ? (Number) (n / 2) : (Number) (n / 2.0));
+        }
+
+        @Override
+        public void quit() {
+        }
+    }
+
+    /**
+     * Implementation of the {@link Store}, keeping the values in a list.
+     *
+     * @param <T> the type of the values.
+     */
+    public static class StoreImpl<T> implements Store<T> {
+
+        /**
+         * The values of the store.
+         */
+        private final List<T> values = new ArrayList<>();
+
+        @Override
+        public void put(T value) {
+            values.add(value);
+        }
+
+        @Override
+        public T last() {
+            return values.isEmpty() ? null : values.get(values.size() - 1);
+        }
+
+        @Override
+        public List<T> all() {
+            return List.copyOf(values);
+        }
+
+        @Override
+        public CompletionStage<T> first() {
+            return CompletableFuture.completedFuture(values.isEmpty() ? null : values.get(0));
+        }
+
+        @Override
+        public void quit() {
+        }
+    }
+}
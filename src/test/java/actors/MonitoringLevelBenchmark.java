@@ -0,0 +1,56 @@
+package actors;
+
+import messages.RingMessage;
+import messages.SpawnActorRingMessage;
+import monitoring.ActorListener;
+import monitoring.MonitorService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the ring throughput at each monitoring level, with a listener attached to every event,
+ * as a monitoring dashboard would be.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Thread)
+public class MonitoringLevelBenchmark {
+
+    @Param({"OFF", "LIFECYCLE", "COUNTERS", "FULL"})
+    MonitorService.Level level;
+
+    ActorProxy proxy;
+    LongAdder events;
+    ActorListener listener;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        events = new LongAdder();
+        listener = event -> events.increment();
+        MonitorService.getInstance().attach(listener);
+        MonitorService.getInstance().setLevel(level);
+
+        proxy = ActorContext.spawnActor(UUID.randomUUID().toString(), new RingAppActor());
+        proxy.send(new SpawnActorRingMessage(100));
+        proxy.receive();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        MonitorService.getInstance().detach(listener);
+        MonitorService.getInstance().setLevel(MonitorService.Level.FULL);
+    }
+
+    @Benchmark
+    public void benchmarkRing() {
+        // 100 rounds
+        proxy.send(new RingMessage("Hello World", 100 * 100));
+        proxy.receive();
+    }
+}
@@ -0,0 +1,75 @@
+package actors;
+
+import messages.GetInsultMessage;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the dispatch of a call to an {@link InsultServiceImpl} by looking up and invoking the method
+ * reflectively on each call, as {@link ReflectiveActor} used to, with the cached {@link MethodDispatcher}, without and with an argument.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Thread)
+public class ReflectiveActorBenchmark {
+
+    static final Object[] NO_ARGUMENTS = new Object[0];
+
+    InsultServiceImpl implementation;
+    MethodDispatcher dispatcher;
+    EchoService echo;
+    MethodDispatcher echoDispatcher;
+    Object[] args;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        implementation = new InsultServiceImpl();
+        implementation.addInsult("You're a jerk!");
+        dispatcher = MethodDispatcher.of(InsultServiceImpl.class);
+        echo = new EchoService();
+        echoDispatcher = MethodDispatcher.of(EchoService.class);
+        args = new Object[]{"You look like a monkey!"};
+    }
+
+    @Benchmark
+    public Object benchmarkReflective() throws Exception {
+        Method method = implementation.getClass().getMethod("getInsult");
+        return method.invoke(implementation);
+    }
+
+    @Benchmark
+    public Object benchmarkCached() throws Throwable {
+        return dispatcher.select(MethodDispatcher.methodName(GetInsultMessage.class), NO_ARGUMENTS)
+                .invoke(implementation, NO_ARGUMENTS);
+    }
+
+    @Benchmark
+    public Object benchmarkReflectiveWithArgument() throws Exception {
+        Method method = echo.getClass().getMethod("echo", args[0].getClass());
+        return method.invoke(echo, args);
+    }
+
+    @Benchmark
+    public Object benchmarkCachedWithArgument() throws Throwable {
+        return echoDispatcher.select("echo", args).invoke(echo, args);
+    }
+
+    /**
+     * A service with a method taking an argument.
+     */
+    public static class EchoService implements Service {
+
+        public String echo(String message) {
+            return message;
+        }
+
+        @Override
+        public void quit() {
+        }
+    }
+}
@@ -127,4 +127,40 @@ public void testReflectiveActorInsultService() {
         proxy.send(new GetAllInsultsMessage());
         assertThat(proxy.<List<String>>receive().getBody()).containsExactlyInAnyOrderElementsOf(insults);
     }
+
+    @Test
+    @DisplayName("ReflectiveActor should resolve primitive and overloaded parameters")
+    public void testReflectiveActorOverloads() {
+        ActorProxy proxy = ActorContext.spawnActor(name, new ReflectiveActor(new Service() {
+            public String describe(int i) {
+                return "int " + i;
+            }
+
+            public String describe(Object o) {
+                return "object " + o;
+            }
+
+            public String describe(CharSequence s) {
+                return "chars " + s;
+            }
+
+            public long add(long a, int b) {
+                return a + b;
+            }
+
+            @Override
+            public void quit() {
+
+            }
+        }));
+
+        proxy.send(new MethodInvocationMessage("describe", new Object[]{1}));
+        assertEquals("int 1", proxy.receive().getBody());
+        proxy.send(new MethodInvocationMessage("describe", new Object[]{"a"}));
+        assertEquals("chars a", proxy.receive().getBody());
+        proxy.send(new MethodInvocationMessage("describe", new Object[]{List.of()}));
+        assertEquals("object []", proxy.receive().getBody());
+        proxy.send(new MethodInvocationMessage("add", new Object[]{2L, 3}));
+        assertEquals(5L, proxy.receive().getBody());
+    }
 }
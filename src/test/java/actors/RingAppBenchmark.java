@@ -5,6 +5,7 @@
 import org.openjdk.jmh.annotations.*;
 
 import java.util.UUID;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
 @BenchmarkMode(Mode.AverageTime)
@@ -22,7 +23,8 @@ public static class BenchmarkState {
         @Setup(Level.Trial)
         public void setUp() {
             name = UUID.randomUUID().toString();
-            proxy = ActorContext.spawnActor(name, new RingAppActor());
+            ThreadFactory threadFactory = Thread.ofPlatform().factory();
+            proxy = ActorContext.spawnActor(name, new RingAppActor(threadFactory), threadFactory);
             proxy.send(new SpawnActorRingMessage(100));
             proxy.receive();
         }
@@ -43,7 +45,8 @@ public static class BenchmarkStateVirtualThreads {
         @Setup(Level.Trial)
         public void setUp() {
             name = UUID.randomUUID().toString();
-            proxy = ActorContext.spawnActor(name, new RingAppActor(), Thread.ofVirtual().factory());
+            ThreadFactory threadFactory = Thread.ofVirtual().factory();
+            proxy = ActorContext.spawnActor(name, new RingAppActor(threadFactory), threadFactory);
             proxy.send(new SpawnActorRingMessage(100));
             proxy.receive();
         }
@@ -55,4 +58,25 @@ public void benchmarkRingAppVirtualThreads(BenchmarkStateVirtualThreads state) {
         state.proxy.send(new RingMessage("Hello World", 100 * 100));
         state.proxy.receive();
     }
+
+    @State(Scope.Thread)
+    public static class BenchmarkStateDispatcher {
+        String name;
+        ActorProxy proxy;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            name = UUID.randomUUID().toString();
+            proxy = ActorContext.spawnActor(name, new RingAppActor());
+            proxy.send(new SpawnActorRingMessage(100));
+            proxy.receive();
+        }
+    }
+
+    @Benchmark
+    public void benchmarkRingAppDispatcher(BenchmarkStateDispatcher state) {
+        // 100 rounds
+        state.proxy.send(new RingMessage("Hello World", 100 * 100));
+        state.proxy.receive();
+    }
 }
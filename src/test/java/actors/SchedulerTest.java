@@ -0,0 +1,186 @@
+package actors;
+
+import mailboxes.BoundedMailbox;
+import mailboxes.OverflowPolicy;
+import messages.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Scheduler tests")
+public class SchedulerTest {
+
+    String name;
+
+    @BeforeEach
+    public void setUp() {
+        name = UUID.randomUUID().toString();
+    }
+
+    @Test
+    @DisplayName("A message scheduled once should be sent after the delay")
+    public void testScheduleOnce() throws TimeoutException {
+        ActorProxy proxy = ActorContext.spawnActor(name, new EchoActor());
+        long start = System.currentTimeMillis();
+        Cancellable cancellable = ActorContext.scheduleOnce(Duration.ofMillis(500), proxy, new Message<>("Hello World!"));
+
+        assertEquals("Hello World!", proxy.receive(2000).getBody());
+        assertEquals(500, System.currentTimeMillis() - start, 100);
+        assertFalse(cancellable.cancel());
+    }
+
+    @Test
+    @DisplayName("A cancelled message should never be sent")
+    public void testCancel() {
+        ActorProxy proxy = ActorContext.spawnActor(name, new EchoActor());
+        Cancellable cancellable = ActorContext.scheduleOnce(Duration.ofMillis(200), proxy, new Message<>("Hello World!"));
+
+        assertTrue(cancellable.cancel());
+        assertTrue(cancellable.isCancelled());
+        assertThrows(
+                TimeoutException.class,
+                () -> proxy.receive(500)
+        );
+    }
+
+    @Test
+    @DisplayName("A periodic message should be sent at a fixed rate until cancelled")
+    public void testScheduleAtFixedRate() {
+        AtomicInteger ticks = new AtomicInteger();
+        ActorProxy proxy = ActorContext.spawnActor(name, new AbstractActor() {
+            @Override
+            protected void process(Message<?> msg) {
+                ticks.incrementAndGet();
+            }
+        });
+        Cancellable cancellable = ActorContext.scheduleAtFixedRate(Duration.ZERO, Duration.ofMillis(100), proxy, new Message<>("Tick"));
+
+        try {
+            Thread.sleep(1050);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        assertTrue(cancellable.cancel());
+        assertEquals(11, ticks.get(), 1);
+
+        try {
+            Thread.sleep(300);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        assertEquals(11, ticks.get(), 1);
+    }
+
+    @Test
+    @DisplayName("Ticks should be coalesced while the actor has not taken the previous one")
+    public void testCoalescing() {
+        AtomicInteger ticks = new AtomicInteger();
+        ActorProxy proxy = ActorContext.spawnActor(name, new AbstractActor() {
+            @Override
+            protected void process(Message<?> msg) {
+                ticks.incrementAndGet();
+                try {
+                    Thread.sleep(250);
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+            }
+        }, Thread.ofVirtual().factory());
+        Cancellable cancellable = ActorContext.scheduleAtFixedRate(Duration.ZERO, Duration.ofMillis(10), proxy, new Message<>("Tick"));
+
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        cancellable.cancel();
+        // one tick processed every 250ms, plus at most one waiting in the mailbox
+        assertTrue(ticks.get() <= 5);
+
+        try {
+            Thread.sleep(500);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        assertTrue(ticks.get() <= 6);
+    }
+
+    @Test
+    @DisplayName("Scheduling should reject invalid arguments")
+    public void testInvalidArguments() {
+        ActorProxy proxy = ActorContext.spawnActor(name, new EchoActor());
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ActorContext.scheduleOnce(Duration.ofMillis(-1), proxy, new Message<>())
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ActorContext.scheduleOnce(Duration.ZERO, null, new Message<>())
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ActorContext.scheduleAtFixedRate(Duration.ZERO, Duration.ZERO, proxy, new Message<>())
+        );
+    }
+
+    @Test
+    @DisplayName("A tick evicted from a full mailbox should not stall the schedule")
+    public void testEvictedTick() {
+        CountDownLatch gate = new CountDownLatch(1);
+        AtomicInteger ticks = new AtomicInteger();
+        ActorProxy proxy = ActorContext.spawnActor(name, new AbstractActor() {
+            @Override
+            protected void process(Message<?> msg) {
+                if ("Block".equals(msg.getBody())) {
+                    try {
+                        gate.await();
+                    } catch (InterruptedException e) {
+                        e.printStackTrace();
+                    }
+                } else if ("Tick".equals(msg.getBody())) {
+                    ticks.incrementAndGet();
+                }
+            }
+        }, Thread.ofVirtual().factory(), new BoundedMailbox(1, OverflowPolicy.DROP_OLDEST));
+        proxy.send(new Message<>("Block"));
+
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        Cancellable cancellable = ActorContext.scheduleAtFixedRate(Duration.ZERO, Duration.ofMillis(10), proxy, new Message<>("Tick"));
+
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        // the pending tick is evicted by a plain message while the actor is blocked
+        proxy.send(new Message<>("Hello World!"));
+        gate.countDown();
+
+        try {
+            Thread.sleep(300);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        cancellable.cancel();
+        assertTrue(ticks.get() > 0);
+    }
+}
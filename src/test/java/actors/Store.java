@@ -0,0 +1,41 @@
+package actors;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Generic store service used to test the proxy and the dispatcher generated by the annotation processor
+ * for a generic interface.
+ *
+ * @param <T> the type of the values.
+ */
+public interface Store<T> extends Service {
+
+    /**
+     * Adds a value to the store.
+     *
+     * @param value the value to add.
+     */
+    void put(T value);
+
+    /**
+     * Returns the last value added to the store.
+     *
+     * @return the last value, or null if the store is empty.
+     */
+    T last();
+
+    /**
+     * Returns the values of the store.
+     *
+     * @return the values, in the order they were added.
+     */
+    List<T> all();
+
+    /**
+     * Returns the first value added to the store.
+     *
+     * @return the future first value, or null if the store is empty.
+     */
+    CompletionStage<T> first();
+}
@@ -54,8 +54,9 @@ public void send(Message<?> msg) {
 
         ActorProxy proxy = ActorContext.spawnActor(name, decoratedActor);
         proxy.send(new Message<>("Hello World"));
-        proxy.send(new QuitMessage());
         assertEquals("Decorated: Hello World", proxy.receive().getBody());
+        // the QuitMessage would overtake the message if sent before the reply
+        proxy.send(new QuitMessage());
     }
 
     @Test
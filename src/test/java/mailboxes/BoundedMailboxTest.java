@@ -0,0 +1,260 @@
+package mailboxes;
+
+import actors.AbstractActor;
+import actors.ActorContext;
+import actors.ActorProxy;
+import messages.DeadLetterMessage;
+import messages.Message;
+import monitoring.MonitorService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BoundedMailbox tests")
+public class BoundedMailboxTest {
+
+    /**
+     * Fills the given mailbox with messages 0 to capacity - 1.
+     */
+    private static void fill(BoundedMailbox mailbox) {
+        for (int i = 0; i < mailbox.getCapacity(); i++)
+            assertTrue(mailbox.offer(new Message<>(i)));
+    }
+
+    @Test
+    @DisplayName("BoundedMailbox should not allow invalid arguments")
+    public void testInvalidArguments() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new BoundedMailbox(0, OverflowPolicy.FAIL)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new BoundedMailbox(1, null)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new BoundedMailbox(1, OverflowPolicy.BLOCK, Duration.ofSeconds(-1), null)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new BoundedMailbox(1, OverflowPolicy.DEAD_LETTERS)
+        );
+    }
+
+    @Test
+    @DisplayName("BoundedMailbox should return messages in FIFO order across several laps")
+    public void testOrder() {
+        BoundedMailbox mailbox = new BoundedMailbox(4, OverflowPolicy.FAIL);
+        for (int lap = 0; lap < 3; lap++) {
+            fill(mailbox);
+            assertFalse(mailbox.offer(new Message<>("overflow")));
+            for (int i = 0; i < 4; i++)
+                assertEquals(i, mailbox.poll().getBody());
+            assertNull(mailbox.poll());
+            assertTrue(mailbox.isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("FAIL policy should throw when the mailbox is full")
+    public void testFail() {
+        BoundedMailbox mailbox = new BoundedMailbox(2, OverflowPolicy.FAIL);
+        fill(mailbox);
+        assertThrows(
+                MailboxOverflowException.class,
+                () -> mailbox.enqueue(new Message<>("overflow"))
+        );
+        assertEquals(1, mailbox.getDroppedCount());
+    }
+
+    @Test
+    @DisplayName("DROP_NEWEST policy should discard the incoming message")
+    public void testDropNewest() {
+        BoundedMailbox mailbox = new BoundedMailbox(2, OverflowPolicy.DROP_NEWEST);
+        fill(mailbox);
+        assertFalse(mailbox.enqueue(new Message<>("overflow")));
+        assertEquals(1, mailbox.getDroppedCount());
+        assertEquals(0, mailbox.poll().getBody());
+        assertEquals(1, mailbox.poll().getBody());
+        assertNull(mailbox.poll());
+    }
+
+    @Test
+    @DisplayName("DROP_OLDEST policy should evict the oldest message")
+    public void testDropOldest() {
+        BoundedMailbox mailbox = new BoundedMailbox(2, OverflowPolicy.DROP_OLDEST);
+        fill(mailbox);
+        assertTrue(mailbox.enqueue(new Message<>(2)));
+        assertEquals(1, mailbox.getDroppedCount());
+        assertEquals(1, mailbox.poll().getBody());
+        assertEquals(2, mailbox.poll().getBody());
+        assertNull(mailbox.poll());
+    }
+
+    @Test
+    @DisplayName("DROP_OLDEST policy should divert the evicted message to the dead letters")
+    public void testDropOldestDeadLetters() {
+        List<Message<?>> deadLetters = new ArrayList<>();
+        BoundedMailbox mailbox = new BoundedMailbox(2, OverflowPolicy.DROP_OLDEST, Duration.ZERO, deadLetters::add);
+        mailbox.setOwner("owner");
+        fill(mailbox);
+
+        assertTrue(mailbox.enqueue(new Message<>(2)));
+        assertEquals(1, mailbox.getDroppedCount());
+        assertEquals(1, deadLetters.size());
+
+        DeadLetterMessage deadLetter = (DeadLetterMessage) deadLetters.get(0);
+        assertEquals("owner", deadLetter.getRecipient());
+        assertEquals(DeadLetterMessage.Reason.OVERFLOW, deadLetter.getReason());
+        assertEquals(0, deadLetter.getBody().getBody());
+    }
+
+    @Test
+    @DisplayName("BLOCK policy should wait for free space, then fail after the timeout")
+    public void testBlock() throws InterruptedException {
+        BoundedMailbox mailbox = new BoundedMailbox(1, OverflowPolicy.BLOCK, Duration.ofMillis(100), null);
+        fill(mailbox);
+        assertThrows(
+                MailboxOverflowException.class,
+                () -> mailbox.enqueue(new Message<>("overflow"))
+        );
+        assertEquals(1, mailbox.getDroppedCount());
+
+        BoundedMailbox waiting = new BoundedMailbox(1, OverflowPolicy.BLOCK, Duration.ofSeconds(5), null);
+        fill(waiting);
+        Thread consumer = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            waiting.poll();
+        });
+        consumer.start();
+        assertTrue(waiting.enqueue(new Message<>(1)));
+        consumer.join();
+        assertEquals(1, waiting.poll().getBody());
+    }
+
+    @Test
+    @DisplayName("DEAD_LETTERS policy should divert the incoming message")
+    public void testDeadLetters() {
+        List<Message<?>> deadLetters = new ArrayList<>();
+        BoundedMailbox mailbox = new BoundedMailbox(1, OverflowPolicy.DEAD_LETTERS, Duration.ZERO, deadLetters::add);
+        mailbox.setOwner("owner");
+        fill(mailbox);
+
+        Message<String> overflow = new Message<>("overflow");
+        assertFalse(mailbox.enqueue(overflow));
+        assertEquals(1, mailbox.getDroppedCount());
+        assertEquals(1, deadLetters.size());
+
+        DeadLetterMessage deadLetter = (DeadLetterMessage) deadLetters.get(0);
+        assertEquals("owner", deadLetter.getRecipient());
+        assertEquals(DeadLetterMessage.Reason.OVERFLOW, deadLetter.getReason());
+        assertSame(overflow, deadLetter.getBody());
+    }
+
+    @Test
+    @DisplayName("Many producers should not lose or duplicate messages")
+    public void testConcurrentProducers() throws InterruptedException {
+        BoundedMailbox mailbox = new BoundedMailbox(16, OverflowPolicy.BLOCK, Duration.ofSeconds(10), null);
+        int producers = 4;
+        int messages = 10_000;
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < messages; i++)
+                    mailbox.enqueue(new Message<>(i));
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        long sum = 0;
+        int received = 0;
+        while (received < producers * messages) {
+            Message<?> msg = mailbox.poll();
+            if (msg == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            sum += (Integer) msg.getBody();
+            received++;
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals((long) producers * messages * (messages - 1) / 2, sum);
+        assertTrue(mailbox.isEmpty());
+    }
+
+    @Test
+    @DisplayName("trySend should return false when the mailbox of an Actor is full")
+    public void testTrySend() throws TimeoutException {
+        CountDownLatch latch = new CountDownLatch(1);
+        AbstractActor actor = new AbstractActor() {
+            @Override
+            protected void process(Message<?> msg) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+                msg.getSender().send(new Message<>(msg.getBody()));
+            }
+        };
+        String name = UUID.randomUUID().toString();
+        ActorProxy proxy = ActorContext.spawnActor(
+                name,
+                actor,
+                Thread.ofVirtual().factory(),
+                new BoundedMailbox(1, OverflowPolicy.FAIL)
+        );
+
+        assertTrue(proxy.trySend(new Message<>(0)));
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        // the first message is being processed, the second one fills the mailbox
+        assertTrue(proxy.trySend(new Message<>(1)));
+        assertFalse(proxy.trySend(new Message<>(2)));
+        assertThrows(
+                MailboxOverflowException.class,
+                () -> proxy.send(new Message<>(3))
+        );
+        // both the rejected and the refused messages are counted as dropped
+        assertEquals(2, MonitorService.getInstance().getMetrics(name).dropped());
+
+        latch.countDown();
+        assertEquals(0, proxy.receive(1000).getBody());
+        assertEquals(1, proxy.receive(1000).getBody());
+    }
+
+    @Test
+    @DisplayName("The mailbox of an Actor cannot be changed after it has started")
+    public void testSetMailboxAfterStart() {
+        AbstractActor actor = new AbstractActor() {
+            @Override
+            protected void process(Message<?> msg) {
+            }
+        };
+        ActorContext.spawnActor(UUID.randomUUID().toString(), actor);
+        assertThrows(
+                IllegalStateException.class,
+                () -> actor.setMailbox(new BoundedMailbox(1, OverflowPolicy.FAIL))
+        );
+    }
+}
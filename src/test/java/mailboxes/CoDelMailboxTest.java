@@ -0,0 +1,133 @@
+package mailboxes;
+
+import messages.DeadLetterMessage;
+import messages.Message;
+import messages.TransientMessage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CoDelMailbox tests")
+public class CoDelMailboxTest {
+
+    @Test
+    @DisplayName("CoDelMailbox should not shed messages below the target")
+    public void testBelowTarget() {
+        CoDelMailbox mailbox = new CoDelMailbox(Duration.ofSeconds(10), Duration.ofSeconds(10), null);
+        for (int i = 0; i < 100; i++)
+            mailbox.offer(new Message<>(i));
+
+        for (int i = 0; i < 100; i++)
+            assertEquals(i, mailbox.poll().getBody());
+        assertNull(mailbox.poll());
+        assertTrue(mailbox.isEmpty());
+        assertEquals(0, mailbox.getShedCount());
+    }
+
+    @Test
+    @DisplayName("CoDelMailbox should shed to the dead letters once the sojourn time stays above the target")
+    public void testShed() {
+        List<Message<?>> deadLetters = new ArrayList<>();
+        CoDelMailbox mailbox = new CoDelMailbox(Duration.ofMillis(1), Duration.ofMillis(10), deadLetters::add);
+        mailbox.setOwner("owner");
+        for (int i = 0; i < 20; i++)
+            mailbox.offer(new Message<>(i));
+
+        // a slow actor falling behind its backlog
+        List<Object> processed = new ArrayList<>();
+        Message<?> msg;
+        while ((msg = mailbox.poll()) != null) {
+            processed.add(msg.getBody());
+            try {
+                Thread.sleep(6);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+
+        assertTrue(mailbox.getShedCount() > 0);
+        assertEquals(mailbox.getShedCount(), deadLetters.size());
+        assertEquals(20, processed.size() + deadLetters.size());
+        // the last message is never shed
+        assertEquals(19, processed.get(processed.size() - 1));
+
+        DeadLetterMessage deadLetter = (DeadLetterMessage) deadLetters.get(0);
+        assertEquals("owner", deadLetter.getRecipient());
+        assertEquals(DeadLetterMessage.Reason.OVERLOAD, deadLetter.getReason());
+        assertFalse(processed.contains(deadLetter.getBody().getBody()));
+    }
+
+    @Test
+    @DisplayName("CoDelMailbox should discard the shed transient messages instead of dead lettering them")
+    public void testShedTransient() {
+        List<Message<?>> deadLetters = new ArrayList<>();
+        AtomicInteger discarded = new AtomicInteger();
+        CoDelMailbox mailbox = new CoDelMailbox(Duration.ofMillis(1), Duration.ofMillis(10), deadLetters::add);
+        for (int i = 0; i < 20; i++)
+            mailbox.offer(new Signal(discarded));
+
+        Message<?> msg;
+        int processed = 0;
+        while ((msg = mailbox.poll()) != null) {
+            processed++;
+            try {
+                Thread.sleep(6);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+
+        assertTrue(mailbox.getShedCount() > 0);
+        assertEquals(mailbox.getShedCount(), discarded.get());
+        assertEquals(20, processed + discarded.get());
+        assertTrue(deadLetters.isEmpty());
+    }
+
+    @Test
+    @DisplayName("CoDelMailbox should not allow invalid parameters")
+    public void testInvalidParameters() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new CoDelMailbox(null, Duration.ofMillis(100), null)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new CoDelMailbox(Duration.ofMillis(5), Duration.ZERO, null)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new CoDelMailbox().offer(null)
+        );
+    }
+
+    /**
+     * Transient message counting its discards.
+     */
+    private static class Signal extends Message<Object> implements TransientMessage {
+
+        /**
+         * The number of discarded signals.
+         */
+        private final AtomicInteger discarded;
+
+        /**
+         * Creates a new Signal.
+         *
+         * @param discarded the number of discarded signals.
+         */
+        Signal(AtomicInteger discarded) {
+            this.discarded = discarded;
+        }
+
+        @Override
+        public void discard() {
+            discarded.incrementAndGet();
+        }
+    }
+}
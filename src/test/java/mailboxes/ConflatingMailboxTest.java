@@ -0,0 +1,103 @@
+package mailboxes;
+
+import messages.ConflationKey;
+import messages.Message;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ConflatingMailbox tests")
+public class ConflatingMailboxTest {
+
+    @Test
+    @DisplayName("ConflatingMailbox should replace the pending message with the same key in place")
+    public void testConflation() {
+        ConflatingMailbox mailbox = new ConflatingMailbox();
+        assertTrue(mailbox.isEmpty());
+
+        mailbox.offer(new PriceMessage("a", 1));
+        mailbox.offer(new Message<>("message"));
+        mailbox.offer(new PriceMessage("b", 1));
+        mailbox.offer(new PriceMessage("a", 2));
+        mailbox.offer(new PriceMessage("a", 3));
+        mailbox.offer(new PriceMessage("b", 2));
+        assertEquals(2, mailbox.getPendingKeys());
+        assertEquals(3, mailbox.getConflatedCount());
+
+        assertEquals(List.of("a 3", "message", "b 2"), drain(mailbox));
+        assertTrue(mailbox.isEmpty());
+        assertEquals(0, mailbox.getPendingKeys());
+
+        // a key taken by the actor is queued again
+        mailbox.offer(new PriceMessage("a", 4));
+        assertEquals(List.of("a 4"), drain(mailbox));
+    }
+
+    @Test
+    @DisplayName("ConflatingMailbox should stay bounded by the number of keys")
+    public void testBounded() {
+        ConflatingMailbox mailbox = new ConflatingMailbox();
+        IntStream.range(0, 10000).forEach(i -> mailbox.offer(new PriceMessage("key " + i % 10, i)));
+
+        assertEquals(10, mailbox.getPendingKeys());
+        List<String> bodies = drain(mailbox);
+        assertEquals(10, bodies.size());
+        assertEquals("key 0 9990", bodies.get(0));
+        assertEquals("key 9 9999", bodies.get(9));
+    }
+
+    @Test
+    @DisplayName("ConflatingMailbox should not allow null messages")
+    public void testNullMessage() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new ConflatingMailbox().offer(null)
+        );
+    }
+
+    /**
+     * Polls all the messages of a mailbox.
+     *
+     * @param mailbox the mailbox.
+     * @return the bodies of the messages, in order.
+     */
+    private static List<String> drain(Mailbox mailbox) {
+        List<String> bodies = new ArrayList<>();
+        Message<?> msg;
+        while ((msg = mailbox.poll()) != null)
+            bodies.add(String.valueOf(msg.getBody()));
+        return bodies;
+    }
+
+    /**
+     * Message carrying the latest price of a key.
+     */
+    private static class PriceMessage extends Message<String> implements ConflationKey {
+
+        /**
+         * The key of the price.
+         */
+        private final String key;
+
+        /**
+         * Creates a new PriceMessage.
+         *
+         * @param key   the key of the price.
+         * @param price the price.
+         */
+        PriceMessage(String key, int price) {
+            super(key + " " + price);
+            this.key = key;
+        }
+
+        @Override
+        public Object getConflationKey() {
+            return key;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package mailboxes;
+
+import messages.Message;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fan-in benchmark: each invocation, every producer offers a batch of messages to a single mailbox,
+ * and the benchmark thread (the consumer) drains them all.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MailboxBenchmark {
+
+    private static final int MESSAGES_PER_PRODUCER = 1000;
+
+    @Param({"1", "4", "16", "64"})
+    int producers;
+
+    @Param({"mpsc", "linkedBlockingQueue"})
+    String mailboxType;
+
+    Mailbox mailbox;
+    Phaser phaser;
+    List<Thread> threads;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mailbox = switch (mailboxType) {
+            case "mpsc" -> new MpscMailbox();
+            case "linkedBlockingQueue" -> new BlockingQueueMailbox();
+            default -> throw new IllegalArgumentException(mailboxType);
+        };
+
+        // the consumer and every producer must arrive before a round starts
+        phaser = new Phaser(producers + 1);
+        threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            Message<?>[] messages = new Message<?>[MESSAGES_PER_PRODUCER];
+            for (int i = 0; i < messages.length; i++)
+                messages[i] = new Message<>(i);
+
+            threads.add(Thread.ofPlatform().daemon().start(() -> {
+                while (phaser.arriveAndAwaitAdvance() >= 0)
+                    for (Message<?> msg : messages)
+                        mailbox.offer(msg);
+            }));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        phaser.forceTermination();
+        for (Thread t : threads)
+            t.join();
+    }
+
+    @Benchmark
+    public void fanIn(Blackhole blackhole) {
+        phaser.arrive();
+
+        int total = producers * MESSAGES_PER_PRODUCER;
+        for (int received = 0; received < total; ) {
+            Message<?> msg = mailbox.poll();
+            if (msg == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            blackhole.consume(msg);
+            received++;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package mailboxes;
+
+import messages.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MpscMailbox tests")
+public class MpscMailboxTest {
+
+    Mailbox mailbox;
+
+    @BeforeEach
+    public void setUp() {
+        mailbox = new MpscMailbox();
+    }
+
+    @Test
+    @DisplayName("An empty mailbox should return null")
+    public void testEmpty() {
+        assertTrue(mailbox.isEmpty());
+        assertNull(mailbox.poll());
+        assertTrue(mailbox.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Mailbox should not allow null messages")
+    public void testNullMessage() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> mailbox.offer(null)
+        );
+    }
+
+    @Test
+    @DisplayName("Mailbox should return messages in FIFO order")
+    public void testOrder() {
+        for (int i = 0; i < 100; i++)
+            assertTrue(mailbox.offer(new Message<>(i)));
+        assertFalse(mailbox.isEmpty());
+
+        for (int i = 0; i < 100; i++)
+            assertEquals(i, mailbox.poll().getBody());
+        assertNull(mailbox.poll());
+        assertTrue(mailbox.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Mailbox should deliver a message queued several times once per offer")
+    public void testSameMessage() {
+        Message<String> msg = new Message<>("Hello");
+        Message<String> other = new Message<>("World");
+
+        mailbox.offer(msg);
+        mailbox.offer(other);
+        mailbox.offer(msg);
+
+        assertSame(msg, mailbox.poll());
+        assertSame(other, mailbox.poll());
+        assertSame(msg, mailbox.poll());
+        assertNull(mailbox.poll());
+
+        // once dequeued, the message can be queued again
+        mailbox.offer(msg);
+        assertSame(msg, mailbox.poll());
+        assertTrue(mailbox.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Mailbox should deliver every message of concurrent producers in order")
+    public void testConcurrentProducers() throws InterruptedException {
+        int producers = 8;
+        int messages = 10000;
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < messages; i++)
+                    mailbox.offer(new Message<>(new int[]{producer, i}));
+            }));
+        }
+
+        int[] next = new int[producers];
+        int received = 0;
+        while (received < producers * messages) {
+            Message<?> msg = mailbox.poll();
+            if (msg == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            int[] body = (int[]) msg.getBody();
+            assertEquals(next[body[0]]++, body[1]);
+            received++;
+        }
+
+        for (Thread t : threads)
+            t.join();
+        assertNull(mailbox.poll());
+        assertTrue(mailbox.isEmpty());
+    }
+}
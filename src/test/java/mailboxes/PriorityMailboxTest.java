@@ -0,0 +1,146 @@
+package mailboxes;
+
+import messages.Message;
+import messages.PingMessage;
+import messages.PongMessage;
+import messages.QuitMessage;
+import messages.SystemMessage;
+import messages.WrapperMessage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PriorityMailbox tests")
+public class PriorityMailboxTest {
+
+    @Test
+    @DisplayName("PriorityMailbox should deliver the messages by priority, then in order")
+    public void testPriorities() {
+        Mailbox mailbox = new PriorityMailbox(Map.of(PingMessage.class, 10, PongMessage.class, -1));
+        assertTrue(mailbox.isEmpty());
+
+        mailbox.offer(new PongMessage(null, null, "pong 1"));
+        mailbox.offer(new Message<>("message 1"));
+        mailbox.offer(new PingMessage(null, null, "ping 1"));
+        mailbox.offer(new Message<>("message 2"));
+        mailbox.offer(new PingMessage(null, null, "ping 2"));
+        mailbox.offer(new PongMessage(null, null, "pong 2"));
+        assertFalse(mailbox.isEmpty());
+
+        List<Object> bodies = new ArrayList<>();
+        Message<?> msg;
+        while ((msg = mailbox.poll()) != null)
+            bodies.add(msg.getBody());
+        assertEquals(List.of("ping 1", "ping 2", "message 1", "message 2", "pong 1", "pong 2"), bodies);
+        assertTrue(mailbox.isEmpty());
+    }
+
+    @Test
+    @DisplayName("PriorityMailbox should give a message the priority of its closest supertype")
+    public void testSupertypes() {
+        Mailbox mailbox = new PriorityMailbox(Map.of(Message.class, -1, SystemMessage.class, 1));
+
+        mailbox.offer(new PingMessage(null, null, "ping"));
+        mailbox.offer(new QuitMessage("quit"));
+
+        assertEquals("quit", mailbox.poll().getBody());
+        assertEquals("ping", mailbox.poll().getBody());
+        assertNull(mailbox.poll());
+    }
+
+    @Test
+    @DisplayName("PriorityMailbox should search the interfaces extended by the interfaces of a message")
+    public void testSuperInterfaces() {
+        Mailbox mailbox = new PriorityMailbox(Map.of(Urgent.class, 1));
+
+        mailbox.offer(new Message<>("message"));
+        mailbox.offer(new AlarmMessage("alarm"));
+
+        assertEquals("alarm", mailbox.poll().getBody());
+        assertEquals("message", mailbox.poll().getBody());
+        assertNull(mailbox.poll());
+    }
+
+    @Test
+    @DisplayName("PriorityMailbox should give a wrapper message the priority of the message it wraps")
+    public void testWrapperMessages() {
+        Mailbox mailbox = new PriorityMailbox(Map.of(PingMessage.class, 1));
+
+        mailbox.offer(new Message<>("message"));
+        mailbox.offer(new Wrapper(new PingMessage(null, null, "ping")));
+
+        Message<?> msg = mailbox.poll();
+        assertInstanceOf(Wrapper.class, msg);
+        assertEquals("ping", ((Wrapper) msg).getWrappedMessage().getBody());
+        assertEquals("message", mailbox.poll().getBody());
+        assertNull(mailbox.poll());
+    }
+
+    @Test
+    @DisplayName("PriorityMailbox should not allow null priorities")
+    public void testNullPriorities() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new PriorityMailbox(null)
+        );
+        Map<Class<?>, Integer> priorities = new HashMap<>();
+        priorities.put(PingMessage.class, null);
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new PriorityMailbox(priorities)
+        );
+    }
+
+    /**
+     * Interface of the urgent messages.
+     */
+    interface Urgent {
+    }
+
+    /**
+     * Interface of the alarms, which are urgent.
+     */
+    interface Alarm extends Urgent {
+    }
+
+    /**
+     * Message raising an alarm.
+     */
+    static class AlarmMessage extends Message<String> implements Alarm {
+
+        /**
+         * Creates a new AlarmMessage.
+         *
+         * @param body the body of the message.
+         */
+        AlarmMessage(String body) {
+            super(body);
+        }
+    }
+
+    /**
+     * Message wrapping another one, as the system does for the ticks of a schedule.
+     */
+    static class Wrapper extends Message<Message<?>> implements WrapperMessage {
+
+        /**
+         * Creates a new Wrapper.
+         *
+         * @param msg the wrapped message.
+         */
+        Wrapper(Message<?> msg) {
+            super(msg);
+        }
+
+        @Override
+        public Message<?> getWrappedMessage() {
+            return getBody();
+        }
+    }
+}
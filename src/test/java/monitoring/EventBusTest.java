@@ -0,0 +1,139 @@
+package monitoring;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("EventBus tests")
+public class EventBusTest {
+
+    String name;
+
+    @BeforeEach
+    public void setUp() {
+        name = UUID.randomUUID().toString();
+    }
+
+    @Test
+    @DisplayName("EventBus should not allow non-positive capacity or consumers")
+    public void testInvalidArguments() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new EventBus(0, 1)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new EventBus(1, 0)
+        );
+    }
+
+    @Test
+    @DisplayName("EventBus should round its capacity up to a power of two")
+    public void testCapacity() {
+        assertEquals(1, new EventBus(1, 1).getCapacity());
+        assertEquals(8, new EventBus(5, 1).getCapacity());
+        assertEquals(16, new EventBus(16, 1).getCapacity());
+    }
+
+    @Test
+    @DisplayName("EventBus should deliver the matching events in order to every subscription")
+    public void testDelivery() throws InterruptedException {
+        EventBus bus = new EventBus(2048, 2);
+        List<ActorEvent> all = new CopyOnWriteArrayList<>();
+        List<ActorEvent> filtered = new CopyOnWriteArrayList<>();
+        Subscription allSubscription = new Subscription(bus, Set.of(), Set.of(), all::add);
+        Subscription filteredSubscription = new Subscription(bus, Set.of(name), Set.of(ActorEvent.EventType.STOPPED), filtered::add);
+        bus.add(allSubscription);
+        bus.add(filteredSubscription);
+
+        for (int i = 0; i < 1000; i++)
+            bus.publish(new ActorEvent(name + i % 2, ActorEvent.EventType.CREATED));
+        bus.publish(new ActorEvent(name, ActorEvent.EventType.STOPPED));
+
+        Thread.sleep(1000);
+
+        assertEquals(1001, all.size());
+        for (int i = 0; i < 1000; i++)
+            assertEquals(name + i % 2, all.get(i).getSource());
+        assertEquals(1, filtered.size());
+        assertEquals(0, allSubscription.getLag());
+        assertEquals(1001, allSubscription.getDeliveredCount());
+        assertEquals(0, allSubscription.getDroppedCount());
+    }
+
+    @Test
+    @DisplayName("A slow subscription should drop the oldest events without blocking the publishers")
+    public void testSlowSubscription() throws InterruptedException {
+        EventBus bus = new EventBus(16, 1);
+        CountDownLatch latch = new CountDownLatch(1);
+        List<ActorEvent> received = new CopyOnWriteArrayList<>();
+        Subscription subscription = new Subscription(bus, Set.of(), Set.of(), event -> {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            received.add(event);
+        });
+        bus.add(subscription);
+
+        // the first event blocks the consumer, the others overflow the ring
+        bus.publish(new ActorEvent(name, ActorEvent.EventType.CREATED));
+        Thread.sleep(100);
+        for (int i = 0; i < 100; i++)
+            bus.publish(new ActorEvent(name + i, ActorEvent.EventType.MESSAGE_PROCESSED));
+        assertEquals(100, subscription.getLag());
+
+        latch.countDown();
+        Thread.sleep(1000);
+
+        assertEquals(0, subscription.getLag());
+        assertEquals(100 - 16, subscription.getDroppedCount());
+        assertEquals(1 + 16, received.size());
+        assertEquals(name + 99, received.get(received.size() - 1).getSource());
+    }
+
+    @Test
+    @DisplayName("EventBus should stop delivering the events once shut down")
+    public void testShutdown() throws InterruptedException {
+        EventBus bus = new EventBus(16, 1);
+        List<ActorEvent> received = new CopyOnWriteArrayList<>();
+        bus.add(new Subscription(bus, Set.of(), Set.of(), received::add));
+
+        bus.publish(new ActorEvent(name, ActorEvent.EventType.CREATED));
+        Thread.sleep(100);
+        bus.shutdown();
+        Thread.sleep(100);
+        bus.publish(new ActorEvent(name, ActorEvent.EventType.STOPPED));
+        Thread.sleep(100);
+
+        assertEquals(1, received.size());
+        assertEquals(ActorEvent.EventType.CREATED, received.get(0).getEventType());
+    }
+
+    @Test
+    @DisplayName("A failing listener should not stop the delivery")
+    public void testFailingListener() throws InterruptedException {
+        EventBus bus = new EventBus(16, 1);
+        CountDownLatch latch = new CountDownLatch(2);
+        Subscription subscription = new Subscription(bus, Set.of(), Set.of(), event -> {
+            latch.countDown();
+            throw new RuntimeException("Test");
+        });
+        bus.add(subscription);
+
+        bus.publish(new ActorEvent(name, ActorEvent.EventType.CREATED));
+        bus.publish(new ActorEvent(name, ActorEvent.EventType.STOPPED));
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,115 @@
+package monitoring;
+
+import messages.Message;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("EventStore tests")
+public class EventStoreTest {
+
+    /**
+     * Returns the sources of the events of the store, from the oldest to the most recent.
+     */
+    private static List<String> sources(EventStore store) {
+        List<String> sources = new ArrayList<>();
+        store.forEach(event -> sources.add(event.getSource()));
+        return sources;
+    }
+
+    @Test
+    @DisplayName("EventStore should not allow non-positive limits")
+    public void testInvalidLimits() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new EventStore(0)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new EventStore(1, 0)
+        );
+    }
+
+    @Test
+    @DisplayName("EventStore should evict the oldest events beyond the maximum number of events")
+    public void testMaxEvents() {
+        EventStore store = new EventStore(3);
+        for (int i = 0; i < 5; i++)
+            store.add(new ActorEvent("a" + i, ActorEvent.EventType.CREATED));
+
+        assertEquals(3, store.size());
+        assertEquals(2, store.getEvictedCount());
+        assertEquals(List.of("a2", "a3", "a4"), sources(store));
+        assertEquals(List.of("a2", "a3", "a4"), store.toList().stream().map(ActorEvent::getSource).toList());
+    }
+
+    @Test
+    @DisplayName("EventStore should evict the oldest events beyond the maximum size")
+    public void testMaxBytes() {
+        EventStore store = new EventStore(100, 3 * EventStore.EVENT_SIZE);
+        for (int i = 0; i < 5; i++)
+            store.add(new ActorEvent("a" + i, ActorEvent.EventType.CREATED));
+        assertEquals(List.of("a2", "a3", "a4"), sources(store));
+        assertEquals(3 * EventStore.EVENT_SIZE, store.getBytes());
+
+        // a large message evicts several small events
+        String body = "x".repeat(100);
+        MessageEvent<Message<String>> large = new MessageEvent<>("large", ActorEvent.EventType.MESSAGE_SENT, new Message<>(body));
+        EventStore bigStore = new EventStore(100, EventStore.estimateSize(large) + EventStore.EVENT_SIZE);
+        for (int i = 0; i < 5; i++)
+            bigStore.add(new ActorEvent("a" + i, ActorEvent.EventType.CREATED));
+        bigStore.add(large);
+        assertEquals(List.of("a4", "large"), sources(bigStore));
+    }
+
+    @Test
+    @DisplayName("EventStore should not keep an event larger than the maximum size")
+    public void testOversizedEvent() {
+        EventStore store = new EventStore(10, EventStore.EVENT_SIZE);
+        store.add(new ActorEvent("a", ActorEvent.EventType.CREATED));
+        store.add(new MessageEvent<>("b", ActorEvent.EventType.MESSAGE_SENT, new Message<>("Hello World")));
+
+        assertEquals(List.of("a"), sources(store));
+        assertEquals(1, store.getEvictedCount());
+    }
+
+    @Test
+    @DisplayName("EventStore should apply new limits to the events already stored")
+    public void testSetLimits() {
+        EventStore store = new EventStore(4);
+        for (int i = 0; i < 6; i++)
+            store.add(new ActorEvent("a" + i, ActorEvent.EventType.CREATED));
+
+        store.setLimits(2, Long.MAX_VALUE);
+        assertEquals(List.of("a4", "a5"), sources(store));
+
+        store.setLimits(3, Long.MAX_VALUE);
+        store.add(new ActorEvent("a6", ActorEvent.EventType.CREATED));
+        store.add(new ActorEvent("a7", ActorEvent.EventType.CREATED));
+        assertEquals(List.of("a5", "a6", "a7"), sources(store));
+    }
+
+    @Test
+    @DisplayName("EventStore should grow its ring as needed, up to the maximum number of events")
+    public void testGrowth() {
+        EventStore store = new EventStore(100);
+        assertEquals(EventStore.INITIAL_CAPACITY, store.getCapacity());
+
+        for (int i = 0; i < 150; i++)
+            store.add(new ActorEvent("a" + i, ActorEvent.EventType.CREATED));
+
+        assertEquals(100, store.getCapacity());
+        assertEquals(100, store.size());
+        assertEquals(50, store.getEvictedCount());
+        assertEquals("a50", sources(store).get(0));
+        assertEquals("a149", sources(store).get(99));
+
+        store.setLimits(10, Long.MAX_VALUE);
+        assertEquals(10, store.getCapacity());
+        assertEquals(4, new EventStore(4).getCapacity());
+    }
+}
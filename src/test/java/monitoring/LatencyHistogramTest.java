@@ -0,0 +1,65 @@
+package monitoring;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LatencyHistogram tests")
+public class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Buckets should be contiguous and bound the relative error")
+    public void testBuckets() {
+        int previous = -1;
+        for (long value = 0; value < 100_000; value++) {
+            int index = LatencyHistogram.index(value);
+            assertTrue(index == previous || index == previous + 1);
+            assertTrue(LatencyHistogram.highestEquivalentValue(index) >= value);
+            assertTrue(LatencyHistogram.highestEquivalentValue(index) - value <= value / LatencyHistogram.SUB_BUCKETS);
+            previous = index;
+        }
+
+        int last = LatencyHistogram.index(LatencyHistogram.MAX_VALUE);
+        assertEquals(LatencyHistogram.MAX_VALUE, LatencyHistogram.highestEquivalentValue(last));
+    }
+
+    @Test
+    @DisplayName("An empty histogram should report zeros")
+    public void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(new LatencyHistogram.Snapshot(0, 0, 0, 0, 0, 0), histogram.snapshot());
+    }
+
+    @Test
+    @DisplayName("Percentiles should be within the relative error of the recorded values")
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++)
+            histogram.record(value * 1000);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(10_000, snapshot.count());
+        assertEquals(10_000_000, snapshot.max());
+        assertEquals(5_000_000, snapshot.p50(), 5_000_000.0 / LatencyHistogram.SUB_BUCKETS);
+        assertEquals(9_000_000, snapshot.p90(), 9_000_000.0 / LatencyHistogram.SUB_BUCKETS);
+        assertEquals(9_900_000, snapshot.p99(), 9_900_000.0 / LatencyHistogram.SUB_BUCKETS);
+        assertEquals(9_990_000, snapshot.p999(), 9_990_000.0 / LatencyHistogram.SUB_BUCKETS);
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> histogram.getValueAtPercentile(101)
+        );
+    }
+
+    @Test
+    @DisplayName("Values out of range should be clamped, keeping the exact maximum")
+    public void testOutOfRange() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(LatencyHistogram.MAX_VALUE * 4);
+
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(LatencyHistogram.MAX_VALUE * 4, histogram.getMax());
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.getValueAtPercentile(100));
+    }
+}
@@ -0,0 +1,66 @@
+package monitoring;
+
+import actors.AbstractActor;
+import actors.ActorContext;
+import actors.ActorProxy;
+import messages.Message;
+import messages.QuitMessage;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of emitting an event and of sending a message with a growing number of actors
+ * in the system. Both should stay flat, as events only reach the listeners of their source and type.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MonitorServiceBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    int actors;
+
+    List<ActorProxy> proxies;
+    ActorProxy proxy;
+    ActorEvent event;
+    Message<String> message;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String prefix = UUID.randomUUID().toString();
+        proxies = new ArrayList<>(actors);
+        for (int i = 0; i < actors; i++)
+            proxies.add(ActorContext.spawnActor(prefix + i, new AbstractActor() {
+                @Override
+                protected void process(Message<?> msg) {
+                }
+            }));
+
+        proxy = proxies.get(0);
+        event = new MessageEvent<>(prefix + 0, ActorEvent.EventType.MESSAGE_PROCESSED, new Message<>("event"));
+        message = new Message<>("Hello World");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (ActorProxy p : proxies)
+            p.send(new QuitMessage());
+    }
+
+    @Benchmark
+    public void notifyListeners() {
+        MonitorService.getInstance().notifyListeners(event);
+    }
+
+    @Benchmark
+    public void send() {
+        proxy.send(message);
+    }
+}
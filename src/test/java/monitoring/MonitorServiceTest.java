@@ -1,6 +1,8 @@
 package monitoring;
 
 import actors.*;
+import mailboxes.BoundedMailbox;
+import mailboxes.OverflowPolicy;
 import messages.Message;
 import messages.QuitMessage;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,12 +13,17 @@
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("MonitorService tests")
 public class MonitorServiceTest {
@@ -145,6 +152,38 @@ public void testTrafficDensity() {
                    .containsExactlyInAnyOrderElementsOf(trafficDensityExpected.get(trafficDensity));
     }
 
+    @Test
+    @DisplayName("MonitorService should return the traffic over the given window")
+    public void testTrafficWindow() {
+        monitorService.monitorActor(name);
+        ActorProxy proxy = ActorContext.spawnActor(name, new EchoActor());
+        for (int i = 0; i < 10; i++)
+            proxy.send(new Message<>("Hello World"));
+
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        // 10 messages received and 10 replies sent
+        assertEquals(2.0, monitorService.getRate(name, 10), 0);
+        assertEquals(0, monitorService.getRate(UUID.randomUUID().toString(), 10), 0);
+
+        monitorService.setTrafficThresholds(25, 50);
+        assertThat(monitorService.getTraffic(10).get(MonitorService.TrafficDensity.LOW)).containsExactly(name);
+        monitorService.setTrafficThresholds(5, 20);
+        assertThat(monitorService.getTraffic(10).get(MonitorService.TrafficDensity.HIGH)).containsExactly(name);
+
+        monitorService.setTrafficWindow(30);
+        assertEquals(30, monitorService.getTrafficWindow());
+        assertThat(monitorService.getTraffic().get(MonitorService.TrafficDensity.HIGH)).containsExactly(name);
+
+        assertThrows(IllegalArgumentException.class, () -> monitorService.setTrafficWindow(0));
+        assertThrows(IllegalArgumentException.class, () -> monitorService.getTraffic(RateCounter.MAX_WINDOW + 1));
+        assertThrows(IllegalArgumentException.class, () -> monitorService.setTrafficThresholds(10, 5));
+    }
+
     @Test
     @DisplayName("MonitorService should return correct number of messages")
     public void testNumberOfMessages() {
@@ -247,6 +286,13 @@ public void testEvents() {
 
         proxy.send(new Message<>("Hello World"));
         proxy2.send(new Message<>("Hello!"));
+
+        // the QuitMessage overtakes the queued messages, so let them be processed first
+        try {
+            Thread.sleep(500);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
         proxy.send(new QuitMessage());
         proxy2.send(new QuitMessage());
 
@@ -369,6 +415,13 @@ protected void process(Message<?> msg) {
 
         proxy.send(new Message<>("Hello World"));
         proxy2.send(new Message<>("Hello!"));
+
+        // the QuitMessage overtakes the queued messages, so let them be processed first
+        try {
+            Thread.sleep(500);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
         proxy.send(new QuitMessage());
 
         try {
@@ -385,4 +438,281 @@ protected void process(Message<?> msg) {
         assertThat(events.get(ActorEvent.EventType.STOPPED)).hasSize(1);
         assertThat(events.get(ActorEvent.EventType.ABORTED)).hasSize(1);
     }
+
+    @Test
+    @DisplayName("Listeners attached to a source and event type should only receive matching events")
+    public void testFilteredListeners() {
+        String name2 = UUID.randomUUID().toString();
+        List<ActorEvent> sourceEvents = new ArrayList<>();
+        List<ActorEvent> typeEvents = new ArrayList<>();
+        List<ActorEvent> sourceAndTypeEvents = new ArrayList<>();
+        ActorListener sourceListener = sourceEvents::add;
+        monitorService.attach(name, null, sourceListener);
+        monitorService.attach(null, ActorEvent.EventType.CREATED, typeEvents::add);
+        monitorService.attach(name, ActorEvent.EventType.MESSAGE_RECEIVED, sourceAndTypeEvents::add);
+
+        monitorService.notifyListeners(new ActorEvent(name, ActorEvent.EventType.CREATED));
+        monitorService.notifyListeners(new ActorEvent(name2, ActorEvent.EventType.CREATED));
+        monitorService.notifyListeners(new MessageEvent<>(name, ActorEvent.EventType.MESSAGE_RECEIVED, new Message<>("1")));
+        monitorService.notifyListeners(new MessageEvent<>(name2, ActorEvent.EventType.MESSAGE_RECEIVED, new Message<>("2")));
+
+        assertEquals(2, sourceEvents.size());
+        assertEquals(2, typeEvents.size());
+        assertEquals(1, sourceAndTypeEvents.size());
+        assertEquals(name, sourceAndTypeEvents.get(0).getSource());
+
+        monitorService.detach(sourceListener);
+        monitorService.notifyListeners(new ActorEvent(name, ActorEvent.EventType.STOPPED));
+        assertEquals(2, sourceEvents.size());
+    }
+
+    @Test
+    @DisplayName("MonitorService should only be listening when a listener wants the event")
+    public void testIsListening() {
+        String name2 = UUID.randomUUID().toString();
+        assertFalse(monitorService.isListening(name, ActorEvent.EventType.MESSAGE_SENT));
+
+        monitorService.attach(name, ActorEvent.EventType.MESSAGE_SENT, event -> {
+        });
+        assertTrue(monitorService.isListening(name, ActorEvent.EventType.MESSAGE_SENT));
+        assertFalse(monitorService.isListening(name, ActorEvent.EventType.MESSAGE_RECEIVED));
+        assertFalse(monitorService.isListening(name2, ActorEvent.EventType.MESSAGE_SENT));
+
+        monitorService.attach(event -> {
+        });
+        assertTrue(monitorService.isListening(name2, ActorEvent.EventType.MESSAGE_RECEIVED));
+    }
+
+    @Test
+    @DisplayName("MonitorService should only emit the events of the current level")
+    public void testLevels() {
+        monitorService.monitorActor(name);
+        monitorService.setLevel(MonitorService.Level.LIFECYCLE);
+        ActorProxy proxy = ActorContext.spawnActor(name, actor);
+        proxy.send(new Message<>("Hello World"));
+
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        assertThat(monitorService.getEvents(name).stream().map(ActorEvent::getEventType).toList())
+                .containsExactlyInAnyOrderElementsOf(List.of(ActorEvent.EventType.CREATED));
+
+        monitorService.setLevel(MonitorService.Level.COUNTERS);
+        assertFalse(monitorService.isListening(name, ActorEvent.EventType.MESSAGE_RECEIVED));
+        assertTrue(monitorService.isListening(name, ActorEvent.EventType.MESSAGE_PROCESSED));
+
+        monitorService.setLevel(MonitorService.Level.OFF);
+        assertFalse(monitorService.isListening(name, ActorEvent.EventType.CREATED));
+        proxy.send(new QuitMessage());
+
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        assertEquals(1, monitorService.getEvents(name).size());
+        assertNull(ActorContext.lookupActor(name));
+    }
+
+    @Test
+    @DisplayName("Subscriptions should receive the matching events asynchronously")
+    public void testSubscribe() {
+        List<ActorEvent> events = new CopyOnWriteArrayList<>();
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        Subscription subscription = monitorService.subscribe(
+                Set.of(name),
+                Set.of(ActorEvent.EventType.MESSAGE_RECEIVED),
+                event -> {
+                    events.add(event);
+                    threads.add(Thread.currentThread());
+                }
+        );
+        assertTrue(monitorService.isListening(name, ActorEvent.EventType.MESSAGE_RECEIVED));
+        assertFalse(monitorService.isListening(name, ActorEvent.EventType.MESSAGE_SENT));
+
+        ActorProxy proxy = ActorContext.spawnActor(name, actor);
+        proxy.send(new Message<>("Hello World"));
+
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        assertEquals(1, events.size());
+        assertEquals(name, events.get(0).getSource());
+        assertNotEquals(Thread.currentThread(), threads.get(0));
+        assertEquals(1, subscription.getDeliveredCount());
+
+        monitorService.unsubscribe(subscription);
+        assertFalse(monitorService.isListening(name, ActorEvent.EventType.MESSAGE_RECEIVED));
+    }
+
+    @Test
+    @DisplayName("A shut down MonitorService should not start delivering events")
+    public void testShutdown() {
+        MonitorService service = new MonitorService();
+        service.shutdown();
+        assertThrows(
+                IllegalStateException.class,
+                () -> service.subscribe(event -> {
+                })
+        );
+    }
+
+    @Test
+    @DisplayName("MonitorService should only keep the most recent events")
+    public void testEventLimits() {
+        monitorService.setEventLimits(5, Long.MAX_VALUE);
+        monitorService.setActorEventLimits(3, Long.MAX_VALUE);
+        monitorService.monitorActor(name);
+        ActorProxy proxy = ActorContext.spawnActor(name, actor);
+        for (int i = 0; i < 10; i++)
+            proxy.send(new Message<>(i));
+
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        assertEquals(5, monitorService.getAllEvents().size());
+        assertEquals(3, monitorService.getEvents(name).size());
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> monitorService.setActorEventLimits(0, 1)
+        );
+    }
+
+    @Test
+    @DisplayName("MonitorService should return the counters of an actor")
+    public void testMetrics() throws TimeoutException {
+        ActorProxy proxy = ActorContext.spawnActor(name, actor);
+        for (int i = 0; i < 10; i++)
+            proxy.send(new Message<>(i));
+        for (int i = 0; i < 10; i++)
+            proxy.receive(1000);
+
+        ActorMetrics.Snapshot snapshot = monitorService.getMetrics(name);
+        assertEquals(10, snapshot.sent());
+        assertEquals(10, snapshot.received());
+        assertEquals(10, snapshot.processed());
+        assertEquals(0, snapshot.dropped());
+        assertEquals(0, snapshot.depth());
+        assertTrue(monitorService.getAllMetrics().containsKey(name));
+
+        proxy.send(new QuitMessage());
+
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        // the counters of a stopped actor are only kept if it is monitored
+        assertNull(monitorService.getMetrics(name));
+    }
+
+    @Test
+    @DisplayName("MonitorService should count the expired messages of an actor")
+    public void testExpiredMetrics() throws TimeoutException {
+        ActorProxy proxy = ActorContext.spawnActor(name, actor);
+        for (int i = 0; i < 5; i++) {
+            Message<Integer> msg = new Message<>(i);
+            msg.setDeadline(System.currentTimeMillis() - 1);
+            proxy.send(msg);
+        }
+        proxy.send(new Message<>("alive"));
+        assertEquals("alive", proxy.receive(1000).getBody());
+
+        ActorMetrics.Snapshot snapshot = monitorService.getMetrics(name);
+        assertEquals(5, snapshot.expired());
+    }
+
+    @Test
+    @DisplayName("MonitorService should return the mailbox depth and dropped messages of an actor")
+    public void testDepthMetrics() {
+        CountDownLatch latch = new CountDownLatch(1);
+        ActorProxy proxy = ActorContext.spawnActor(name, new AbstractActor() {
+            @Override
+            protected void process(Message<?> msg) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+            }
+        }, Thread.ofVirtual().factory(), new BoundedMailbox(100, OverflowPolicy.DROP_NEWEST));
+
+        proxy.send(new Message<>("first"));
+
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        // the first message is being processed, the next ones fill the mailbox
+        for (int i = 0; i < 120; i++)
+            proxy.trySend(new Message<>(i));
+
+        ActorMetrics.Snapshot snapshot = monitorService.getMetrics(name);
+        assertEquals(101, snapshot.received());
+        assertEquals(20, snapshot.dropped());
+        assertEquals(100, snapshot.depth());
+        assertEquals(0, snapshot.processed());
+
+        latch.countDown();
+
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        snapshot = monitorService.getMetrics(name);
+        assertEquals(0, snapshot.depth());
+        assertEquals(snapshot.received(), snapshot.processed());
+        assertTrue(snapshot.peakDepth() >= 100 - ActorMetrics.PEAK_SAMPLE_INTERVAL);
+    }
+
+    @Test
+    @DisplayName("MonitorService should return the queue wait and service time of an actor")
+    public void testLatencies() {
+        ActorProxy proxy = ActorContext.spawnActor(name, new AbstractActor() {
+            @Override
+            protected void process(Message<?> msg) {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+            }
+        }, Thread.ofVirtual().factory());
+        for (int i = 0; i < 10; i++)
+            proxy.send(new Message<>(i));
+
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        LatencyHistogram.Snapshot serviceTime = monitorService.getServiceTime(name);
+        assertEquals(10, serviceTime.count());
+        assertTrue(serviceTime.p50() >= TimeUnit.MILLISECONDS.toNanos(10));
+
+        // the last message waited for the nine others to be processed
+        LatencyHistogram.Snapshot queueWait = monitorService.getQueueWait(name);
+        assertEquals(10, queueWait.count());
+        assertTrue(queueWait.max() >= TimeUnit.MILLISECONDS.toNanos(90));
+
+        monitorService.resetLatencies(name);
+        assertEquals(0, monitorService.getServiceTime(name).count());
+        assertEquals(0, monitorService.getQueueWait(name).count());
+    }
 }
@@ -0,0 +1,90 @@
+package monitoring;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RateCounter tests")
+public class RateCounterTest {
+
+    @Test
+    @DisplayName("Count should only include the complete seconds of the window")
+    public void testCount() {
+        RateCounter counter = new RateCounter();
+        for (long second = 100; second < 110; second++)
+            for (int i = 0; i <= second - 100; i++)
+                counter.record(second);
+
+        // seconds 100 to 109 hold 1 to 10 events, the current second 110 is excluded
+        counter.record(110);
+        assertEquals(10, counter.count(1, 110));
+        assertEquals(10 + 9 + 8, counter.count(3, 110));
+        assertEquals(55, counter.count(10, 110));
+        assertEquals(55, counter.count(RateCounter.MAX_WINDOW, 110));
+        assertEquals(0, counter.count(RateCounter.MAX_WINDOW, 200));
+    }
+
+    @Test
+    @DisplayName("A bucket should be reset when its second comes back")
+    public void testReset() {
+        RateCounter counter = new RateCounter();
+        for (int i = 0; i < 5; i++)
+            counter.record(0);
+        counter.record(64);
+
+        assertEquals(1, counter.count(1, 65));
+        assertEquals(1, counter.count(RateCounter.MAX_WINDOW, 65));
+    }
+
+    @Test
+    @DisplayName("Events should be counted when the monotonic clock is negative")
+    public void testNegativeSeconds() {
+        RateCounter counter = new RateCounter();
+        for (long second = -10; second < 0; second++)
+            counter.record(second);
+        counter.record(-1);
+
+        assertEquals(2, counter.count(1, 0));
+        assertEquals(11, counter.count(10, 0));
+        assertEquals(5, counter.count(5, -5));
+    }
+
+    @Test
+    @DisplayName("Concurrent events should all be counted, and late events ignored")
+    public void testConcurrentRecords() throws InterruptedException {
+        RateCounter counter = new RateCounter();
+        int threads = 4;
+        int events = 100_000;
+
+        List<Thread> recorders = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < events; i++)
+                    counter.record(100 + i % 2);
+            });
+            recorders.add(thread);
+            thread.start();
+        }
+        for (Thread thread : recorders)
+            thread.join();
+
+        assertEquals((long) threads * events, counter.count(2, 102));
+
+        // an event of the previous lap does not reset the bucket
+        counter.record(100 - 64);
+        assertEquals((long) threads * events, counter.count(2, 102));
+    }
+
+    @Test
+    @DisplayName("Windows out of range should be rejected")
+    public void testWindow() {
+        RateCounter counter = new RateCounter();
+        assertThrows(IllegalArgumentException.class, () -> counter.count(0));
+        assertThrows(IllegalArgumentException.class, () -> counter.count(RateCounter.MAX_WINDOW + 1));
+        assertEquals(0, counter.rate(10), 0);
+    }
+}
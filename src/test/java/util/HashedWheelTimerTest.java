@@ -0,0 +1,102 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HashedWheelTimer tests")
+public class HashedWheelTimerTest {
+
+    @Test
+    @DisplayName("Timeouts should expire after their delay, not before")
+    public void testExpire() throws InterruptedException {
+        HashedWheelTimer timer = new HashedWheelTimer();
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(latch::countDown, 200, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsed >= 200);
+        assertEquals(200, elapsed, 100);
+        assertTrue(timeout.isExpired());
+        assertFalse(timeout.cancel());
+        assertEquals(0, timer.pendingTimeouts());
+        timer.stop();
+    }
+
+    @Test
+    @DisplayName("Delays longer than a turn of the wheel should wait for their rounds")
+    public void testRounds() throws InterruptedException {
+        HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 8);
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+        timer.newTimeout(latch::countDown, 500, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 500);
+        timer.stop();
+    }
+
+    @Test
+    @DisplayName("Cancelled timeouts should never run")
+    public void testCancel() {
+        HashedWheelTimer timer = new HashedWheelTimer();
+        AtomicInteger runs = new AtomicInteger();
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(runs::incrementAndGet, 100, TimeUnit.MILLISECONDS);
+        assertEquals(1, timer.pendingTimeouts());
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertTrue(timeout.isCancelled());
+        assertEquals(0, timer.pendingTimeouts());
+
+        try {
+            Thread.sleep(300);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        assertEquals(0, runs.get());
+        timer.stop();
+    }
+
+    @Test
+    @DisplayName("Many timeouts should all expire, except the cancelled ones")
+    public void testManyTimeouts() throws InterruptedException {
+        HashedWheelTimer timer = new HashedWheelTimer();
+        int count = 200_000;
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(count / 2);
+        for (int i = 0; i < count; i++) {
+            HashedWheelTimer.Timeout timeout = timer.newTimeout(() -> {
+                runs.incrementAndGet();
+                latch.countDown();
+            }, i % 1000, TimeUnit.MILLISECONDS);
+            if (i % 2 == 1)
+                timeout.cancel();
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(count / 2, runs.get());
+        assertEquals(0, timer.pendingTimeouts());
+        timer.stop();
+    }
+
+    @Test
+    @DisplayName("Timer should reject invalid arguments and new timeouts once stopped")
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new HashedWheelTimer(0, TimeUnit.MILLISECONDS, 8));
+        assertThrows(IllegalArgumentException.class, () -> new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 0));
+
+        HashedWheelTimer timer = new HashedWheelTimer();
+        assertThrows(IllegalArgumentException.class, () -> timer.newTimeout(null, 1, TimeUnit.SECONDS));
+        timer.stop();
+        assertThrows(IllegalStateException.class, () -> timer.newTimeout(() -> {}, 1, TimeUnit.SECONDS));
+    }
+}